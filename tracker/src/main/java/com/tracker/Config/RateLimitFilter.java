@@ -0,0 +1,84 @@
+package com.tracker.Config;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.RateLimitService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs right after {@link JwtFilter}: once the user is known, charges the request
+ * against their bucket and answers 429 when it is empty.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    // Счётчики заводятся на группу, поэтому набор групп фиксирован: произвольный путь не раздувает статистику
+    private static final Set<String> ROUTE_GROUPS = Set.of(
+        "activity", "admin", "batch", "calendar", "categories", "events", "habits",
+        "notes", "notifications", "stats", "sync", "tags", "tasks", "users"
+    );
+
+    private final RateLimitService rateLimitService;
+    private final boolean enabled;
+
+    public RateLimitFilter(
+        RateLimitService rateLimitService,
+        @Value("${rate-limit.enabled:true}") boolean enabled
+    ) {
+        this.rateLimitService = rateLimitService;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+            || "OPTIONS".equals(request.getMethod())
+            || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // Анонимные запросы отсекает Spring Security, лимитировать их здесь нечем
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean write = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+        long waitMs = rateLimitService.acquire(userDetails.getId(), routeGroup(request.getRequestURI()), write);
+
+        if (waitMs > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(RateLimitService.retryAfterSeconds(waitMs)));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Too many requests\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /** {@code /api/tasks/42/...} → {@code tasks}; unknown segments → {@code other} */
+    static String routeGroup(String uri) {
+        int start = "/api/".length();
+        int end = uri.indexOf('/', start);
+        String group = end < 0 ? uri.substring(start) : uri.substring(start, end);
+        return ROUTE_GROUPS.contains(group) ? group : "other";
+    }
+}
@@ -89,9 +89,17 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
-
-    public SecurityConfig(JwtFilter jwtFilter) {
+    private final RateLimitFilter rateLimitFilter;
+    private final ShardRoutingFilter shardRoutingFilter;
+
+    public SecurityConfig(
+        JwtFilter jwtFilter,
+        RateLimitFilter rateLimitFilter,
+        ShardRoutingFilter shardRoutingFilter
+    ) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.shardRoutingFilter = shardRoutingFilter;
     }
 
     @Bean
@@ -117,7 +125,13 @@ public class SecurityConfig {
             )
             
             // 4. Добавляем наш JWT фильтр перед стандартным
-            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+
+            // 5. Лимит запросов на пользователя — когда он уже известен
+            .addFilterAfter(rateLimitFilter, JwtFilter.class)
+
+            // 6. Выбираем шард пользователя до того, как откроется транзакция
+            .addFilterAfter(shardRoutingFilter, RateLimitFilter.class);
 
         return http.build();
     }
@@ -130,10 +144,14 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("https://pgtracker.vercel.app", "http://localhost:3000"));
         
         // Разрешаем стандартные методы
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         
         // Разрешаем заголовки, необходимые для JWT
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Cache-Control"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "Cache-Control",
+            "Range", "If-Range", "If-None-Match", "If-Match"));
+
+        // Заголовки, которые фронтенд должен видеть в ответе
+        configuration.setExposedHeaders(List.of("ETag", "Content-Range", "Content-Disposition", "Retry-After"));
         
         // Разрешаем браузеру принимать ответ от сервера (важно для CORS через HTTPS)
         configuration.setAllowCredentials(true);
@@ -0,0 +1,52 @@
+package com.tracker.Config;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard the current thread talks to. {@link ShardRoutingDataSource} reads it whenever
+ * a connection is opened, so it has to be set before a transaction starts.
+ * Unset means shard 0, which also holds the user directory.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static int currentOrDefault() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    public static void set(int shard) {
+        CURRENT.set(shard);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public static void runOn(int shard, Runnable action) {
+        callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package com.tracker.Config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Hands out connections of the shard selected in {@link ShardContext}.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private final Map<Integer, DataSource> shards;
+
+    public ShardRoutingDataSource(Map<Integer, DataSource> shards) {
+        this.shards = Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        setTargetDataSources(new LinkedHashMap<>(shards));
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public Map<Integer, DataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.currentOrDefault();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
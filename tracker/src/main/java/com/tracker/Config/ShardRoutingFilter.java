@@ -0,0 +1,71 @@
+package com.tracker.Config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.ShardRouter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Points the request at the authenticated user's home shard. Login, registration and
+ * the admin user endpoints stay on shard 0, where the user directory lives.
+ *
+ * Writes read the placement from the directory, so a finished move is followed at once
+ * and, while the user is fenced for a move, get 503. Reads use the cached placement.
+ */
+@Component
+public class ShardRoutingFilter extends OncePerRequestFilter {
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingFilter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !shardRouter.isEnabled()
+            || uri.startsWith("/auth/")
+            || uri.equals("/api/users")
+            || uri.startsWith("/api/users/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean write = !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+        ShardRouter.Placement placement = write
+            ? shardRouter.placementOf(userDetails.getId())
+            : shardRouter.cachedPlacementOf(userDetails.getId());
+        if (placement.readOnly() && write) {
+            // Данные пользователя сейчас переезжают — клиент повторит запрос
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "5");
+            return;
+        }
+
+        ShardContext.set(placement.shard());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ShardContext.clear();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tracker.Config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * With {@code sharding.enabled=true} the application DataSource becomes a router over
+ * one Hikari pool per configured shard. Otherwise Boot's single DataSource is used and
+ * everything runs on "shard 0".
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    public DataSource dataSource(ShardingProperties properties) {
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("sharding.enabled=true but no sharding.shards configured");
+        }
+
+        Map<Integer, DataSource> shards = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("shard-" + i);
+            config.setJdbcUrl(shard.getUrl());
+            config.setUsername(shard.getUsername());
+            config.setPassword(shard.getPassword());
+            if (shard.getDriverClassName() != null) {
+                config.setDriverClassName(shard.getDriverClassName());
+            }
+            config.setMaximumPoolSize(properties.getPoolSize());
+            config.setKeepaliveTime(30000);
+            config.setMaxLifetime(1800000);
+
+            shards.put(i, new HikariDataSource(config));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+}
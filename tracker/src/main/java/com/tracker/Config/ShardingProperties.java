@@ -0,0 +1,35 @@
+package com.tracker.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * {@code sharding.shards[i].url/username/password}; shard 0 is the user directory.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "sharding")
+public class ShardingProperties {
+    private boolean enabled;
+    private int virtualNodes = 128;
+    private int poolSize = 10;
+    // Сколько ждать после установки забора, чтобы дописались уже начатые запросы
+    private long fenceGraceMs = 2000;
+    // Сколько чтения обслуживаются закэшированным размещением, не обращаясь к каталогу
+    private long placementCacheMs = 1000;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+    }
+}
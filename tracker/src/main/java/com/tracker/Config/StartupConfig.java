@@ -0,0 +1,34 @@
+package com.tracker.Config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * With {@code spring.main.lazy-initialization=true} (the {@code fast} profile) beans are
+ * created on first use. Background beans have no first use — nobody injects them —
+ * so anything with {@code @Scheduled} methods or a startup hook stays eager.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter backgroundBeansStayEager() {
+        return (beanName, beanDefinition, beanType) ->
+            SmartInitializingSingleton.class.isAssignableFrom(beanType) || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+            method -> found.set(true),
+            method -> !found.get() && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return found.get();
+    }
+}
@@ -0,0 +1,60 @@
+package com.tracker.Config;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs how long the instance took to become ready. When started with
+ * {@code -Dstartup.report=true} the context records every startup step
+ * (see {@code TrackerApplication}) and the slowest ones are listed too.
+ */
+@Component
+public class StartupReport {
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    private final ApplicationStartup applicationStartup;
+
+    @Value("${startup.report-top:15}")
+    private int top;
+
+    public StartupReport(ApplicationStartup applicationStartup) {
+        this.applicationStartup = applicationStartup;
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        long jvmUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Ready {} ms after JVM start (context {} ms, AOT {})",
+            jvmUptime,
+            event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+            Boolean.getBoolean("spring.aot.enabled"));
+
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        StartupTimeline timeline = buffering.drainBufferedTimeline();
+        timeline.getEvents().stream()
+            .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+            .limit(top)
+            .forEach(step -> log.info("  {} ms  {} {}",
+                step.getDuration().toMillis(),
+                step.getStartupStep().getName(),
+                describe(step)));
+    }
+
+    private static String describe(StartupTimeline.TimelineEvent step) {
+        StringBuilder tags = new StringBuilder();
+        step.getStartupStep().getTags().forEach(tag -> tags.append(tag.getKey()).append('=').append(tag.getValue()).append(' '));
+        return tags.toString().trim();
+    }
+}
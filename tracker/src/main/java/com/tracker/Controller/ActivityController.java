@@ -0,0 +1,32 @@
+package com.tracker.Controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tracker.DTO.ActivityResponse;
+import com.tracker.Service.ActivityLogService;
+import com.tracker.Service.CustomUserDetails;
+
+@RestController
+@RequestMapping("/api/activity")
+public class ActivityController {
+    private final ActivityLogService activityLogService;
+
+    public ActivityController(ActivityLogService activityLogService) {
+        this.activityLogService = activityLogService;
+    }
+
+    @GetMapping
+    public Page<ActivityResponse> getAllByUserId(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        Pageable pageable
+    ) {
+        Long userId = userDetails.getId();
+
+        return activityLogService.getAllByUserId(userId, pageable);
+    }
+}
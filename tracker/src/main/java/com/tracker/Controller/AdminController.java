@@ -0,0 +1,78 @@
+package com.tracker.Controller;
+
+import java.util.List;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tracker.DTO.ActivityStats;
+import com.tracker.DTO.JobResponse;
+import com.tracker.DTO.RateLimitStats;
+import com.tracker.DTO.ShardMigrationResponse;
+import com.tracker.Service.ActivityLogService;
+import com.tracker.Service.JobQueueService;
+import com.tracker.Service.RateLimitService;
+import com.tracker.Service.ShardMigrationService;
+import com.tracker.Service.ShardRouter;
+
+import jakarta.persistence.EntityNotFoundException;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final RateLimitService rateLimitService;
+    private final ShardRouter shardRouter;
+    private final ShardMigrationService shardMigrationService;
+    private final ActivityLogService activityLogService;
+    private final JobQueueService jobQueueService;
+
+    public AdminController(
+        RateLimitService rateLimitService,
+        ShardRouter shardRouter,
+        ShardMigrationService shardMigrationService,
+        ActivityLogService activityLogService,
+        JobQueueService jobQueueService
+    ) {
+        this.rateLimitService = rateLimitService;
+        this.shardRouter = shardRouter;
+        this.shardMigrationService = shardMigrationService;
+        this.activityLogService = activityLogService;
+        this.jobQueueService = jobQueueService;
+    }
+
+    @GetMapping("/rate-limits")
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<RateLimitStats> getRateLimitStats() {
+        return rateLimitService.getStats();
+    }
+
+    @GetMapping("/activity")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ActivityStats getActivityStats() {
+        return activityLogService.getStats();
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public JobResponse getJob(@PathVariable String jobId) {
+        return jobQueueService.find(jobId)
+            .orElseThrow(() -> new EntityNotFoundException("Job not found"));
+    }
+
+    @GetMapping("/users/{id}/shard")
+    @PreAuthorize("hasRole('ADMIN')")
+    public int getShard(@PathVariable Long id) {
+        return shardRouter.shardFor(id);
+    }
+
+    @PostMapping("/users/{id}/shard")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ShardMigrationResponse migrate(@PathVariable Long id, @RequestParam int target) {
+        return shardMigrationService.migrate(id, target);
+    }
+}
@@ -0,0 +1,99 @@
+package com.tracker.Controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import com.tracker.DTO.NoteAttachmentResponse;
+import com.tracker.Service.AttachmentService;
+import com.tracker.Service.CustomUserDetails;
+import com.tracker.Utils.RangeFileWriter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Upload sends the raw file as the request body ({@code ?filename=} names it), so the
+ * bytes are streamed straight to disk instead of going through multipart parsing.
+ */
+@RestController
+@RequestMapping("/api/notes/{noteId}/attachments")
+public class AttachmentController {
+    private final AttachmentService attachmentService;
+
+    public AttachmentController(AttachmentService attachmentService) {
+        this.attachmentService = attachmentService;
+    }
+
+    @GetMapping
+    public List<NoteAttachmentResponse> getAll(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("noteId") Long noteId
+    ) {
+        Long userId = userDetails.getId();
+
+        return attachmentService.getAll(userId, noteId);
+    }
+
+    @PostMapping
+    public NoteAttachmentResponse upload(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("noteId") Long noteId,
+        @RequestParam("filename") String fileName,
+        HttpServletRequest request
+    ) throws IOException {
+        Long userId = userDetails.getId();
+        String contentType = request.getContentType() != null
+            ? request.getContentType()
+            : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+
+        return attachmentService.upload(userId, noteId, fileName, contentType, request.getInputStream());
+    }
+
+    @GetMapping("/{id}")
+    public void download(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("noteId") Long noteId,
+        @PathVariable("id") Long id,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        Long userId = userDetails.getId();
+        NoteAttachmentResponse attachment = attachmentService.getById(userId, noteId, id);
+
+        response.setContentType(attachment.getContentType() != null
+            ? attachment.getContentType()
+            : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+            .build()
+            .toString());
+        // Содержимое вложения по id никогда не меняется
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+
+        RangeFileWriter.write(
+            request,
+            response,
+            attachmentService.resolveFile(attachment),
+            attachment.getSize(),
+            "\"" + attachment.getSha256() + "\""
+        );
+    }
+
+    @DeleteMapping("/{id}")
+    public void delete(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("noteId") Long noteId,
+        @PathVariable("id") Long id
+    ) {
+        Long userId = userDetails.getId();
+
+        attachmentService.delete(userId, noteId, id);
+    }
+}
@@ -0,0 +1,54 @@
+package com.tracker.Controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tracker.DTO.BatchRequest;
+import com.tracker.DTO.BatchResponse;
+import com.tracker.Service.BatchService;
+import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.RateLimitService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+    private final BatchService batchService;
+    private final RateLimitService rateLimitService;
+
+    public BatchController(BatchService batchService, RateLimitService rateLimitService) {
+        this.batchService = batchService;
+        this.rateLimitService = rateLimitService;
+    }
+
+    @PostMapping
+    public ResponseEntity<BatchResponse> execute(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @Valid @RequestBody BatchRequest request
+    ) {
+        if (request.getOperations().size() > batchService.getMaxOperations()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        // Фильтр списал одну запись на запрос, остальные операции оплачиваются здесь
+        long waitMs = rateLimitService.acquireExtraWrites(userDetails.getId(), "batch", request.getOperations().size() - 1);
+        if (waitMs > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(RateLimitService.retryAfterSeconds(waitMs)))
+                .build();
+        }
+
+        BatchResponse response = batchService.execute(userDetails.getId(), request.getOperations());
+        if (response.isCommitted()) {
+            return ResponseEntity.ok(response);
+        }
+        // Код ответа — код упавшей операции
+        int status = response.getResults().get(response.getResults().size() - 1).getStatus();
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -0,0 +1,66 @@
+package com.tracker.Controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tracker.Service.CalendarService;
+import com.tracker.Service.CustomUserDetails;
+
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+@RestController
+@RequestMapping("/api/calendar")
+public class CalendarController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final CalendarService calendarService;
+    private final JsonMapper jsonMapper;
+
+    public CalendarController(CalendarService calendarService, JsonMapper jsonMapper) {
+        this.calendarService = calendarService;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * One JSON object per day and line; lines leave as the response buffer fills,
+     * so the client can render the first weeks while the rest is still being written.
+     */
+    @GetMapping
+    public void getCalendar(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        HttpServletResponse response
+    ) throws IOException {
+        Long userId = userDetails.getId();
+        calendarService.validate(from, to);
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream out = response.getOutputStream();
+        try {
+            calendarService.forEachDay(userId, from, to, day -> {
+                try {
+                    out.write(jsonMapper.writeValueAsBytes(day));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+}
@@ -1,27 +1,34 @@
 package com.tracker.Controller;
 
+import com.tracker.DTO.CategoryMoveRequest;
 import com.tracker.DTO.CategoryRequest;
 import com.tracker.DTO.CategoryResponse;
-import com.tracker.DTO.NoteResponse;
+import com.tracker.DTO.NoteSummaryResponse;
 import com.tracker.DTO.TaskResponse;
 import com.tracker.Service.CategoryService;
 import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.SparseFieldsService;
+import com.tracker.Utils.ETags;
 
 import jakarta.validation.Valid;
 
 import org.springframework.data.domain.*;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/categories")
 //@CrossOrigin(origins = "https://pgtracker.vercel.app")
 public class CategoryController {
     private final CategoryService categoryService;
+    private final SparseFieldsService sparseFieldsService;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, SparseFieldsService sparseFieldsService) {
         this.categoryService = categoryService;
+        this.sparseFieldsService = sparseFieldsService;
     }
 
     @GetMapping
@@ -35,14 +42,26 @@ public class CategoryController {
         return categoryService.getAllByUserId(userId, pageable);
     }
 
+    @GetMapping(params = "fields")
+    public Page<Map<String, Object>> getFields(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam String fields,
+        Pageable pageable
+    ) {
+        Long userId = userDetails.getId();
+
+        return sparseFieldsService.getCategories(userId, fields, pageable);
+    }
+
     @GetMapping("/{id}/notes")
-    public List<NoteResponse> getNotesByCategory
+    public List<NoteSummaryResponse> getNotesByCategory
     (
         @AuthenticationPrincipal CustomUserDetails userDetails,
-        @PathVariable("id") Long categoryId
+        @PathVariable("id") Long categoryId,
+        @RequestParam(defaultValue = "false") boolean includeDescendants
     ) {
         Long userId = userDetails.getId();
-        List<NoteResponse> notesByCategory = categoryService.getNotesByCategoryAndUserId(userId, categoryId);
+        List<NoteSummaryResponse> notesByCategory = categoryService.getNotesByCategoryAndUserId(userId, categoryId, includeDescendants);
         // Должен добавить IDOR Protection (проверку через userId)
         return notesByCategory;
     }
@@ -51,10 +70,11 @@ public class CategoryController {
     public List<TaskResponse> getTasksByCategory
     (
         @AuthenticationPrincipal CustomUserDetails userDetails,
-        @PathVariable("id") Long categoryId
+        @PathVariable("id") Long categoryId,
+        @RequestParam(defaultValue = "false") boolean includeDescendants
     ) {
         Long userId = userDetails.getId();
-        List<TaskResponse> tasksByCategory = categoryService.getTasksByCategoryAndUserId(userId, categoryId);
+        List<TaskResponse> tasksByCategory = categoryService.getTasksByCategoryAndUserId(userId, categoryId, includeDescendants);
         return tasksByCategory;
     }
 
@@ -69,22 +89,37 @@ public class CategoryController {
     }
 
     @PutMapping("/{id}")
-    public CategoryResponse update(
+    public ResponseEntity<CategoryResponse> update(
         @AuthenticationPrincipal CustomUserDetails userDetails, 
         @PathVariable("id") Long categoryId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch,
         @Valid @RequestBody CategoryRequest request
     ) {
         Long userId = userDetails.getId();
-        return categoryService.update(userId, categoryId, request);
+        CategoryResponse response = categoryService.update(userId, categoryId, request, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(response);
+    }
+
+    @PutMapping("/{id}/parent")
+    public ResponseEntity<CategoryResponse> move(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long categoryId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch,
+        @RequestBody CategoryMoveRequest request
+    ) {
+        Long userId = userDetails.getId();
+        CategoryResponse response = categoryService.move(userId, categoryId, request, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(response);
     }
 
     @DeleteMapping("/{id}")
     public void delete
     (
         @AuthenticationPrincipal CustomUserDetails userDetails, 
-        @PathVariable("id") Long categoryId
+        @PathVariable("id") Long categoryId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch
     ) {
         Long userId = userDetails.getId();
-        categoryService.delete(userId, categoryId);
+        categoryService.delete(userId, categoryId, ETags.parseIfMatch(ifMatch));
     }
 }
@@ -0,0 +1,26 @@
+package com.tracker.Controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tracker.Service.ChangeFeedService;
+import com.tracker.Service.CustomUserDetails;
+
+@RestController
+public class EventController {
+    private final ChangeFeedService changeFeedService;
+
+    public EventController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @GetMapping(path = "/api/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        Long userId = userDetails.getId();
+
+        return changeFeedService.subscribe(userId);
+    }
+}
@@ -1,23 +1,36 @@
 package com.tracker.Controller;
 
+import java.util.Map;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
 
+import com.tracker.DTO.HabitPatchRequest;
 import com.tracker.DTO.HabitResponse;
 import com.tracker.Service.CustomUserDetails;
 import com.tracker.Service.HabitService;
+import com.tracker.Service.SparseFieldsService;
+import com.tracker.Utils.ETags;
 
-@Controller
+@RestController
 @RequestMapping("/api/habits")
 public class HabitController {
     private final HabitService habitService;
+    private final SparseFieldsService sparseFieldsService;
 
-    public HabitController(HabitService habitService) {
+    public HabitController(HabitService habitService, SparseFieldsService sparseFieldsService) {
         this.habitService = habitService;
+        this.sparseFieldsService = sparseFieldsService;
     }
 
     @GetMapping
@@ -29,4 +42,31 @@ public class HabitController {
 
         return habitService.getAllByUserId(userId, pageable);
     }
+
+    @GetMapping(params = "fields")
+    public Page<Map<String, Object>> getFields(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam String fields,
+        Pageable pageable
+    ) {
+        Long userId = userDetails.getId();
+
+        return sparseFieldsService.getHabits(userId, fields, pageable);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long habitId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch,
+        @RequestBody HabitPatchRequest request
+    ) {
+        Long userId = userDetails.getId();
+
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        habitService.patch(userId, habitId, request, expectedVersion);
+        return expectedVersion != null
+            ? ResponseEntity.noContent().eTag(ETags.of(expectedVersion + 1)).build()
+            : ResponseEntity.noContent().build();
+    }
 }
@@ -1,12 +1,25 @@
 package com.tracker.Controller;
 
+import com.tracker.DTO.NotePatchRequest;
 import com.tracker.DTO.NoteResponse;
 import com.tracker.DTO.NoteRequest;
+import com.tracker.DTO.NoteSummaryResponse;
+import com.tracker.DTO.TagAssignRequest;
+import com.tracker.DTO.TagResponse;
+import com.tracker.Entity.TaggedType;
 import com.tracker.Service.CustomUserDetails;
 import com.tracker.Service.NoteService;
+import com.tracker.Service.SparseFieldsService;
+import com.tracker.Service.TagService;
+import com.tracker.Utils.ETags;
 import jakarta.validation.Valid;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.data.domain.*;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,9 +28,13 @@ import org.springframework.web.bind.annotation.*;
 //@CrossOrigin(origins = "https://pgtracker.vercel.app")
 public class NoteController {
     private final NoteService noteService;
+    private final SparseFieldsService sparseFieldsService;
+    private final TagService tagService;
 
-    public NoteController(NoteService noteService) {
+    public NoteController(NoteService noteService, SparseFieldsService sparseFieldsService, TagService tagService) {
         this.noteService = noteService;
+        this.sparseFieldsService = sparseFieldsService;
+        this.tagService = tagService;
     }
 
     // @GetMapping
@@ -26,7 +43,7 @@ public class NoteController {
     // }
 
     @GetMapping
-    public Page<NoteResponse> getAll(
+    public Page<NoteSummaryResponse> getAll(
         @AuthenticationPrincipal CustomUserDetails userDetails,
         @RequestParam(required = false) Long categoryId,
         Pageable pageable
@@ -36,6 +53,29 @@ public class NoteController {
         return noteService.getAllByUserId(userId, categoryId, pageable);
     }
 
+    @GetMapping(params = "fields")
+    public Page<Map<String, Object>> getFields(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam(required = false) Long categoryId,
+        @RequestParam String fields,
+        Pageable pageable
+    ) {
+        Long userId = userDetails.getId();
+
+        return sparseFieldsService.getNotes(userId, categoryId, fields, pageable);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<NoteResponse> getById(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long noteId
+    ) {
+        Long userId = userDetails.getId();
+
+        NoteResponse response = noteService.getById(userId, noteId);
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(response);
+    }
+
     @PostMapping
     public NoteResponse create(
         @AuthenticationPrincipal CustomUserDetails userDetails,
@@ -47,23 +87,74 @@ public class NoteController {
     }
 
     @PutMapping("/{id}")
-    public NoteResponse update( 
+    public ResponseEntity<NoteResponse> update( 
         @AuthenticationPrincipal CustomUserDetails userDetails,
         @PathVariable("id") Long taskId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch,
         @Valid @RequestBody NoteRequest request
     ) {
         Long userId = userDetails.getId();
 
-        return noteService.update(userId, taskId, request);
+        NoteResponse response = noteService.update(userId, taskId, request, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(response);
+    }
+
+    // all — все метки, any — хотя бы одна, none — ни одной
+    @GetMapping("/tagged")
+    public Page<NoteSummaryResponse> getTagged(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam(required = false) Set<Long> all,
+        @RequestParam(required = false) Set<Long> any,
+        @RequestParam(required = false) Set<Long> none,
+        Pageable pageable
+    ) {
+        Long userId = userDetails.getId();
+        return tagService.findNotes(userId, all, any, none, pageable);
+    }
+
+    @GetMapping("/{id}/tags")
+    public List<TagResponse> getTags(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long noteId
+    ) {
+        Long userId = userDetails.getId();
+        return tagService.getTags(userId, TaggedType.NOTE, noteId);
+    }
+
+    @PutMapping("/{id}/tags")
+    public List<TagResponse> setTags(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long noteId,
+        @Valid @RequestBody TagAssignRequest request
+    ) {
+        Long userId = userDetails.getId();
+        return tagService.setTags(userId, TaggedType.NOTE, noteId, request.getTagIds());
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long noteId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch,
+        @RequestBody NotePatchRequest request
+    ) {
+        Long userId = userDetails.getId();
+
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        noteService.patch(userId, noteId, request, expectedVersion);
+        return expectedVersion != null
+            ? ResponseEntity.noContent().eTag(ETags.of(expectedVersion + 1)).build()
+            : ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}") 
     public void delete(
         @AuthenticationPrincipal CustomUserDetails userDetails,
-        @PathVariable("id") Long id 
+        @PathVariable("id") Long id,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch
     ) {
         Long userId = userDetails.getId();
 
-        noteService.delete(userId, id);
+        noteService.delete(userId, id, ETags.parseIfMatch(ifMatch));
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.tracker.Controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import com.tracker.DTO.NotificationResponse;
+import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.NotificationService;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+    private final NotificationService notificationService;
+
+    public NotificationController(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @GetMapping
+    public Page<NotificationResponse> getAllByUserId(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam(defaultValue = "false") boolean unreadOnly,
+        Pageable pageable
+    ) {
+        Long userId = userDetails.getId();
+
+        return notificationService.getAllByUserId(userId, unreadOnly, pageable);
+    }
+
+    @PatchMapping("/{id}/read")
+    public ResponseEntity<Void> markRead(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long id
+    ) {
+        Long userId = userDetails.getId();
+
+        notificationService.markRead(userId, id);
+        return ResponseEntity.noContent().build();
+    }
+}
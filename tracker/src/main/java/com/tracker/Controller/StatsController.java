@@ -0,0 +1,37 @@
+package com.tracker.Controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tracker.DTO.CompletionPoint;
+import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.ProductivityService;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+    private final ProductivityService productivityService;
+
+    public StatsController(ProductivityService productivityService) {
+        this.productivityService = productivityService;
+    }
+
+    @GetMapping("/completions")
+    public List<CompletionPoint> getCompletions(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam(defaultValue = "WEEK") ProductivityService.Granularity granularity,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(required = false) Long categoryId
+    ) {
+        Long userId = userDetails.getId();
+        return productivityService.getCompletions(userId, granularity, from, to, categoryId);
+    }
+}
@@ -0,0 +1,31 @@
+package com.tracker.Controller;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tracker.DTO.SyncResponse;
+import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.SyncService;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    @GetMapping
+    public SyncResponse getChanges(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam(required = false) Long since
+    ) {
+        Long userId = userDetails.getId();
+
+        return syncService.getChanges(userId, since);
+    }
+}
@@ -0,0 +1,46 @@
+package com.tracker.Controller;
+
+import com.tracker.DTO.TagRequest;
+import com.tracker.DTO.TagResponse;
+import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.TagService;
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/tags")
+public class TagController {
+    private final TagService tagService;
+
+    public TagController(TagService tagService) {
+        this.tagService = tagService;
+    }
+
+    @GetMapping
+    public List<TagResponse> getAll(@AuthenticationPrincipal CustomUserDetails userDetails) {
+        Long userId = userDetails.getId();
+        return tagService.getAllByUserId(userId);
+    }
+
+    @PostMapping
+    public TagResponse create(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @Valid @RequestBody TagRequest request
+    ) {
+        Long userId = userDetails.getId();
+        return tagService.save(userId, request);
+    }
+
+    @DeleteMapping("/{id}")
+    public void delete(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long tagId
+    ) {
+        Long userId = userDetails.getId();
+        tagService.delete(userId, tagId);
+    }
+}
@@ -1,12 +1,31 @@
 package com.tracker.Controller;
 
+import com.tracker.DTO.BoardColumn;
+import com.tracker.DTO.TagAssignRequest;
+import com.tracker.DTO.TagResponse;
+import com.tracker.DTO.TaskMoveRequest;
+import com.tracker.DTO.TaskOccurrenceResponse;
+import com.tracker.DTO.TaskPatchRequest;
 import com.tracker.DTO.TaskResponse;
 import com.tracker.DTO.TaskRequest;
 import com.tracker.Service.CustomUserDetails;
+import com.tracker.Service.SparseFieldsService;
+import com.tracker.Service.TagService;
 import com.tracker.Service.TaskService;
+import com.tracker.Entity.TaggedType;
+import com.tracker.Exceptions.InvalidFieldsException;
+import com.tracker.Utils.ETags;
 import jakarta.validation.Valid;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,9 +36,16 @@ import org.springframework.web.bind.annotation.*;
 //@CrossOrigin(origins = "https://pgtracker.vercel.app")
 public class TaskController {
     private final TaskService taskService;
+    private final SparseFieldsService sparseFieldsService;
+    private final TagService tagService;
+
+    @Value("${board.max-limit:100}")
+    private int maxBoardLimit;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, SparseFieldsService sparseFieldsService, TagService tagService) {
         this.taskService = taskService;
+        this.sparseFieldsService = sparseFieldsService;
+        this.tagService = tagService;
     }
 
     @GetMapping
@@ -34,6 +60,58 @@ public class TaskController {
         return taskService.getAllByUserId(userId, pageable);
     }
 
+    @GetMapping(params = "fields")
+    public Page<Map<String, Object>> getFields(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam String fields,
+        Pageable pageable
+    ) {
+        Long userId = userDetails.getId();
+        return sparseFieldsService.getTasks(userId, fields, pageable);
+    }
+
+    @GetMapping("/board")
+    public List<BoardColumn> getBoard(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        Long userId = userDetails.getId();
+        return taskService.getBoard(userId, checkBoardLimit(limit));
+    }
+
+    // Без status — колонка задач без статуса
+    @GetMapping("/board/column")
+    public BoardColumn getBoardColumn(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam(required = false) String status,
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        Long userId = userDetails.getId();
+        return taskService.getBoardColumn(userId, status, cursor, checkBoardLimit(limit));
+    }
+
+    @GetMapping("/occurrences")
+    public List<TaskOccurrenceResponse> getOccurrences(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        Long userId = userDetails.getId();
+        return taskService.getOccurrences(userId, from, to);
+    }
+
+    @PatchMapping("/{id}/occurrences")
+    public TaskResponse patchOccurrence(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long seriesId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+        @RequestBody TaskPatchRequest request
+    ) {
+        Long userId = userDetails.getId();
+        return taskService.patchOccurrence(userId, seriesId, date, request);
+    }
+
     @PostMapping
     public TaskResponse create(@AuthenticationPrincipal CustomUserDetails userDetails,
                                 @Valid @RequestBody TaskRequest request
@@ -47,21 +125,91 @@ public class TaskController {
     }
 
     @PutMapping("/{id}")
-    public TaskResponse update(
+    public ResponseEntity<TaskResponse> update(
         @AuthenticationPrincipal CustomUserDetails userDetails,
         @PathVariable("id") Long taskId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch,
         @Valid @RequestBody TaskRequest request
     ) {
         Long userId = userDetails.getId();
-        return taskService.update(userId, taskId, request);
+        TaskResponse response = taskService.update(userId, taskId, request, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(response);
+    }
+
+    @PutMapping("/{id}/position")
+    public ResponseEntity<TaskResponse> move(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long taskId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch,
+        @RequestBody TaskMoveRequest request
+    ) {
+        Long userId = userDetails.getId();
+        TaskResponse response = taskService.move(userId, taskId, request, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(response.getVersion())).body(response);
+    }
+
+    // all — все метки, any — хотя бы одна, none — ни одной
+    @GetMapping("/tagged")
+    public Page<TaskResponse> getTagged(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @RequestParam(required = false) Set<Long> all,
+        @RequestParam(required = false) Set<Long> any,
+        @RequestParam(required = false) Set<Long> none,
+        Pageable pageable
+    ) {
+        Long userId = userDetails.getId();
+        return tagService.findTasks(userId, all, any, none, pageable);
+    }
+
+    @GetMapping("/{id}/tags")
+    public List<TagResponse> getTags(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long taskId
+    ) {
+        Long userId = userDetails.getId();
+        return tagService.getTags(userId, TaggedType.TASK, taskId);
+    }
+
+    @PutMapping("/{id}/tags")
+    public List<TagResponse> setTags(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long taskId,
+        @Valid @RequestBody TagAssignRequest request
+    ) {
+        Long userId = userDetails.getId();
+        return tagService.setTags(userId, TaggedType.TASK, taskId, request.getTagIds());
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(
+        @AuthenticationPrincipal CustomUserDetails userDetails,
+        @PathVariable("id") Long taskId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch,
+        @RequestBody TaskPatchRequest request
+    ) {
+        Long userId = userDetails.getId();
+        Long expectedVersion = ETags.parseIfMatch(ifMatch);
+        taskService.patch(userId, taskId, request, expectedVersion);
+        // Версия известна только при условной записи
+        return expectedVersion != null
+            ? ResponseEntity.noContent().eTag(ETags.of(expectedVersion + 1)).build()
+            : ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
     public void delete(
         @AuthenticationPrincipal CustomUserDetails userDetails,
-        @PathVariable("id") Long taskId
+        @PathVariable("id") Long taskId,
+        @RequestHeader(value = "If-Match", required = false) String ifMatch
     ) {
         Long userId = userDetails.getId();
-        taskService.delete(userId, taskId);
+        taskService.delete(userId, taskId, ETags.parseIfMatch(ifMatch));
+    }
+
+    private int checkBoardLimit(int limit) {
+        if (limit < 1 || limit > maxBoardLimit) {
+            throw new InvalidFieldsException("limit must be between 1 and " + maxBoardLimit);
+        }
+        return limit;
     }
 }
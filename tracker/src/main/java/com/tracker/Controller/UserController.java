@@ -1,11 +1,13 @@
 package com.tracker.Controller;
 
+import com.tracker.DTO.UserDeletionResponse;
 import com.tracker.DTO.UserRequest;
 import com.tracker.DTO.UserResponse;
 import com.tracker.Service.UserService;
 import jakarta.validation.Valid;
 
 import org.springframework.data.domain.*;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -39,7 +41,18 @@ public class UserController {
     }
 
     @DeleteMapping("/{id}") 
-    public void delete(@PathVariable("id") Long id) {
-        userService.delete(id);
+    public ResponseEntity<UserDeletionResponse> delete(@PathVariable("id") Long id) {
+        UserDeletionResponse deletion = userService.delete(id);
+
+        // Большие аккаунты удаляются в фоне — отдаём статус задачи
+        if (deletion == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.accepted().body(deletion);
+    }
+
+    @GetMapping("/deletions/{jobId}")
+    public UserDeletionResponse getDeletionStatus(@PathVariable("jobId") String jobId) {
+        return userService.getDeletionStatus(jobId);
     }
 }
@@ -0,0 +1,21 @@
+package com.tracker.DTO;
+
+import java.time.Instant;
+
+import com.tracker.Entity.ActivityAction;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ActivityResponse {
+    private Long id;
+    private String entityType;
+    private Long entityId;
+    private ActivityAction action;
+    private String title;
+    // "Task "Buy milk" completed"
+    private String message;
+    private Instant createdAt;
+}
@@ -0,0 +1,13 @@
+package com.tracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ActivityStats {
+    private int buffered;
+    private long written;
+    private long dropped;
+    private long failed;
+}
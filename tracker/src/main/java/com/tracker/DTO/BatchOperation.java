@@ -0,0 +1,39 @@
+package com.tracker.DTO;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One step of a {@code POST /api/batch}. Exactly one payload matching
+ * {@code entity} and {@code op} is read: {@code task}/{@code taskPatch},
+ * {@code note}/{@code notePatch}, {@code habit}/{@code habitPatch} or {@code category}.
+ *
+ * {@code idRef} and {@code categoryRef} point at an earlier step (by index) and are
+ * replaced with the id that step produced, e.g. a category created in step 0.
+ * {@code version} works like {@code If-Match} on the single-entity endpoints.
+ */
+@Getter
+@Setter
+public class BatchOperation {
+    public enum Op { CREATE, UPDATE, PATCH, DELETE }
+
+    @NotNull(message = "Operation is mandatory")
+    private Op op;
+
+    @NotNull(message = "Entity is mandatory")
+    private ChangeEvent.EntityType entity;
+
+    private Long id;
+    private Integer idRef;
+    private Integer categoryRef;
+    private Long version;
+
+    private TaskRequest task;
+    private TaskPatchRequest taskPatch;
+    private NoteRequest note;
+    private NotePatchRequest notePatch;
+    private HabitRequest habit;
+    private HabitPatchRequest habitPatch;
+    private CategoryRequest category;
+}
@@ -0,0 +1,15 @@
+package com.tracker.DTO;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BatchRequest {
+    @NotEmpty(message = "Operations are mandatory")
+    private List<@Valid BatchOperation> operations;
+}
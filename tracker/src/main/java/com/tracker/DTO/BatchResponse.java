@@ -0,0 +1,15 @@
+package com.tracker.DTO;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BatchResponse {
+    // false — упала операция failedIndex, всё остальное откатено
+    private boolean committed;
+    private Integer failedIndex;
+    private List<BatchResult> results;
+}
@@ -0,0 +1,15 @@
+package com.tracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BatchResult {
+    private int index;
+    private int status;
+    private Long id;
+    // TaskResponse, NoteResponse, ... — у update/create; у patch/delete пусто
+    private Object body;
+    private String error;
+}
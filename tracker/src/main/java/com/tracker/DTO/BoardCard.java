@@ -0,0 +1,18 @@
+package com.tracker.DTO;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BoardCard {
+    private Long id;
+    private String task;
+    private String priority;
+    private boolean completed;
+    private LocalDateTime dueDate;
+    private Long categoryId;
+    private Long version;
+}
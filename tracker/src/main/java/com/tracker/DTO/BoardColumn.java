@@ -0,0 +1,21 @@
+package com.tracker.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One status column. {@code nextCursor} is passed back as {@code cursor} to load
+ * the following cards and is {@code null} when the column is exhausted;
+ * {@code total} is only filled on the full board.
+ */
+@Getter
+@Setter
+public class BoardColumn {
+    private String status;
+    private Long total;
+    private List<BoardCard> tasks = new ArrayList<>();
+    private Long nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.tracker.DTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CalendarDay {
+    private LocalDate date;
+    private List<TaskOccurrenceResponse> tasks = new ArrayList<>();
+    private List<HabitResponse> habits = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package com.tracker.DTO;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * New parent of a category; the whole subtree moves with it.
+ * Without {@code parentId} the category becomes a root.
+ */
+@Getter
+@Setter
+public class CategoryMoveRequest {
+    private Long parentId;
+}
@@ -10,4 +10,7 @@ public class CategoryRequest {
     
     @NotNull(message = "Category name is mandatory")
     private String name;
+
+    // Только при создании; перенос — через PUT /api/categories/{id}/parent
+    private Long parentId;
 }
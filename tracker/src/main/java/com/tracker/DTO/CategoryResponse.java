@@ -1,5 +1,7 @@
 package com.tracker.DTO;
 
+import java.time.Instant;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,4 +11,7 @@ public class CategoryResponse {
     
     private Long id;
     private String name;
+    private Long parentId;
+    private Instant updatedAt;
+    private Long version;
 }
@@ -0,0 +1,45 @@
+package com.tracker.DTO;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the services after every create/update/delete and pushed to the
+ * owner's open {@code /api/events} streams once the transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeEvent {
+    public enum EntityType { TASK, NOTE, HABIT, CATEGORY }
+
+    public enum Action { CREATED, UPDATED, DELETED }
+
+    private EntityType entity;
+    private Action action;
+    private Long id;
+
+    @JsonIgnore
+    private Long userId;
+
+    private Instant occurredAt;
+
+    // Для журнала активности, в поток событий не уходит
+    @JsonIgnore
+    private String title;
+
+    // Изменение отметило задачу выполненной
+    @JsonIgnore
+    private boolean completion;
+
+    public static ChangeEvent of(EntityType entity, Action action, Long id, Long userId) {
+        return of(entity, action, id, userId, null, false);
+    }
+
+    public static ChangeEvent of(EntityType entity, Action action, Long id, Long userId, String title, boolean completion) {
+        return new ChangeEvent(entity, action, id, userId, Instant.now(), title, completion);
+    }
+}
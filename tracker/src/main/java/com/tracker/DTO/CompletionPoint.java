@@ -0,0 +1,14 @@
+package com.tracker.DTO;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CompletionPoint {
+    private LocalDate periodStart;
+    private Long tasksCompleted;
+    private Long habitsCompleted;
+}
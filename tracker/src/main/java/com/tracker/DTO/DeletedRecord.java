@@ -0,0 +1,11 @@
+package com.tracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DeletedRecord {
+    private String entity;
+    private Long id;
+}
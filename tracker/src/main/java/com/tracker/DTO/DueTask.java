@@ -0,0 +1,28 @@
+package com.tracker.DTO;
+
+import java.time.LocalDateTime;
+
+import com.tracker.Entity.RecurrenceFrequency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Just enough of a task to schedule its reminders.
+ */
+@Getter
+@AllArgsConstructor
+public class DueTask {
+    private Long id;
+    private Long userId;
+    private String task;
+    private LocalDateTime dueDate;
+    private boolean completed;
+    private RecurrenceFrequency recurrenceFrequency;
+    private Integer recurrenceInterval;
+    private LocalDateTime recurrenceUntil;
+
+    public boolean isRecurring() {
+        return recurrenceFrequency != null;
+    }
+}
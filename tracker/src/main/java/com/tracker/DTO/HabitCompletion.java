@@ -0,0 +1,21 @@
+package com.tracker.DTO;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Just enough of a habit to tell which rollup day it counts on, if any.
+ */
+@Getter
+@AllArgsConstructor
+public class HabitCompletion {
+    private boolean done;
+    private LocalDate date;
+
+    // День, в который привычка засчитана; без даты не учитывается
+    public LocalDate doneDate() {
+        return done ? date : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.tracker.DTO;
+
+import java.time.LocalDate;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Partial habit update: only non-null fields are written, everything else keeps its value.
+ */
+@Getter
+@Setter
+public class HabitPatchRequest {
+    private String name;
+    private Boolean done;
+    private LocalDate date;
+}
@@ -1,5 +1,6 @@
 package com.tracker.DTO;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 import lombok.Getter;
@@ -12,4 +13,6 @@ public class HabitResponse {
     private String name;
     private boolean isDone;
     private LocalDate date;
+    private Instant updatedAt;
+    private Long version;
 }
@@ -0,0 +1,25 @@
+package com.tracker.DTO;
+
+import java.time.Instant;
+
+import com.tracker.Entity.JobStatus;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class JobResponse {
+    private String jobId;
+    private String queue;
+    private String payload;
+    private JobStatus status;
+    private int attempts;
+    private int maxAttempts;
+    private long progress;
+    private long total;
+    private String lastError;
+    private Instant runAt;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
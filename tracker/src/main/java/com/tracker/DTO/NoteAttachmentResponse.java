@@ -0,0 +1,18 @@
+package com.tracker.DTO;
+
+import java.time.Instant;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NoteAttachmentResponse {
+    private Long id;
+    private Long noteId;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private String sha256;
+    private Instant createdAt;
+}
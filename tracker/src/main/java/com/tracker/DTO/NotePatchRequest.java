@@ -0,0 +1,14 @@
+package com.tracker.DTO;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Partial note update: only non-null fields are written, everything else keeps its value.
+ */
+@Getter
+@Setter
+public class NotePatchRequest {
+    private String title;
+    private String content;
+}
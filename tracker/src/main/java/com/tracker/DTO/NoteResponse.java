@@ -2,6 +2,7 @@ package com.tracker.DTO;
 
 import lombok.Getter;
 import lombok.Setter;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import com.tracker.Entity.Category;
 
@@ -13,4 +14,6 @@ public class NoteResponse {
     private String content;
     private Category category;
     private LocalDateTime createdAt;
+    private Instant updatedAt;
+    private Long version;
 }
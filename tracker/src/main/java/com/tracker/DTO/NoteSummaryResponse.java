@@ -0,0 +1,23 @@
+package com.tracker.DTO;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * List view of a note: the stored excerpt instead of the body.
+ * Full content is served by {@code GET /api/notes/{id}}.
+ */
+@Getter
+@AllArgsConstructor
+public class NoteSummaryResponse {
+    private Long id;
+    private String title;
+    private String summary;
+    private Long categoryId;
+    private String categoryName;
+    private LocalDateTime createdAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.tracker.DTO;
+
+import java.time.Instant;
+
+import com.tracker.Entity.NotificationType;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NotificationResponse {
+    private Long id;
+    private Long taskId;
+    private NotificationType type;
+    private String message;
+    private Instant createdAt;
+    private Instant readAt;
+}
@@ -0,0 +1,12 @@
+package com.tracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RateLimitStats {
+    private String group;
+    private long allowed;
+    private long limited;
+}
@@ -0,0 +1,14 @@
+package com.tracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ShardMigrationResponse {
+    private Long userId;
+    private int fromShard;
+    private int toShard;
+    private long rowsCopied;
+    private long durationMs;
+}
@@ -0,0 +1,22 @@
+package com.tracker.DTO;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Changes since the client's cursor. When {@code reset} is true the client's cursor
+ * was missing or too old, the lists hold the full account and local state should be replaced.
+ */
+@Getter
+@Setter
+public class SyncResponse {
+    private Long cursor;
+    private boolean reset;
+    private List<TaskResponse> tasks;
+    private List<NoteResponse> notes;
+    private List<HabitResponse> habits;
+    private List<CategoryResponse> categories;
+    private List<DeletedRecord> deleted;
+}
@@ -0,0 +1,18 @@
+package com.tracker.DTO;
+
+import java.util.Set;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The complete set of tags of a task or note; tags not listed are removed.
+ */
+@Getter
+@Setter
+public class TagAssignRequest {
+
+    @NotNull(message = "tagIds is mandatory")
+    private Set<Long> tagIds;
+}
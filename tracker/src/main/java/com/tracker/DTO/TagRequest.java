@@ -0,0 +1,13 @@
+package com.tracker.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TagRequest {
+
+    @NotBlank(message = "Tag name is mandatory")
+    private String name;
+}
@@ -0,0 +1,11 @@
+package com.tracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TagResponse {
+    private Long id;
+    private String name;
+}
@@ -0,0 +1,25 @@
+package com.tracker.DTO;
+
+import java.util.Set;
+
+import com.tracker.Entity.TaggedType;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Tags of one task or note were replaced. Without {@code itemType} the whole
+ * tag set of the user changed (a tag was deleted) and the index is dropped.
+ */
+@Getter
+@AllArgsConstructor
+public class TagsChangedEvent {
+    private Long userId;
+    private TaggedType itemType;
+    private Long itemId;
+    private Set<Long> tagIds;
+
+    public static TagsChangedEvent ofUser(Long userId) {
+        return new TagsChangedEvent(userId, null, null, Set.of());
+    }
+}
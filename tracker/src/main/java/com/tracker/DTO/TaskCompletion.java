@@ -0,0 +1,16 @@
+package com.tracker.DTO;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Just enough of a completed task to count it in the productivity rollups.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskCompletion {
+    private Long categoryId;
+    private Instant completedAt;
+}
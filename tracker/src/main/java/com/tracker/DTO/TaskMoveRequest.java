@@ -0,0 +1,15 @@
+package com.tracker.DTO;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * New position of a task between its neighbours in the list the user is looking at.
+ * Without {@code afterId} the task goes first, without {@code beforeId} it goes last.
+ */
+@Getter
+@Setter
+public class TaskMoveRequest {
+    private Long afterId;
+    private Long beforeId;
+}
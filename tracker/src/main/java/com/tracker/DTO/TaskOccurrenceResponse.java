@@ -0,0 +1,25 @@
+package com.tracker.DTO;
+
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One task in a date window. {@code seriesId} is set for occurrences of a recurring task;
+ * {@code taskId} is null for occurrences that exist only virtually and have no row yet.
+ */
+@Getter
+@Setter
+public class TaskOccurrenceResponse {
+    private Long taskId;
+    private Long seriesId;
+    private LocalDateTime occurrenceDate;
+    private String task;
+    private String description;
+    private String status;
+    private String priority;
+    private boolean isCompleted;
+    private LocalDateTime dueDate;
+    private Long categoryId;
+}
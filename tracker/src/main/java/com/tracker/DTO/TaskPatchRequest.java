@@ -0,0 +1,19 @@
+package com.tracker.DTO;
+
+import lombok.Getter;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Partial task update: only non-null fields are written, everything else keeps its value.
+ */
+@Getter
+@Setter
+public class TaskPatchRequest {
+    private String task;
+    private String description;
+    private String status;
+    private String priority;
+    private Boolean completed;
+    private LocalDateTime dueDate;
+}
@@ -1,6 +1,9 @@
 package com.tracker.DTO;
 
 import jakarta.validation.constraints.NotNull;
+import com.tracker.Entity.RecurrenceFrequency;
+
+import jakarta.validation.constraints.Positive;
 import lombok.Getter;
 import lombok.Setter;
 import java.time.LocalDateTime;
@@ -26,4 +29,11 @@ public class TaskRequest {
 
     @NotNull(message = "Completion date is mandatory")
     private LocalDateTime dueDate;
+
+    private RecurrenceFrequency recurrenceFrequency;
+
+    @Positive(message = "Recurrence interval must be positive")
+    private Integer recurrenceInterval;
+
+    private LocalDateTime recurrenceUntil;
 }
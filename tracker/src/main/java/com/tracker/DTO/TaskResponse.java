@@ -2,8 +2,10 @@ package com.tracker.DTO;
 
 import lombok.Getter;
 import lombok.Setter;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import com.tracker.Entity.Category;
+import com.tracker.Entity.RecurrenceFrequency;
 
 @Getter
 @Setter
@@ -14,7 +16,16 @@ public class TaskResponse {
     private String status;
     private String priority;
     private boolean isCompleted;
+    private Instant completedAt;
     private LocalDateTime dueDate;
     private Category category;
     private LocalDateTime createdAt;
+    private Instant updatedAt;
+    private Long version;
+    private RecurrenceFrequency recurrenceFrequency;
+    private Integer recurrenceInterval;
+    private LocalDateTime recurrenceUntil;
+    private Long recurrenceParentId;
+    private LocalDateTime occurrenceDate;
+    private String sortRank;
 }
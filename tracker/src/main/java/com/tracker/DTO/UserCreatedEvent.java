@@ -0,0 +1,10 @@
+package com.tracker.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserCreatedEvent {
+    private Long userId;
+}
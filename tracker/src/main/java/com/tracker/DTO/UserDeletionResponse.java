@@ -0,0 +1,15 @@
+package com.tracker.DTO;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserDeletionResponse {
+    private String jobId;
+    private Long userId;
+    private String status;
+    private long totalRows;
+    private long deletedRows;
+    private String error;
+}
@@ -0,0 +1,48 @@
+package com.tracker.Entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Written in batches by {@code ActivityLogService}, never through JPA; the mapping is
+ * used for the schema and for reading.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "activity_log", indexes = {
+    @Index(name = "idx_activity_user", columnList = "user_id, id")
+})
+public class ActivityEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String entityType;
+
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ActivityAction action;
+
+    private String title;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -4,11 +4,18 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Instant;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "category")
+@Table(name = "category", indexes = {
+    @Index(name = "idx_category_user_updated", columnList = "user_id, updated_at")
+})
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,10 +24,24 @@ public class Category {
     @Column(nullable = false, unique = true)
     private String name;
 
+    // Родитель в дереве категорий, пути хранятся в category_closure
+    @Column(name = "parent_id")
+    private Long parentId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonBackReference("user-categories")
     private User user;
 
+    @UpdateTimestamp
+    @JsonIgnore
+    private Instant updatedAt;
+
+    // Версия для оптимистической блокировки, клиенту уходит как ETag
+    @Version
+    @ColumnDefault("0")
+    @JsonIgnore
+    private Long version;
+
     public Category() {}
 
     public Category(String name) {
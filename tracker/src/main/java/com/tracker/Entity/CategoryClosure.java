@@ -0,0 +1,44 @@
+package com.tracker.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One ancestor/descendant pair of the category tree, for every depth, so a whole
+ * subtree is one indexed lookup by {@code ancestor_id}. A category is not stored
+ * as its own ancestor: root categories without children have no rows at all.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "category_closure", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_category_closure_ancestor_descendant", columnNames = {"ancestor_id", "descendant_id"})
+}, indexes = {
+    @Index(name = "idx_category_closure_descendant", columnList = "descendant_id, ancestor_id")
+})
+public class CategoryClosure {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    // 1 — прямой потомок
+    @Column(nullable = false)
+    private int depth;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
@@ -1,7 +1,11 @@
 package com.tracker.Entity;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 import jakarta.persistence.Entity;
@@ -9,15 +13,20 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "habit")
+@Table(name = "habit", indexes = {
+    @Index(name = "idx_habit_user_updated", columnList = "user_id, updated_at"),
+    @Index(name = "idx_habit_user_date", columnList = "user_id, date")
+})
 public class Habit {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,6 +40,14 @@ public class Habit {
     @JsonBackReference("user-habits")
     private User user;
 
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    // Версия для оптимистической блокировки, клиенту уходит как ETag
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     public Habit() {}
 
     public Habit(String name, boolean isDone, LocalDate date) {
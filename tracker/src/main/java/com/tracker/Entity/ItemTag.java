@@ -0,0 +1,55 @@
+package com.tracker.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A tag on a task or a note. Tag filters are answered by {@code TagIndex};
+ * these rows are the source it is loaded from.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "item_tag", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_item_tag", columnNames = {"item_type", "item_id", "tag_id"})
+}, indexes = {
+    @Index(name = "idx_item_tag_user", columnList = "user_id"),
+    @Index(name = "idx_item_tag_tag", columnList = "tag_id")
+})
+public class ItemTag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_type", nullable = false, length = 8)
+    private TaggedType itemType;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Column(name = "tag_id", nullable = false)
+    private Long tagId;
+
+    public ItemTag() {}
+
+    public ItemTag(Long userId, TaggedType itemType, Long itemId, Long tagId) {
+        this.userId = userId;
+        this.itemType = itemType;
+        this.itemId = itemId;
+        this.tagId = tagId;
+    }
+}
@@ -0,0 +1,5 @@
+package com.tracker.Entity;
+
+public enum JobStatus {
+    PENDING, RUNNING, DONE, FAILED
+}
@@ -0,0 +1,36 @@
+package com.tracker.Entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Progress of one-off maintenance work that must survive restarts
+ * (which shard layout users are pinned for, how far a backfill got).
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "maintenance_marker")
+public class MaintenanceMarker {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private String value;
+
+    private Instant updatedAt;
+
+    public MaintenanceMarker() {}
+
+    public MaintenanceMarker(String name, String value) {
+        this.name = name;
+        this.value = value;
+        this.updatedAt = Instant.now();
+    }
+}
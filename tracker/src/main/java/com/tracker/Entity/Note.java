@@ -4,19 +4,39 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
 @Getter
 @Setter
 @Entity
-@Table(name = "note")
+@Table(name = "note", indexes = {
+    @Index(name = "idx_note_user_updated", columnList = "user_id, updated_at")
+})
 public class Note {
+    // Длина обеих varchar-колонок: кодек не кладёт в них больше
+    public static final int CONTENT_LENGTH = 255;
+    public static final int SUMMARY_LENGTH = 255;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String title;
+
+    @Column(length = CONTENT_LENGTH)
     private String content;
+
+    // Длинные тексты хранятся сжатыми, content при этом null
+    @Column(name = "content_gz", length = 1_000_000)
+    private byte[] contentGz;
+
+    // Выдержка для списков — они не читают ни content, ни content_gz
+    @Column(length = SUMMARY_LENGTH)
+    private String summary;
     
     @ManyToOne(fetch = FetchType.LAZY)
     private Category category;
@@ -27,6 +47,14 @@ public class Note {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    // Версия для оптимистической блокировки, клиенту уходит как ETag
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     public Note() {}
 
     public Note(String title, String content, Category category, LocalDateTime createdAt) {
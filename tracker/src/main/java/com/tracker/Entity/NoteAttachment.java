@@ -0,0 +1,54 @@
+package com.tracker.Entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * File attached to a note. The bytes live on disk under their SHA-256,
+ * so identical uploads share one file; this row is only the reference.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "note_attachment", indexes = {
+    @Index(name = "idx_attachment_note", columnList = "note_id"),
+    @Index(name = "idx_attachment_sha256", columnList = "sha256")
+})
+public class NoteAttachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Note note;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    public NoteAttachment() {}
+}
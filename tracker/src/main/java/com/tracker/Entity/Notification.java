@@ -0,0 +1,55 @@
+package com.tracker.Entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "notification", indexes = {
+    @Index(name = "idx_notification_user", columnList = "user_id, id")
+})
+public class Notification {
+    public static final int MESSAGE_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private Long taskId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @Column(length = MESSAGE_LENGTH)
+    private String message;
+
+    @Column(nullable = false)
+    private Instant createdAt = Instant.now();
+
+    private Instant readAt;
+
+    public Notification() {}
+
+    public Notification(Long userId, Long taskId, NotificationType type, String message) {
+        this.userId = userId;
+        this.taskId = taskId;
+        this.type = type;
+        this.message = message;
+    }
+}
@@ -0,0 +1,5 @@
+package com.tracker.Entity;
+
+public enum NotificationType {
+    UPCOMING, OVERDUE
+}
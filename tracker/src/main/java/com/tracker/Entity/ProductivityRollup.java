@@ -0,0 +1,44 @@
+package com.tracker.Entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Completions of one user for one day and category, kept up to date by
+ * {@code ProductivityService} in the same transaction as the task or habit change.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "productivity_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_rollup_user_date_category", columnNames = {"user_id", "date", "category_id"})
+})
+public class ProductivityRollup {
+    // Ключ для задач без категории и для привычек
+    public static final long NO_CATEGORY = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    @Column(name = "category_id", nullable = false)
+    private long categoryId;
+
+    private long tasksCompleted;
+    private long habitsCompleted;
+}
@@ -0,0 +1,66 @@
+package com.tracker.Entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A row of the durable job queue. Read and written only by {@code JobQueueService}
+ * through JDBC; the mapping is there for the schema.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "job_queue", indexes = {
+    @Index(name = "idx_job_queue_due", columnList = "queue, status, run_at"),
+    @Index(name = "idx_job_queue_finished", columnList = "finished_at")
+})
+public class QueuedJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String queue;
+
+    @Column(length = 4000)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JobStatus status;
+
+    // Номер текущей попытки; по нему же отсекаются записи «потерявшего» задачу воркера
+    private int attempts;
+    private int maxAttempts;
+
+    @Column(nullable = false)
+    private Instant runAt;
+
+    // Видимость: пока не истекло, задачу не заберёт другой воркер
+    private Instant lockedUntil;
+
+    @Column(length = 64)
+    private String lockedBy;
+
+    private long progress;
+    private long total;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant finishedAt;
+}
@@ -0,0 +1,39 @@
+package com.tracker.Entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import org.hibernate.annotations.ColumnDefault;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Users living off the shard the hash ring picks for them, and users whose rows
+ * are being moved ({@code readOnly}). Lives on shard 0 only.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "shard_assignment")
+public class ShardAssignment {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private int shard;
+
+    // Забор на время переезда: запись в исходный шард запрещена
+    @Column(name = "read_only", nullable = false)
+    @ColumnDefault("false")
+    private boolean readOnly;
+
+    private Instant assignedAt;
+
+    public ShardAssignment() {}
+}
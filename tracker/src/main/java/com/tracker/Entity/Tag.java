@@ -0,0 +1,36 @@
+package com.tracker.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "tag", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_tag_user_name", columnNames = {"user_id", "name"})
+})
+public class Tag {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String name;
+
+    public Tag() {}
+
+    public Tag(Long userId, String name) {
+        this.userId = userId;
+        this.name = name;
+    }
+}
@@ -0,0 +1,6 @@
+package com.tracker.Entity;
+
+public enum TaggedType {
+    TASK,
+    NOTE
+}
@@ -4,12 +4,23 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
 @Entity
 @Getter
 @Setter
-@Table(name = "task")
+@Table(name = "task", indexes = {
+    @Index(name = "idx_task_user_updated", columnList = "user_id, updated_at"),
+    @Index(name = "idx_task_due", columnList = "due_date, id"),
+    @Index(name = "idx_task_user_due", columnList = "user_id, due_date"),
+    @Index(name = "idx_task_user_status", columnList = "user_id, status, sort_rank, id"),
+    @Index(name = "idx_task_user_rank", columnList = "user_id, sort_rank, id"),
+    @Index(name = "idx_task_recurrence", columnList = "recurrence_parent_id, occurrence_date")
+})
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,6 +33,13 @@ public class Task {
     
     @Column(name = "is_completed")
     private boolean isCompleted = false;
+
+    // Когда задача отмечена выполненной; null, пока не выполнена
+    private Instant completedAt;
+
+    // Ручной порядок, см. RankKeys: перемещение меняет только эту строку
+    @Column(name = "sort_rank")
+    private String sortRank;
     private LocalDateTime dueDate;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -33,6 +51,25 @@ public class Task {
     
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    // Версия для оптимистической блокировки, клиенту уходит как ETag
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // Правило повторения; dueDate — первое вхождение серии
+    @Enumerated(EnumType.STRING)
+    private RecurrenceFrequency recurrenceFrequency;
+    private Integer recurrenceInterval;
+    private LocalDateTime recurrenceUntil;
+
+    // Отредактированное или выполненное вхождение серии хранится отдельной строкой
+    @Column(name = "recurrence_parent_id")
+    private Long recurrenceParentId;
+    private LocalDateTime occurrenceDate;
+
     public Task() {}
 
     public Task(
@@ -0,0 +1,49 @@
+package com.tracker.Entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Marker left behind by a delete so that delta sync can tell clients what disappeared.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "tombstone", indexes = {
+    @Index(name = "idx_tombstone_user_deleted", columnList = "user_id, deleted_at")
+})
+public class Tombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    public Tombstone() {}
+
+    public Tombstone(Long userId, String entityType, Long entityId, Instant deletedAt) {
+        this.userId = userId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deletedAt = deletedAt;
+    }
+}
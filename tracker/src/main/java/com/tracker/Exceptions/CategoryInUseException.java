@@ -1,5 +1,9 @@
 package com.tracker.Exceptions;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
 public class CategoryInUseException extends RuntimeException {
     public CategoryInUseException(String message) {
         super(message);
@@ -1,5 +1,9 @@
 package com.tracker.Exceptions;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
 public class CategoryNotFoundException extends RuntimeException {
     public CategoryNotFoundException(String message) {
         super(message);
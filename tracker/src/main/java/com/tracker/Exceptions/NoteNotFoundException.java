@@ -1,5 +1,9 @@
 package com.tracker.Exceptions;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
 public class NoteNotFoundException extends RuntimeException {
     public NoteNotFoundException(String message) {
         super(message);
@@ -0,0 +1,11 @@
+package com.tracker.Exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class NotificationNotFoundException extends RuntimeException {
+    public NotificationNotFoundException(String message) {
+        super(message);
+    }
+}
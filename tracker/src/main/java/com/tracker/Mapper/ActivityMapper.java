@@ -0,0 +1,30 @@
+package com.tracker.Mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.tracker.DTO.ActivityResponse;
+import com.tracker.Entity.ActivityEntry;
+
+@Component
+public class ActivityMapper {
+
+    public ActivityResponse toResponse(ActivityEntry entry) {
+        ActivityResponse response = new ActivityResponse();
+
+        response.setId(entry.getId());
+        response.setEntityType(entry.getEntityType());
+        response.setEntityId(entry.getEntityId());
+        response.setAction(entry.getAction());
+        response.setTitle(entry.getTitle());
+        response.setMessage(message(entry));
+        response.setCreatedAt(entry.getCreatedAt());
+
+        return response;
+    }
+
+    private static String message(ActivityEntry entry) {
+        String type = entry.getEntityType().charAt(0) + entry.getEntityType().substring(1).toLowerCase();
+        String subject = entry.getTitle() != null ? type + " \"" + entry.getTitle() + "\"" : type + " #" + entry.getEntityId();
+        return subject + " " + entry.getAction().name().toLowerCase();
+    }
+}
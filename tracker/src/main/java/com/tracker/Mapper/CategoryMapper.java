@@ -21,6 +21,9 @@ public class CategoryMapper {
 
         response.setId(category.getId());
         response.setName(category.getName());
+        response.setParentId(category.getParentId());
+        response.setUpdatedAt(category.getUpdatedAt());
+        response.setVersion(category.getVersion());
 
         return response;
     }
@@ -26,6 +26,8 @@ public class HabitMapper {
         response.setName(habit.getName());
         response.setDone(habit.isDone());
         response.setDate(habit.getDate());
+        response.setUpdatedAt(habit.getUpdatedAt());
+        response.setVersion(habit.getVersion());
     
         return response;
     }
@@ -0,0 +1,24 @@
+package com.tracker.Mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.tracker.DTO.NoteAttachmentResponse;
+import com.tracker.Entity.NoteAttachment;
+
+@Component
+public class NoteAttachmentMapper {
+
+    public NoteAttachmentResponse toResponse(NoteAttachment attachment) {
+        NoteAttachmentResponse response = new NoteAttachmentResponse();
+
+        response.setId(attachment.getId());
+        response.setNoteId(attachment.getNote().getId());
+        response.setFileName(attachment.getFileName());
+        response.setContentType(attachment.getContentType());
+        response.setSize(attachment.getSize());
+        response.setSha256(attachment.getSha256());
+        response.setCreatedAt(attachment.getCreatedAt());
+
+        return response;
+    }
+}
@@ -3,16 +3,22 @@ package com.tracker.Mapper;
 import com.tracker.DTO.NoteRequest;
 import com.tracker.DTO.NoteResponse;
 import com.tracker.Entity.Note;
+import com.tracker.Utils.NoteContentCodec;
 import org.springframework.stereotype.Component;
 
 @Component
 public class NoteMapper {
+    private final NoteContentCodec noteContentCodec;
+
+    public NoteMapper(NoteContentCodec noteContentCodec) {
+        this.noteContentCodec = noteContentCodec;
+    }
 
     public Note toEntity(NoteRequest request) {
         Note note = new Note();
 
         note.setTitle(request.getTitle());
-        note.setContent(request.getContent());
+        noteContentCodec.write(note, request.getContent());
     
         return note;
     }    
@@ -22,9 +28,11 @@ public class NoteMapper {
 
         response.setId(note.getId());
         response.setTitle(note.getTitle());
-        response.setContent(note.getContent());
+        response.setContent(noteContentCodec.read(note));
         response.setCategory(note.getCategory());
         response.setCreatedAt(note.getCreatedAt());
+        response.setUpdatedAt(note.getUpdatedAt());
+        response.setVersion(note.getVersion());
 
         return response;
     }
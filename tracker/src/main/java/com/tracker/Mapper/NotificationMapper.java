@@ -0,0 +1,23 @@
+package com.tracker.Mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.tracker.DTO.NotificationResponse;
+import com.tracker.Entity.Notification;
+
+@Component
+public class NotificationMapper {
+
+    public NotificationResponse toResponse(Notification notification) {
+        NotificationResponse response = new NotificationResponse();
+
+        response.setId(notification.getId());
+        response.setTaskId(notification.getTaskId());
+        response.setType(notification.getType());
+        response.setMessage(notification.getMessage());
+        response.setCreatedAt(notification.getCreatedAt());
+        response.setReadAt(notification.getReadAt());
+
+        return response;
+    }
+}
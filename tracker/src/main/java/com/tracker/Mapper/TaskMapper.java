@@ -1,8 +1,13 @@
 package com.tracker.Mapper;
 
+import com.tracker.DTO.BoardCard;
+import com.tracker.DTO.TaskOccurrenceResponse;
 import com.tracker.DTO.TaskRequest;
 import com.tracker.DTO.TaskResponse;
 import com.tracker.Entity.Task;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,10 +21,72 @@ public class TaskMapper {
         task.setStatus(request.getStatus());
         task.setPriority(request.getPriority());
         task.setDueDate(request.getDueDate());
+        task.setRecurrenceFrequency(request.getRecurrenceFrequency());
+        task.setRecurrenceInterval(request.getRecurrenceInterval());
+        task.setRecurrenceUntil(request.getRecurrenceUntil());
 
         return task;
     }
 
+    public BoardCard toBoardCard(Task task) {
+        BoardCard card = new BoardCard();
+
+        card.setId(task.getId());
+        card.setTask(task.getTask());
+        card.setPriority(task.getPriority());
+        card.setCompleted(task.isCompleted());
+        card.setDueDate(task.getDueDate());
+        card.setCategoryId(task.getCategory() != null ? task.getCategory().getId() : null);
+        card.setVersion(task.getVersion());
+
+        return card;
+    }
+
+    // Строка TaskRepository.findBoard: id, status, task, priority, is_completed, due_date, category_id, version, total
+    public BoardCard toBoardCard(Object[] row) {
+        BoardCard card = new BoardCard();
+
+        card.setId(((Number) row[0]).longValue());
+        card.setTask((String) row[2]);
+        card.setPriority((String) row[3]);
+        card.setCompleted(Boolean.TRUE.equals(row[4]));
+        card.setDueDate(row[5] instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) row[5]);
+        card.setCategoryId(row[6] != null ? ((Number) row[6]).longValue() : null);
+        card.setVersion(row[7] != null ? ((Number) row[7]).longValue() : null);
+
+        return card;
+    }
+
+    public TaskOccurrenceResponse toOccurrence(Task task) {
+        TaskOccurrenceResponse response = new TaskOccurrenceResponse();
+
+        response.setTaskId(task.getId());
+        response.setSeriesId(task.getRecurrenceParentId());
+        response.setOccurrenceDate(task.getOccurrenceDate());
+        response.setTask(task.getTask());
+        response.setDescription(task.getDescription());
+        response.setStatus(task.getStatus());
+        response.setPriority(task.getPriority());
+        response.setCompleted(task.isCompleted());
+        response.setDueDate(task.getDueDate());
+        response.setCategoryId(task.getCategory() != null ? task.getCategory().getId() : null);
+
+        return response;
+    }
+
+    // Виртуальное вхождение серии: строки в базе нет
+    public TaskOccurrenceResponse toOccurrence(Task series, LocalDateTime occurrenceDate) {
+        TaskOccurrenceResponse response = toOccurrence(series);
+
+        response.setTaskId(null);
+        response.setSeriesId(series.getId());
+        response.setOccurrenceDate(occurrenceDate);
+        response.setCompleted(false);
+        response.setDueDate(occurrenceDate);
+
+        return response;
+    }
+
     public TaskResponse toResponse(Task task) {
         TaskResponse response = new TaskResponse();
 
@@ -29,9 +96,18 @@ public class TaskMapper {
         response.setStatus(task.getStatus());
         response.setPriority(task.getPriority());
         response.setCompleted(task.isCompleted());
+        response.setCompletedAt(task.getCompletedAt());
         response.setDueDate(task.getDueDate());
         response.setCategory(task.getCategory());
         response.setCreatedAt(task.getCreatedAt());
+        response.setUpdatedAt(task.getUpdatedAt());
+        response.setVersion(task.getVersion());
+        response.setRecurrenceFrequency(task.getRecurrenceFrequency());
+        response.setRecurrenceInterval(task.getRecurrenceInterval());
+        response.setRecurrenceUntil(task.getRecurrenceUntil());
+        response.setSortRank(task.getSortRank());
+        response.setRecurrenceParentId(task.getRecurrenceParentId());
+        response.setOccurrenceDate(task.getOccurrenceDate());
 
         return response;
     }
@@ -0,0 +1,24 @@
+package com.tracker.Repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tracker.Entity.ActivityEntry;
+
+public interface ActivityEntryRepository extends JpaRepository<ActivityEntry, Long> {
+    Page<ActivityEntry> findAllByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from ActivityEntry a where a.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from activity_log where id in (select id from activity_log where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
@@ -0,0 +1,52 @@
+package com.tracker.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tracker.Entity.CategoryClosure;
+
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, Long> {
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+    boolean existsByAncestorId(Long ancestorId);
+
+    // Новый лист: все предки родителя плюс сам родитель
+    @Modifying
+    @Query(value = "insert into category_closure (ancestor_id, descendant_id, depth, user_id) "
+        + "select ancestor_id, :id, depth + 1, user_id from category_closure where descendant_id = :parentId "
+        + "union all select cast(:parentId as bigint), cast(:id as bigint), 1, cast(:userId as bigint)", nativeQuery = true)
+    int insertLeaf(@Param("id") Long id, @Param("parentId") Long parentId, @Param("userId") Long userId);
+
+    // Отрываем поддерево от старых предков; связи внутри поддерева остаются
+    @Modifying
+    @Query(value = "delete from category_closure "
+        + "where ancestor_id in (select ancestor_id from category_closure where descendant_id = :id) "
+        + "and (descendant_id = :id or descendant_id in (select descendant_id from category_closure where ancestor_id = :id))",
+        nativeQuery = true)
+    int detachSubtree(@Param("id") Long id);
+
+    // Каждый предок нового родителя (и он сам) × каждый узел поддерева (и его корень)
+    @Modifying
+    @Query(value = "insert into category_closure (ancestor_id, descendant_id, depth, user_id) "
+        + "select a.ancestor_id, s.descendant_id, a.depth + s.depth + 1, cast(:userId as bigint) "
+        + "from (select ancestor_id, depth from category_closure where descendant_id = :parentId "
+        + "union all select cast(:parentId as bigint), 0) a "
+        + "cross join (select descendant_id, depth from category_closure where ancestor_id = :id "
+        + "union all select cast(:id as bigint), 0) s", nativeQuery = true)
+    int attachSubtree(@Param("id") Long id, @Param("parentId") Long parentId, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from CategoryClosure cc where cc.descendantId = :id")
+    int deleteByDescendantId(@Param("id") Long id);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from CategoryClosure cc where cc.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from category_closure where id in (select id from category_closure where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
@@ -1,14 +1,33 @@
 package com.tracker.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.tracker.Entity.Category;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByIdAndUserId(Long id, Long userId);
     Page<Category> findAllByUserId(Long userId, Pageable pageable);
     Optional<Category> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from Category c where c.user.id = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from category where id in (select id from category where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    List<Category> findAllByUserIdAndUpdatedAtAfter(Long userId, Instant since);
+
+    List<Category> findAllByUserId(Long userId);
 }
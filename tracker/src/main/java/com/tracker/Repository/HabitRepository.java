@@ -1,14 +1,80 @@
 package com.tracker.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.tracker.DTO.HabitCompletion;
 import com.tracker.Entity.Habit;
 
 public interface HabitRepository extends JpaRepository<Habit, Long> {
     Page<Habit> findAllByUserId(Long userId, Pageable pageable);
     Optional<Habit> findByIdAndUserId(Long id, Long userId);
-}
\ No newline at end of file
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    // Без блокировки: moveDone ниже сверяет прочитанное состояние
+    @Query("select new com.tracker.DTO.HabitCompletion(h.isDone, h.date) from Habit h where h.id = :id and h.user.id = :userId")
+    Optional<HabitCompletion> findCompletionById(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Habit h set h.isDone = :done, h.date = :date "
+        + "where h.id = :id and h.isDone = :oldDone "
+        + "and (h.date = :oldDate or (h.date is null and :oldDate is null))")
+    int moveDone(
+        @Param("id") Long id,
+        @Param("oldDone") boolean oldDone,
+        @Param("oldDate") LocalDate oldDate,
+        @Param("done") boolean done,
+        @Param("date") LocalDate date
+    );
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from Habit h where h.user.id = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from habit where id in (select id from habit where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update Habit h set "
+        + "h.name = coalesce(:name, h.name), "
+        + "h.isDone = coalesce(:done, h.isDone), "
+        + "h.date = coalesce(:date, h.date), "
+        + "h.updatedAt = :now, "
+        + "h.version = h.version + 1 "
+        + "where h.id = :id and h.user.id = :userId "
+        + "and (:version is null or h.version = :version)")
+    int patchByIdAndUserId(
+        @Param("id") Long id,
+        @Param("userId") Long userId,
+        @Param("name") String name,
+        @Param("done") Boolean done,
+        @Param("date") LocalDate date,
+        @Param("now") Instant now,
+        @Param("version") Long version
+    );
+
+    List<Habit> findAllByUserIdAndUpdatedAtAfter(Long userId, Instant since);
+
+    List<Habit> findAllByUserId(Long userId);
+
+    // Range scan по idx_habit_user_date
+    List<Habit> findAllByUserIdAndDateBetweenOrderByDateAscIdAsc(Long userId, LocalDate from, LocalDate to);
+
+    @Query("select h.date from Habit h where h.user.id = :userId and h.isDone = true and h.date is not null")
+    List<LocalDate> findDoneDatesByUserId(@Param("userId") Long userId);
+
+    @Query("select distinct h.user.id from Habit h where h.isDone = true and h.date is not null")
+    List<Long> findUserIdsWithDoneHabits();
+}
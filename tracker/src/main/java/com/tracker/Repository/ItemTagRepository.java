@@ -0,0 +1,39 @@
+package com.tracker.Repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tracker.Entity.ItemTag;
+import com.tracker.Entity.TaggedType;
+
+public interface ItemTagRepository extends JpaRepository<ItemTag, Long> {
+    List<ItemTag> findAllByUserId(Long userId);
+
+    @Query("select it.tagId from ItemTag it where it.itemType = :type and it.itemId = :itemId")
+    List<Long> findTagIds(@Param("type") TaggedType type, @Param("itemId") Long itemId);
+
+    @Query("select distinct it.userId from ItemTag it")
+    List<Long> findTaggingUserIds();
+
+    @Modifying
+    @Query("delete from ItemTag it where it.itemType = :type and it.itemId = :itemId")
+    int deleteByItem(@Param("type") TaggedType type, @Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("delete from ItemTag it where it.tagId = :tagId")
+    int deleteByTagId(@Param("tagId") Long tagId);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from ItemTag it where it.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from item_tag where id in (select id from item_tag where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
@@ -0,0 +1,8 @@
+package com.tracker.Repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.tracker.Entity.MaintenanceMarker;
+
+public interface MaintenanceMarkerRepository extends JpaRepository<MaintenanceMarker, String> {
+}
@@ -0,0 +1,31 @@
+package com.tracker.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tracker.Entity.NoteAttachment;
+
+public interface NoteAttachmentRepository extends JpaRepository<NoteAttachment, Long> {
+    List<NoteAttachment> findAllByNoteIdAndUserIdOrderById(Long noteId, Long userId);
+    Optional<NoteAttachment> findByIdAndNoteIdAndUserId(Long id, Long noteId, Long userId);
+    boolean existsBySha256(String sha256);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from NoteAttachment a where a.note.id = :noteId")
+    int deleteByNoteId(@Param("noteId") Long noteId);
+
+    @Modifying
+    @Query("delete from NoteAttachment a where a.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from note_attachment where id in (select id from note_attachment where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
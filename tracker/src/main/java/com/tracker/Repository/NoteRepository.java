@@ -1,12 +1,19 @@
 package com.tracker.Repository;
 
+import com.tracker.DTO.NoteSummaryResponse;
 import com.tracker.Entity.Note;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface NoteRepository extends JpaRepository<Note, Long>{
     List<Note> findByCategoryIdAndUserIdOrderByCreatedAtDesc(Long categoryId, Long userId);
@@ -14,5 +21,88 @@ public interface NoteRepository extends JpaRepository<Note, Long>{
     boolean existsByIdAndUserId(Long id, Long userId);
     Page<Note> findAllByUserIdAndCategoryId(Long userId, Long categoryId, Pageable pageable);
     Page<Note> findAllByUserId(Long userId, Pageable pageable);
+
+    // Проекции для списков: тело заметки в SELECT не попадает
+    @Query(value = "select new com.tracker.DTO.NoteSummaryResponse(n.id, n.title, n.summary, c.id, c.name, n.createdAt, n.updatedAt) "
+        + "from Note n left join n.category c where n.user.id = :userId",
+        countQuery = "select count(n) from Note n where n.user.id = :userId")
+    Page<NoteSummaryResponse> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(value = "select new com.tracker.DTO.NoteSummaryResponse(n.id, n.title, n.summary, c.id, c.name, n.createdAt, n.updatedAt) "
+        + "from Note n left join n.category c where n.user.id = :userId and c.id = :categoryId",
+        countQuery = "select count(n) from Note n where n.user.id = :userId and n.category.id = :categoryId")
+    Page<NoteSummaryResponse> findSummariesByUserIdAndCategoryId(
+        @Param("userId") Long userId,
+        @Param("categoryId") Long categoryId,
+        Pageable pageable
+    );
+
+    @Query("select new com.tracker.DTO.NoteSummaryResponse(n.id, n.title, n.summary, c.id, c.name, n.createdAt, n.updatedAt) "
+        + "from Note n join n.category c where c.id = :categoryId and n.user.id = :userId "
+        + "order by n.createdAt desc")
+    List<NoteSummaryResponse> findSummariesByCategoryIdAndUserId(
+        @Param("categoryId") Long categoryId,
+        @Param("userId") Long userId
+    );
+
+    @Query("select new com.tracker.DTO.NoteSummaryResponse(n.id, n.title, n.summary, c.id, c.name, n.createdAt, n.updatedAt) "
+        + "from Note n join n.category c where n.user.id = :userId and (c.id = :categoryId "
+        + "or c.id in (select cc.descendantId from CategoryClosure cc where cc.ancestorId = :categoryId)) "
+        + "order by n.createdAt desc")
+    List<NoteSummaryResponse> findSummariesBySubtreeAndUserId(
+        @Param("categoryId") Long categoryId,
+        @Param("userId") Long userId
+    );
+
+    @Query("select new com.tracker.DTO.NoteSummaryResponse(n.id, n.title, n.summary, c.id, c.name, n.createdAt, n.updatedAt) "
+        + "from Note n left join n.category c where n.id in :ids and n.user.id = :userId")
+    List<NoteSummaryResponse> findSummariesByIdInAndUserId(
+        @Param("ids") Collection<Long> ids,
+        @Param("userId") Long userId
+    );
+
+    @Query("select n.id from Note n where n.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select n from Note n where n.summary is null")
+    List<Note> findWithoutSummary(Pageable pageable);
     Optional<Note> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from Note n where n.user.id = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from note where id in (select id from note where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update Note n set "
+        + "n.title = coalesce(:title, n.title), "
+        + "n.content = case when :replaceContent = true then :content else n.content end, "
+        + "n.contentGz = case when :replaceContent = true then :contentGz else n.contentGz end, "
+        + "n.summary = coalesce(:summary, n.summary), "
+        + "n.updatedAt = :now, "
+        + "n.version = n.version + 1 "
+        + "where n.id = :id and n.user.id = :userId "
+        + "and (:version is null or n.version = :version)")
+    int patchByIdAndUserId(
+        @Param("id") Long id,
+        @Param("userId") Long userId,
+        @Param("title") String title,
+        @Param("replaceContent") boolean replaceContent,
+        @Param("content") String content,
+        @Param("contentGz") byte[] contentGz,
+        @Param("summary") String summary,
+        @Param("now") Instant now,
+        @Param("version") Long version
+    );
+
+    @EntityGraph(attributePaths = "category")
+    List<Note> findAllByUserIdAndUpdatedAtAfter(Long userId, Instant since);
+
+    @EntityGraph(attributePaths = "category")
+    List<Note> findAllByUserId(Long userId);
 }
@@ -0,0 +1,33 @@
+package com.tracker.Repository;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tracker.Entity.Notification;
+
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    Page<Notification> findAllByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+    Page<Notification> findAllByUserIdAndReadAtIsNullOrderByIdDesc(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("update Notification n set n.readAt = :now where n.id = :id and n.userId = :userId and n.readAt is null")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId, @Param("now") Instant now);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from Notification n where n.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from notification where id in (select id from notification where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
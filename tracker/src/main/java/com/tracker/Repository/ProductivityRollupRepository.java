@@ -0,0 +1,95 @@
+package com.tracker.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tracker.DTO.CompletionPoint;
+import com.tracker.Entity.ProductivityRollup;
+
+public interface ProductivityRollupRepository extends JpaRepository<ProductivityRollup, Long> {
+    @Modifying
+    @Query("update ProductivityRollup r set "
+        + "r.tasksCompleted = r.tasksCompleted + :tasks, "
+        + "r.habitsCompleted = r.habitsCompleted + :habits "
+        + "where r.userId = :userId and r.date = :date and r.categoryId = :categoryId")
+    int increment(
+        @Param("userId") Long userId,
+        @Param("date") LocalDate date,
+        @Param("categoryId") long categoryId,
+        @Param("tasks") long tasks,
+        @Param("habits") long habits
+    );
+
+    @Modifying
+    @Query(value = "insert into productivity_rollup (user_id, date, category_id, tasks_completed, habits_completed) "
+        + "values (:userId, :date, :categoryId, :tasks, :habits)", nativeQuery = true)
+    int insert(
+        @Param("userId") Long userId,
+        @Param("date") LocalDate date,
+        @Param("categoryId") long categoryId,
+        @Param("tasks") long tasks,
+        @Param("habits") long habits
+    );
+
+    // Вставка, проигравшая параллельной транзакции, ничего не делает — после неё строку найдёт increment
+    @Modifying
+    @Query(value = "insert into productivity_rollup (user_id, date, category_id, tasks_completed, habits_completed) "
+        + "values (:userId, :date, :categoryId, :tasks, :habits) on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(
+        @Param("userId") Long userId,
+        @Param("date") LocalDate date,
+        @Param("categoryId") long categoryId,
+        @Param("tasks") long tasks,
+        @Param("habits") long habits
+    );
+
+    // Задачу выполнил именно текущий UPDATE, если completed_at равен его метке; 0 — NO_CATEGORY
+    @Modifying
+    @Query(value = "update productivity_rollup r set tasks_completed = r.tasks_completed + 1 "
+        + "where r.date = :date and exists (select 1 from task t where t.id = :taskId and t.completed_at = :completedAt "
+        + "and t.user_id = r.user_id and coalesce(t.category_id, 0) = r.category_id)", nativeQuery = true)
+    int incrementForCompletedTask(
+        @Param("taskId") Long taskId,
+        @Param("completedAt") Instant completedAt,
+        @Param("date") LocalDate date
+    );
+
+    @Modifying
+    @Query(value = "insert into productivity_rollup (user_id, date, category_id, tasks_completed, habits_completed) "
+        + "select t.user_id, :date, coalesce(t.category_id, 0), 1, 0 from task t "
+        + "where t.id = :taskId and t.completed_at = :completedAt on conflict do nothing", nativeQuery = true)
+    int insertForCompletedTask(
+        @Param("taskId") Long taskId,
+        @Param("completedAt") Instant completedAt,
+        @Param("date") LocalDate date
+    );
+
+    // Range scan по уникальному индексу (user_id, date, category_id): строк не больше, чем дней × категорий
+    @Query("select new com.tracker.DTO.CompletionPoint(r.date, sum(r.tasksCompleted), sum(r.habitsCompleted)) "
+        + "from ProductivityRollup r "
+        + "where r.userId = :userId and r.date between :from and :to "
+        + "and (:categoryId is null or r.categoryId = :categoryId) "
+        + "group by r.date")
+    List<CompletionPoint> sumByDate(
+        @Param("userId") Long userId,
+        @Param("from") LocalDate from,
+        @Param("to") LocalDate to,
+        @Param("categoryId") Long categoryId
+    );
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from ProductivityRollup r where r.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from productivity_rollup where id in (select id from productivity_rollup where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
@@ -0,0 +1,29 @@
+package com.tracker.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tracker.Entity.Tag;
+
+public interface TagRepository extends JpaRepository<Tag, Long> {
+    List<Tag> findAllByUserIdOrderByName(Long userId);
+    List<Tag> findAllByIdInAndUserIdOrderByName(Collection<Long> ids, Long userId);
+    Optional<Tag> findByIdAndUserId(Long id, Long userId);
+    boolean existsByUserIdAndName(Long userId, String name);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from Tag t where t.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from tag where id in (select id from tag where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
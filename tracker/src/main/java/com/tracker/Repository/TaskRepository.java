@@ -1,17 +1,228 @@
 package com.tracker.Repository;
 
+import com.tracker.DTO.DueTask;
+import com.tracker.DTO.TaskCompletion;
 import com.tracker.Entity.Task;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByCategoryIdAndUserIdOrderByCreatedAtDesc(Long userId, Long categoryId);
+    List<Task> findByCategoryIdAndUserIdOrderByCreatedAtDesc(Long categoryId, Long userId);
+
+    @Query("select t from Task t where t.user.id = :userId and (t.category.id = :categoryId "
+        + "or t.category.id in (select cc.descendantId from CategoryClosure cc where cc.ancestorId = :categoryId)) "
+        + "order by t.createdAt desc")
+    List<Task> findBySubtreeAndUserId(@Param("categoryId") Long categoryId, @Param("userId") Long userId);
     boolean existsByCategoryId(Long categoryId);
     boolean existsByIdAndUserId(Long id, Long userId);
+
     Page<Task> findAllByUserId(Long userId, Pageable pageable);
     Optional<Task> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from Task t where t.user.id = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from task where id in (select id from task where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update Task t set "
+        + "t.task = coalesce(:task, t.task), "
+        + "t.description = coalesce(:description, t.description), "
+        + "t.status = coalesce(:status, t.status), "
+        + "t.priority = coalesce(:priority, t.priority), "
+        + "t.isCompleted = coalesce(:completed, t.isCompleted), "
+        + "t.completedAt = case when :completed is null then t.completedAt "
+        + "when :completed = true then coalesce(t.completedAt, :now) else null end, "
+        + "t.dueDate = coalesce(:dueDate, t.dueDate), "
+        + "t.updatedAt = :now, "
+        + "t.version = t.version + 1 "
+        + "where t.id = :id and t.user.id = :userId "
+        + "and (:version is null or t.version = :version)")
+    int patchByIdAndUserId(
+        @Param("id") Long id,
+        @Param("userId") Long userId,
+        @Param("task") String task,
+        @Param("description") String description,
+        @Param("status") String status,
+        @Param("priority") String priority,
+        @Param("completed") Boolean completed,
+        @Param("dueDate") LocalDateTime dueDate,
+        @Param("now") Instant now,
+        @Param("version") Long version
+    );
+
+    // Первые :limit карточек каждой колонки и размеры колонок — один проход по idx_task_user_status
+    @Query(value = "select id, status, task, priority, is_completed, due_date, category_id, version, total "
+        + "from (select t.*, "
+        + "row_number() over (partition by t.status order by t.sort_rank, t.id) as rn, "
+        + "count(*) over (partition by t.status) as total "
+        + "from task t where t.user_id = :userId) ranked "
+        + "where rn <= :limit order by status nulls last, rn", nativeQuery = true)
+    List<Object[]> findBoard(@Param("userId") Long userId, @Param("limit") int limit);
+
+    // Keyset по (sort_rank, id) после последней карточки; status = null — колонка задач без статуса
+    @Query("select t from Task t where t.user.id = :userId "
+        + "and (t.status = :status or (:status is null and t.status is null)) "
+        + "and (:afterId is null or t.sortRank > :afterRank or (t.sortRank = :afterRank and t.id > :afterId)) "
+        + "order by t.sortRank, t.id")
+    List<Task> findBoardColumn(
+        @Param("userId") Long userId,
+        @Param("status") String status,
+        @Param("afterRank") String afterRank,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    // '' — задача ещё без ключа; пустой Optional — задачи нет
+    @Query("select coalesce(t.sortRank, '') from Task t where t.id = :id and t.user.id = :userId")
+    Optional<String> findSortRank(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("select distinct t.user.id from Task t where t.sortRank is null or length(t.sortRank) > :maxLength")
+    List<Long> findUserIdsNeedingRebalance(@Param("maxLength") int maxLength);
+
+    // Задачи без ключа (созданные до ручного порядка) идут первыми, в порядке создания
+    @Query("select t.id from Task t where t.user.id = :userId "
+        + "order by case when t.sortRank is null then 0 else 1 end, t.sortRank, t.id")
+    List<Long> findIdsInRankOrder(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Task t set t.sortRank = :rank where t.id = :id")
+    int updateSortRank(@Param("id") Long id, @Param("rank") String rank);
+
+    // После перенумерации: sortRank в ответах сменился — синхронизация и If-Match должны это увидеть
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.updatedAt = :now, t.version = t.version + 1 where t.user.id = :userId")
+    int touchAllByUserId(@Param("userId") Long userId, @Param("now") Instant now);
+
+    @EntityGraph(attributePaths = "category")
+    List<Task> findAllByUserIdAndUpdatedAtAfter(Long userId, Instant since);
+
+    @EntityGraph(attributePaths = "category")
+    List<Task> findAllByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "category")
+    List<Task> findAllByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Query("select t.id from Task t where t.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    // Keyset по (due_date, id): каждая пачка — короткий range scan по idx_task_due
+    @Query("select new com.tracker.DTO.DueTask(t.id, t.user.id, t.task, t.dueDate, t.isCompleted, "
+        + "t.recurrenceFrequency, t.recurrenceInterval, t.recurrenceUntil) from Task t "
+        + "where t.isCompleted = false and t.dueDate <= :to "
+        + "and (t.dueDate > :afterDue or (t.dueDate = :afterDue and t.id > :afterId)) "
+        + "order by t.dueDate, t.id")
+    List<DueTask> findDueBatch(
+        @Param("afterDue") LocalDateTime afterDue,
+        @Param("afterId") Long afterId,
+        @Param("to") LocalDateTime to,
+        Pageable pageable
+    );
+
+    @Query("select new com.tracker.DTO.DueTask(t.id, t.user.id, t.task, t.dueDate, t.isCompleted, "
+        + "t.recurrenceFrequency, t.recurrenceInterval, t.recurrenceUntil) from Task t "
+        + "where t.id in :ids")
+    List<DueTask> findDueTasksByIds(@Param("ids") Collection<Long> ids);
+
+    // Серии, начатые до окна: их собственный срок в окно уже не попадёт
+    @Query("select new com.tracker.DTO.DueTask(t.id, t.user.id, t.task, t.dueDate, t.isCompleted, "
+        + "t.recurrenceFrequency, t.recurrenceInterval, t.recurrenceUntil) from Task t "
+        + "where t.recurrenceFrequency is not null and t.dueDate <= :from "
+        + "and (t.recurrenceUntil is null or t.recurrenceUntil >= :from) and t.id > :afterId "
+        + "order by t.id")
+    List<DueTask> findSeriesBatch(
+        @Param("from") LocalDateTime from,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    // Обычные задачи окна — range scan по idx_task_user_due
+    @EntityGraph(attributePaths = "category")
+    @Query("select t from Task t where t.user.id = :userId "
+        + "and t.recurrenceFrequency is null and t.recurrenceParentId is null "
+        + "and t.dueDate >= :from and t.dueDate < :to "
+        + "order by t.dueDate")
+    List<Task> findSingleInWindow(
+        @Param("userId") Long userId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    @Query("select t from Task t where t.user.id = :userId and t.recurrenceFrequency is not null "
+        + "and t.dueDate < :to and (t.recurrenceUntil is null or t.recurrenceUntil >= :from)")
+    List<Task> findSeriesInWindow(
+        @Param("userId") Long userId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    @Query("select t from Task t where t.recurrenceParentId in :seriesIds "
+        + "and t.occurrenceDate >= :from and t.occurrenceDate < :to")
+    List<Task> findOverridesInWindow(
+        @Param("seriesIds") Collection<Long> seriesIds,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    // Вынесенные вхождения по их собственному сроку — он мог быть перенесён в окно
+    @EntityGraph(attributePaths = "category")
+    @Query("select t from Task t where t.user.id = :userId and t.recurrenceParentId is not null "
+        + "and t.dueDate >= :from and t.dueDate < :to")
+    List<Task> findOverridesDueInWindow(
+        @Param("userId") Long userId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    Optional<Task> findByRecurrenceParentIdAndOccurrenceDate(Long recurrenceParentId, LocalDateTime occurrenceDate);
+
+    @Query("select t.id from Task t where t.recurrenceParentId = :seriesId")
+    List<Long> findIdsByRecurrenceParentId(@Param("seriesId") Long seriesId);
+
+    @Modifying
+    @Query("delete from Task t where t.recurrenceParentId = :seriesId")
+    int deleteByRecurrenceParentId(@Param("seriesId") Long seriesId);
+
+    @Query("select new com.tracker.DTO.TaskCompletion(c.id, t.completedAt) from Task t left join t.category c "
+        + "where t.recurrenceParentId = :seriesId and t.completedAt is not null")
+    List<TaskCompletion> findCompletionsByRecurrenceParentId(@Param("seriesId") Long seriesId);
+
+    // Без блокировки: clearCompletedAt ниже сверяет прочитанное время
+    @Query("select new com.tracker.DTO.TaskCompletion(c.id, t.completedAt) from Task t left join t.category c "
+        + "where t.id = :id and t.user.id = :userId")
+    Optional<TaskCompletion> findCompletionById(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Task t set t.isCompleted = false, t.completedAt = null "
+        + "where t.id = :id and t.completedAt = :completedAt")
+    int clearCompletedAt(@Param("id") Long id, @Param("completedAt") Instant completedAt);
+
+    @Query("select new com.tracker.DTO.TaskCompletion(c.id, t.completedAt) from Task t left join t.category c "
+        + "where t.user.id = :userId and t.completedAt is not null")
+    List<TaskCompletion> findCompletionsByUserId(@Param("userId") Long userId);
+
+    @Query("select distinct t.user.id from Task t where t.completedAt is not null")
+    List<Long> findUserIdsWithCompletions();
+
+    // Задачи, выполненные до появления completed_at: лучшая оценка — время последней правки
+    @Modifying
+    @Query("update Task t set t.completedAt = coalesce(t.updatedAt, :now) "
+        + "where t.isCompleted = true and t.completedAt is null")
+    int backfillCompletedAt(@Param("now") Instant now);
 }
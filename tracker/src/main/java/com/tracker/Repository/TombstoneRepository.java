@@ -0,0 +1,29 @@
+package com.tracker.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.tracker.Entity.Tombstone;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+    List<Tombstone> findAllByUserIdAndDeletedAtAfter(Long userId, Instant since);
+
+    @Modifying
+    @Query("delete from Tombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+
+    long countByUserId(Long userId);
+
+    @Modifying
+    @Query("delete from Tombstone t where t.userId = :userId")
+    int bulkDeleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "delete from tombstone where id in (select id from tombstone where user_id = :userId limit :limit)", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+}
@@ -3,9 +3,24 @@ package com.tracker.Repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.tracker.Entity.User;
 
+import jakarta.persistence.LockModeType;
+
 public interface UserRepository extends JpaRepository<User, Long>{
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // Сериализует перестройку дерева категорий и ручного порядка задач одного пользователя
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int bulkDeleteById(@Param("id") Long id);
 }
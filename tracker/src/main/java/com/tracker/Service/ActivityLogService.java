@@ -0,0 +1,260 @@
+package com.tracker.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.tracker.DTO.ActivityResponse;
+import com.tracker.DTO.ActivityStats;
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.Entity.ActivityAction;
+import com.tracker.Mapper.ActivityMapper;
+import com.tracker.Repository.ActivityEntryRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-user activity history built from committed {@link ChangeEvent}s.
+ *
+ * The request thread only puts an entry into a bounded buffer; a background writer
+ * drains it every {@code activity.flush-interval-ms} (or once {@code activity.batch-size}
+ * entries are waiting) and inserts them with one JDBC batch per shard. Entries still in
+ * the buffer are lost if the process dies, so the flush interval is the durability window.
+ * When the buffer is full, {@code activity.overflow} decides: drop the newest entry,
+ * drop the oldest one, or block the caller for at most {@code activity.block-timeout-ms}.
+ * Each batch is written to the shards the users live on right now; entries of a user
+ * fenced for a move wait in the writer until the move is over.
+ */
+@Service
+public class ActivityLogService {
+    public enum OverflowPolicy { DROP_NEWEST, DROP_OLDEST, BLOCK }
+
+    private static final String INSERT = "insert into activity_log "
+        + "(user_id, entity_type, entity_id, action, title, created_at) values (?, ?, ?, ?, ?, ?)";
+    private static final int TITLE_LENGTH = 255;
+
+    private final ActivityEntryRepository activityEntryRepository;
+    private final ActivityMapper activityMapper;
+    private final ShardRouter shardRouter;
+    private final Map<Integer, JdbcTemplate> shards = new HashMap<>();
+    private final ArrayBlockingQueue<Pending> buffer;
+    // Записи переезжающих пользователей; трогает только поток записи
+    private final List<Pending> deferred = new ArrayList<>();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private Thread writer;
+    private volatile boolean running = true;
+
+    @Value("${activity.enabled:true}")
+    private boolean enabled;
+
+    @Value("${activity.overflow:DROP_OLDEST}")
+    private OverflowPolicy overflow;
+
+    @Value("${activity.block-timeout-ms:50}")
+    private long blockTimeoutMs;
+
+    @Value("${activity.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${activity.batch-size:500}")
+    private int batchSize;
+
+    public ActivityLogService(
+        ActivityEntryRepository activityEntryRepository,
+        ActivityMapper activityMapper,
+        ShardRouter shardRouter,
+        @Value("${activity.buffer-size:10000}") int bufferSize
+    ) {
+        this.activityEntryRepository = activityEntryRepository;
+        this.activityMapper = activityMapper;
+        this.shardRouter = shardRouter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        for (int shard : shardRouter.getShardIds()) {
+            shards.put(shard, new JdbcTemplate(shardRouter.getDataSource(shard)));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::run, "activity-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Дописываем то, что уже в буфере
+        running = false;
+        writer.interrupt();
+        writer.join(5000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ActivityAction action = switch (event.getAction()) {
+            case CREATED -> ActivityAction.CREATED;
+            case UPDATED -> event.isCompletion() ? ActivityAction.COMPLETED : ActivityAction.UPDATED;
+            case DELETED -> ActivityAction.DELETED;
+        };
+        enqueue(new Pending(
+            event.getUserId(),
+            event.getEntity().name(),
+            event.getId(),
+            action,
+            truncate(event.getTitle()),
+            event.getOccurredAt()
+        ));
+    }
+
+    public Page<ActivityResponse> getAllByUserId(Long userId, Pageable pageable) {
+        return activityEntryRepository.findAllByUserIdOrderByIdDesc(userId, pageable)
+            .map(activityMapper::toResponse);
+    }
+
+    public ActivityStats getStats() {
+        return new ActivityStats(buffer.size(), written.sum(), dropped.sum(), failed.sum());
+    }
+
+    private void enqueue(Pending entry) {
+        switch (overflow) {
+            case DROP_NEWEST -> {
+                if (!buffer.offer(entry)) {
+                    dropped.increment();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!buffer.offer(entry)) {
+                    if (buffer.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+            case BLOCK -> {
+                try {
+                    if (!buffer.offer(entry, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        dropped.increment();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+            }
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // остановка: добираем остаток без ожидания
+                buffer.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty() || !deferred.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // Копит записи до batch-size или до конца окна flush-interval
+    private void collect(List<Pending> batch) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + flushIntervalMs;
+        while (batch.size() < batchSize) {
+            long waitMs = deadline - System.currentTimeMillis();
+            if (waitMs <= 0 || !running) {
+                buffer.drainTo(batch, batchSize - batch.size());
+                return;
+            }
+            Pending next = buffer.poll(waitMs, TimeUnit.MILLISECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            buffer.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        batch.addAll(deferred);
+        deferred.clear();
+
+        Map<Long, ShardRouter.Placement> placements;
+        try {
+            placements = shardRouter.placementsOf(batch.stream().map(Pending::userId).collect(Collectors.toSet()));
+        } catch (DataAccessException e) {
+            failed.add(batch.size());
+            return;
+        }
+        Map<Integer, List<Pending>> byShard = new HashMap<>();
+        for (Pending entry : batch) {
+            ShardRouter.Placement placement = placements.get(entry.userId());
+            if (placement.readOnly()) {
+                // Данные пользователя переезжают: допишем после переезда, уже в новый шард
+                deferred.add(entry);
+            } else {
+                byShard.computeIfAbsent(placement.shard(), shard -> new ArrayList<>()).add(entry);
+            }
+        }
+        byShard.forEach((shard, entries) -> {
+            try {
+                shards.get(shard).batchUpdate(INSERT, entries, entries.size(), ActivityLogService::bind);
+                written.add(entries.size());
+            } catch (DataAccessException e) {
+                // История — не источник истины: не ретраим, чтобы не копить отставание
+                failed.add(entries.size());
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement statement, Pending entry) throws SQLException {
+        statement.setLong(1, entry.userId());
+        statement.setString(2, entry.entityType());
+        if (entry.entityId() != null) {
+            statement.setLong(3, entry.entityId());
+        } else {
+            statement.setNull(3, Types.BIGINT);
+        }
+        statement.setString(4, entry.action().name());
+        statement.setString(5, entry.title());
+        statement.setTimestamp(6, Timestamp.from(entry.createdAt()));
+    }
+
+    private static String truncate(String title) {
+        return title != null && title.length() > TITLE_LENGTH ? title.substring(0, TITLE_LENGTH) : title;
+    }
+
+    private record Pending(
+        Long userId,
+        String entityType,
+        Long entityId,
+        ActivityAction action,
+        String title,
+        Instant createdAt
+    ) {}
+}
@@ -0,0 +1,146 @@
+package com.tracker.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.DTO.NoteAttachmentResponse;
+import com.tracker.Entity.NoteAttachment;
+import com.tracker.Exceptions.AttachmentNotFoundException;
+import com.tracker.Exceptions.NoteNotFoundException;
+import com.tracker.Mapper.NoteAttachmentMapper;
+import com.tracker.Repository.NoteAttachmentRepository;
+import com.tracker.Repository.NoteRepository;
+
+/**
+ * Attachments are written to disk outside of any transaction, so a slow upload
+ * never holds a database connection; only the final INSERT runs in one.
+ */
+@Service
+public class AttachmentService {
+    // Файлы моложе этого не удаляем: ссылка на них может быть ещё не закоммичена
+    private static final Duration GC_GRACE = Duration.ofHours(1);
+
+    private final NoteRepository noteRepository;
+    private final NoteAttachmentRepository noteAttachmentRepository;
+    private final NoteAttachmentMapper noteAttachmentMapper;
+    private final AttachmentStorage storage;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${attachments.max-size:26214400}")
+    private long maxSize;
+
+    public AttachmentService(
+        NoteRepository noteRepository,
+        NoteAttachmentRepository noteAttachmentRepository,
+        NoteAttachmentMapper noteAttachmentMapper,
+        AttachmentStorage storage,
+        ShardRouter shardRouter,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.noteRepository = noteRepository;
+        this.noteAttachmentRepository = noteAttachmentRepository;
+        this.noteAttachmentMapper = noteAttachmentMapper;
+        this.storage = storage;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public NoteAttachmentResponse upload(
+        Long userId,
+        Long noteId,
+        String fileName,
+        String contentType,
+        InputStream body
+    ) throws IOException {
+        if (!noteRepository.existsByIdAndUserId(noteId, userId)) {
+            throw new NoteNotFoundException("Note not found");
+        }
+
+        AttachmentStorage.StoredFile stored = storage.store(body, maxSize);
+
+        NoteAttachment saved = transactionTemplate.execute(status -> {
+            NoteAttachment attachment = new NoteAttachment();
+            attachment.setNote(noteRepository.getReferenceById(noteId));
+            attachment.setUserId(userId);
+            attachment.setFileName(cleanFileName(fileName));
+            attachment.setContentType(contentType);
+            attachment.setSize(stored.size());
+            attachment.setSha256(stored.sha256());
+            return noteAttachmentRepository.save(attachment);
+        });
+
+        return noteAttachmentMapper.toResponse(saved);
+    }
+
+    public List<NoteAttachmentResponse> getAll(Long userId, Long noteId) {
+        return noteAttachmentRepository.findAllByNoteIdAndUserIdOrderById(noteId, userId).stream()
+            .map(noteAttachmentMapper::toResponse)
+            .collect(Collectors.toList());
+    }
+
+    public NoteAttachmentResponse getById(Long userId, Long noteId, Long attachmentId) {
+        return noteAttachmentRepository.findByIdAndNoteIdAndUserId(attachmentId, noteId, userId)
+            .map(noteAttachmentMapper::toResponse)
+            .orElseThrow(() -> new AttachmentNotFoundException("Attachment not found"));
+    }
+
+    public Path resolveFile(NoteAttachmentResponse attachment) {
+        return storage.path(attachment.getSha256());
+    }
+
+    public void delete(Long userId, Long noteId, Long attachmentId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            NoteAttachment attachment = noteAttachmentRepository.findByIdAndNoteIdAndUserId(attachmentId, noteId, userId)
+                .orElseThrow(() -> new AttachmentNotFoundException("Attachment not found"));
+            noteAttachmentRepository.delete(attachment);
+        });
+        // Сам файл может быть нужен другим вложениям — его уберёт сборщик
+    }
+
+    @Scheduled(cron = "${attachments.gc-cron:0 15 4 * * *}")
+    public void collectGarbage() throws IOException {
+        Instant cutoff = Instant.now().minus(GC_GRACE);
+        for (Path file : storage.listOlderThan(cutoff)) {
+            if (storage.isTemporary(file)) {
+                Files.deleteIfExists(file);
+            } else {
+                // Список мог устареть: mtime и ссылки перепроверяются под блокировкой хэша
+                storage.deleteIfUnreferenced(file, cutoff, this::isReferenced);
+            }
+        }
+    }
+
+    // Хранилище общее для всех шардов — файл жив, пока на него ссылается хоть один
+    private boolean isReferenced(String sha256) {
+        for (int shard : shardRouter.getShardIds()) {
+            if (ShardContext.callOn(shard, () -> noteAttachmentRepository.existsBySha256(sha256))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String cleanFileName(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            return "attachment";
+        }
+        // Только имя, без пути — и без управляющих символов в заголовках ответа
+        String name = fileName.substring(fileName.replace('\\', '/').lastIndexOf('/') + 1)
+            .replaceAll("[\\p{Cntrl}\"]", "_");
+        return name.isBlank() ? "attachment" : name;
+    }
+}
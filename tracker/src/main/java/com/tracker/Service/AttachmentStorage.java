@@ -0,0 +1,155 @@
+package com.tracker.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.tracker.Exceptions.AttachmentTooLargeException;
+
+/**
+ * Content-addressed file store: a file lives at {@code <dir>/ab/cd/<sha256>}.
+ *
+ * Uploads are streamed into a temp file inside the store while the hash is computed,
+ * then renamed into place, so nothing is buffered in heap and readers never see a
+ * half-written file. Uploading bytes that are already stored keeps the existing file.
+ * Placing a file and collecting it take the same per-hash lock, so the collector
+ * never deletes a file that an upload has just reused.
+ */
+@Component
+public class AttachmentStorage {
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path root;
+    private final Path tmp;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public AttachmentStorage(@Value("${attachments.dir:data/attachments}") String dir) throws IOException {
+        this.root = Path.of(dir).toAbsolutePath().normalize();
+        // Временные файлы на той же файловой системе — тогда move атомарный
+        this.tmp = root.resolve("tmp");
+        Files.createDirectories(tmp);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public record StoredFile(String sha256, long size) {}
+
+    public StoredFile store(InputStream body, long maxSize) throws IOException {
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            DigestInputStream in = new DigestInputStream(body, digest);
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new AttachmentTooLargeException("Attachment exceeds " + maxSize + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            synchronized (lock(hash)) {
+                if (Files.exists(target)) {
+                    // Дубликат: оставляем существующий файл, свежий mtime уберегает его от сборщика
+                    Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                } else {
+                    Files.createDirectories(target.getParent());
+                    try {
+                        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (FileAlreadyExistsException e) {
+                        // тот же файл параллельно загрузил кто-то ещё
+                    }
+                }
+            }
+            return new StoredFile(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path path(String sha256) {
+        if (!SHA256.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a sha256: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * Stored files and leftover uploads not modified since {@code cutoff}.
+     */
+    public List<Path> listOlderThan(Instant cutoff) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(file -> {
+                    try {
+                        return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+                    } catch (IOException e) {
+                        return false;
+                    }
+                })
+                .collect(Collectors.toList());
+        }
+    }
+
+    public boolean isTemporary(Path file) {
+        return file.startsWith(tmp);
+    }
+
+    /**
+     * Deletes a stored file if it is still not modified since {@code cutoff} and
+     * {@code isReferenced} says nothing points at it. Both are checked under the lock
+     * that {@link #store} takes, so an upload either sees the file gone and writes it
+     * again or refreshes its mtime before the check.
+     */
+    public boolean deleteIfUnreferenced(Path file, Instant cutoff, Predicate<String> isReferenced) throws IOException {
+        String hash = file.getFileName().toString();
+        synchronized (lock(hash)) {
+            if (!Files.exists(file)
+                    || !Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                    || isReferenced.test(hash)) {
+                return false;
+            }
+            return Files.deleteIfExists(file);
+        }
+    }
+
+    private Object lock(String sha256) {
+        return locks[Math.floorMod(sha256.hashCode(), locks.length)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
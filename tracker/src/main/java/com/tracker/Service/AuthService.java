@@ -1,10 +1,12 @@
 package com.tracker.Service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.tracker.Utils.JwtUtils;
 import com.tracker.DTO.AuthResponse;
 import com.tracker.DTO.LoginRequest;
+import com.tracker.DTO.UserCreatedEvent;
 import com.tracker.DTO.UserRequest;
 import com.tracker.Entity.Role;
 import com.tracker.Entity.User;
@@ -18,6 +20,7 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
@@ -49,7 +52,8 @@ public class AuthService {
 
             user.setRole(Role.USER);
 
-            userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            eventPublisher.publishEvent(new UserCreatedEvent(savedUser.getId()));
         }
     }
 }
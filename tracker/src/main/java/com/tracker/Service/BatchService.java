@@ -0,0 +1,240 @@
+package com.tracker.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.tracker.DTO.BatchOperation;
+import com.tracker.DTO.BatchResponse;
+import com.tracker.DTO.BatchResult;
+import com.tracker.DTO.CategoryResponse;
+import com.tracker.DTO.HabitResponse;
+import com.tracker.DTO.NoteRequest;
+import com.tracker.DTO.NoteResponse;
+import com.tracker.DTO.TaskRequest;
+import com.tracker.DTO.TaskResponse;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Runs a list of operations for one user in a single transaction. The first failing
+ * operation rolls everything back; its index and error are reported, the steps
+ * after it are not attempted.
+ *
+ * The regular services do the work, so ownership checks, change events and
+ * tombstones behave exactly as for the single-entity endpoints. The session is
+ * flushed after every operation, so a constraint violation is reported at the
+ * index of the operation that caused it instead of failing the commit.
+ */
+@Service
+public class BatchService {
+    private final TaskService taskService;
+    private final NoteService noteService;
+    private final HabitService habitService;
+    private final CategoryService categoryService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${batch.max-operations:100}")
+    private int maxOperations;
+
+    public BatchService(
+        TaskService taskService,
+        NoteService noteService,
+        HabitService habitService,
+        CategoryService categoryService,
+        Validator validator,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.taskService = taskService;
+        this.noteService = noteService;
+        this.habitService = habitService;
+        this.categoryService = categoryService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int getMaxOperations() {
+        return maxOperations;
+    }
+
+    public BatchResponse execute(Long userId, List<BatchOperation> operations) {
+        List<BatchResult> results = new ArrayList<>(operations.size());
+
+        BatchResult failure = transactionTemplate.execute(status -> {
+            for (int index = 0; index < operations.size(); index++) {
+                try {
+                    results.add(apply(userId, index, operations.get(index), results));
+                    entityManager.flush();
+                } catch (RuntimeException e) {
+                    status.setRollbackOnly();
+                    return failed(index, e);
+                }
+            }
+            return null;
+        });
+
+        if (failure != null) {
+            // Откатилось всё — успешные шаги до сбоя тоже не сохранены
+            List<BatchResult> rolledBack = new ArrayList<>(results.size() + 1);
+            for (BatchResult result : results) {
+                rolledBack.add(new BatchResult(result.getIndex(), HttpStatus.FAILED_DEPENDENCY.value(), null, null,
+                    "Rolled back"));
+            }
+            rolledBack.add(failure);
+            return new BatchResponse(false, failure.getIndex(), rolledBack);
+        }
+        return new BatchResponse(true, null, results);
+    }
+
+    private BatchResult apply(Long userId, int index, BatchOperation operation, List<BatchResult> previous) {
+        Long id = operation.getIdRef() != null ? resolve(operation.getIdRef(), index, previous) : operation.getId();
+        Long categoryId = operation.getCategoryRef() != null ? resolve(operation.getCategoryRef(), index, previous) : null;
+        Long version = operation.getVersion();
+        if (operation.getOp() != BatchOperation.Op.CREATE && id == null) {
+            throw new IllegalArgumentException("id or idRef is mandatory for " + operation.getOp());
+        }
+
+        switch (operation.getEntity()) {
+            case TASK -> {
+                switch (operation.getOp()) {
+                    case CREATE -> {
+                        TaskResponse created = taskService.save(userId, payload(operation.getTask(), categoryId));
+                        return ok(index, created.getId(), created);
+                    }
+                    case UPDATE -> {
+                        TaskResponse updated = taskService.update(userId, id, payload(operation.getTask(), categoryId), version);
+                        return ok(index, id, updated);
+                    }
+                    case PATCH -> taskService.patch(userId, id, valid(operation.getTaskPatch()), version);
+                    case DELETE -> taskService.delete(userId, id, version);
+                }
+            }
+            case NOTE -> {
+                switch (operation.getOp()) {
+                    case CREATE -> {
+                        NoteResponse created = noteService.save(userId, payload(operation.getNote(), categoryId));
+                        return ok(index, created.getId(), created);
+                    }
+                    case UPDATE -> {
+                        NoteResponse updated = noteService.update(userId, id, payload(operation.getNote(), categoryId), version);
+                        return ok(index, id, updated);
+                    }
+                    case PATCH -> noteService.patch(userId, id, valid(operation.getNotePatch()), version);
+                    case DELETE -> noteService.delete(userId, id, version);
+                }
+            }
+            case HABIT -> {
+                switch (operation.getOp()) {
+                    case CREATE -> {
+                        HabitResponse created = habitService.save(userId, valid(operation.getHabit()));
+                        return ok(index, created.getId(), created);
+                    }
+                    case UPDATE -> {
+                        HabitResponse updated = habitService.update(userId, id, valid(operation.getHabit()), version);
+                        return ok(index, id, updated);
+                    }
+                    case PATCH -> habitService.patch(userId, id, valid(operation.getHabitPatch()), version);
+                    case DELETE -> habitService.delete(userId, id, version);
+                }
+            }
+            case CATEGORY -> {
+                switch (operation.getOp()) {
+                    case CREATE -> {
+                        CategoryResponse created = categoryService.save(userId, valid(operation.getCategory()));
+                        return ok(index, created.getId(), created);
+                    }
+                    case UPDATE -> {
+                        CategoryResponse updated = categoryService.update(userId, id, valid(operation.getCategory()), version);
+                        return ok(index, id, updated);
+                    }
+                    case PATCH -> throw new IllegalArgumentException("Categories do not support PATCH");
+                    case DELETE -> categoryService.delete(userId, id, version);
+                }
+            }
+        }
+        return new BatchResult(index, HttpStatus.NO_CONTENT.value(), id, null, null);
+    }
+
+    private static Long resolve(int ref, int index, List<BatchResult> previous) {
+        if (ref < 0 || ref >= index) {
+            throw new IllegalArgumentException("Reference " + ref + " must point to an earlier operation");
+        }
+        Long id = previous.get(ref).getId();
+        if (id == null) {
+            throw new IllegalArgumentException("Operation " + ref + " produced no id");
+        }
+        return id;
+    }
+
+    private <T> T payload(T request, Long categoryId) {
+        T checked = valid(request);
+        if (categoryId != null) {
+            if (checked instanceof TaskRequest task) {
+                task.setCategoryId(categoryId);
+            } else if (checked instanceof NoteRequest note) {
+                note.setCategoryId(categoryId);
+            }
+        }
+        return checked;
+    }
+
+    private <T> T valid(T request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Payload for this operation is missing");
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<T> first = violations.iterator().next();
+            throw new IllegalArgumentException(first.getPropertyPath() + ": " + first.getMessage());
+        }
+        return request;
+    }
+
+    private static BatchResult ok(int index, Long id, Object body) {
+        return new BatchResult(index, HttpStatus.OK.value(), id, body, null);
+    }
+
+    private static BatchResult failed(int index, RuntimeException e) {
+        HttpStatus status;
+        String message = e.getMessage();
+        // Свои исключения — с тем же @ResponseStatus, что отдают контроллеры
+        ResponseStatus declared = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        if (declared != null) {
+            status = declared.code();
+        } else if (e instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+        } else if (e instanceof EntityNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof ConstraintViolationException || e instanceof DataIntegrityViolationException) {
+            // Текст ошибки базы наружу не отдаём
+            status = HttpStatus.CONFLICT;
+            message = "Conflicts with existing data";
+        } else if (e instanceof AccessDeniedException) {
+            status = HttpStatus.FORBIDDEN;
+        } else {
+            status = HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+        if (status == HttpStatus.INTERNAL_SERVER_ERROR) {
+            message = "Operation failed";
+        }
+        return new BatchResult(index, status.value(), null, null, message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.tracker.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.tracker.DTO.CalendarDay;
+import com.tracker.DTO.TaskOccurrenceResponse;
+import com.tracker.Entity.Habit;
+import com.tracker.Exceptions.InvalidFieldsException;
+import com.tracker.Mapper.HabitMapper;
+import com.tracker.Repository.HabitRepository;
+
+/**
+ * Tasks (including expanded recurring ones) and habits of a date window, merged into
+ * one bucket per day. Both sources are range scans over the window and come back
+ * sorted by day, so buckets are assembled in a single pass and handed out one by one.
+ * Every task handed over is due inside the window; anything else would stall the merge.
+ */
+@Service
+public class CalendarService {
+    private final TaskService taskService;
+    private final HabitRepository habitRepository;
+    private final HabitMapper habitMapper;
+
+    @Value("${calendar.max-days:366}")
+    private long maxDays;
+
+    public CalendarService(TaskService taskService, HabitRepository habitRepository, HabitMapper habitMapper) {
+        this.taskService = taskService;
+        this.habitRepository = habitRepository;
+        this.habitMapper = habitMapper;
+    }
+
+    /**
+     * Checks the window before anything is written to the response.
+     */
+    public void validate(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidFieldsException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new InvalidFieldsException("Range is limited to " + maxDays + " days");
+        }
+    }
+
+    /**
+     * Calls {@code sink} for every day in {@code [from, to]} in order, empty days included.
+     */
+    public void forEachDay(Long userId, LocalDate from, LocalDate to, Consumer<CalendarDay> sink) {
+        validate(from, to);
+        List<TaskOccurrenceResponse> tasks = taskService.getOccurrences(userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        List<Habit> habits = habitRepository.findAllByUserIdAndDateBetweenOrderByDateAscIdAsc(userId, from, to);
+
+        int taskIndex = 0;
+        int habitIndex = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            CalendarDay day = new CalendarDay();
+            day.setDate(date);
+            while (taskIndex < tasks.size() && tasks.get(taskIndex).getDueDate().toLocalDate().equals(date)) {
+                day.getTasks().add(tasks.get(taskIndex++));
+            }
+            while (habitIndex < habits.size() && habits.get(habitIndex).getDate().equals(date)) {
+                day.getHabits().add(habitMapper.toResponse(habits.get(habitIndex++)));
+            }
+            sink.accept(day);
+        }
+    }
+}
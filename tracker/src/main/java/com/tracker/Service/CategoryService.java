@@ -1,59 +1,74 @@
 package com.tracker.Service;
 
 import com.tracker.Entity.Category;
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.DTO.CategoryMoveRequest;
 import com.tracker.DTO.CategoryRequest;
 import com.tracker.DTO.CategoryResponse;
 import com.tracker.Mapper.CategoryMapper;
+import com.tracker.Repository.CategoryClosureRepository;
 import com.tracker.Repository.CategoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
 import com.tracker.Entity.Note;
 import com.tracker.Repository.NoteRepository;
-import com.tracker.DTO.NoteResponse;
+import com.tracker.DTO.NoteSummaryResponse;
 import com.tracker.Mapper.NoteMapper;
 import com.tracker.Entity.Task;
 import com.tracker.Entity.User;
 import com.tracker.Exceptions.CategoryInUseException;
 import com.tracker.Exceptions.CategoryNotFoundException;
-import com.tracker.Exceptions.UserNotFoundException;
+import com.tracker.Exceptions.InvalidFieldsException;
+import com.tracker.Exceptions.PreconditionFailedException;
 import com.tracker.Repository.TaskRepository;
 import com.tracker.Repository.UserRepository;
 import com.tracker.DTO.TaskResponse;
 import com.tracker.Mapper.TaskMapper;
+import com.tracker.Utils.ETags;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors; 
 
 @Service
 @Transactional
 public class CategoryService {
     private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository closureRepository;
     private final CategoryMapper categoryMapper;
     private final NoteRepository noteRepository;
     private final NoteMapper noteMapper;
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CategoryService(
         CategoryRepository categoryRepository,
+        CategoryClosureRepository closureRepository,
         CategoryMapper categoryMapper,
         NoteRepository noteRepository,
         NoteMapper noteMapper,
         TaskRepository taskRepository,
         TaskMapper taskMapper,
-        UserRepository userRepository
+        UserRepository userRepository,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.categoryRepository = categoryRepository;
+        this.closureRepository = closureRepository;
         this.categoryMapper = categoryMapper;
         this.noteRepository = noteRepository;
         this.noteMapper = noteMapper;
         this.taskRepository = taskRepository;
         this.taskMapper = taskMapper;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<CategoryResponse> getAllByUserId(Long userId, Pageable pageable) {
@@ -62,15 +77,17 @@ public class CategoryService {
         return categories.map(categoryMapper::toResponse);
     }
 
-    public List<NoteResponse> getNotesByCategoryAndUserId(Long userId, Long categoryId) {
-        List<Note> notesByCategory = noteRepository.findByCategoryIdAndUserIdOrderByCreatedAtDesc(categoryId, userId);
-        return notesByCategory.stream()
-                .map(noteMapper::toResponse)
-                .collect(Collectors.toList());
+    public List<NoteSummaryResponse> getNotesByCategoryAndUserId(Long userId, Long categoryId, boolean includeDescendants) {
+        if (includeDescendants) {
+            return noteRepository.findSummariesBySubtreeAndUserId(categoryId, userId);
+        }
+        return noteRepository.findSummariesByCategoryIdAndUserId(categoryId, userId);
     }
 
-    public List<TaskResponse> getTasksByCategoryAndUserId(Long userId, Long categoryId) {
-        List<Task> taskByCategory = taskRepository.findByCategoryIdAndUserIdOrderByCreatedAtDesc(userId, categoryId);
+    public List<TaskResponse> getTasksByCategoryAndUserId(Long userId, Long categoryId, boolean includeDescendants) {
+        List<Task> taskByCategory = includeDescendants
+            ? taskRepository.findBySubtreeAndUserId(categoryId, userId)
+            : taskRepository.findByCategoryIdAndUserIdOrderByCreatedAtDesc(categoryId, userId);
         return taskByCategory.stream()
                 .map(taskMapper::toResponse)
                 .collect(Collectors.toList());
@@ -79,31 +96,83 @@ public class CategoryService {
     public CategoryResponse save(Long userId, CategoryRequest request) {
         Category categoryToSave = categoryMapper.toEntity(request);
 
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException("User not found!"));
+        User user = userRepository.getReferenceById(userId);
         categoryToSave.setUser(user);
 
+        Long parentId = request.getParentId();
+        if (parentId != null) {
+            // Пути предков родителя копируются — перенос его поддерева должен подождать
+            userRepository.findForUpdate(userId);
+            if (!categoryRepository.existsByIdAndUserId(parentId, userId)) {
+                throw new CategoryNotFoundException("Parent category not exist");
+            }
+        }
+        categoryToSave.setParentId(parentId);
+
         Category savedCategory = categoryRepository.save(categoryToSave);
+        if (parentId != null) {
+            closureRepository.insertLeaf(savedCategory.getId(), parentId, userId);
+        }
+        publish(ChangeEvent.Action.CREATED, savedCategory.getId(), userId, savedCategory.getName());
 
         return categoryMapper.toResponse(savedCategory);
     }
 
-    public CategoryResponse update(Long userId, Long categoryId, CategoryRequest request) {
+    public CategoryResponse update(Long userId, Long categoryId, CategoryRequest request, Long expectedVersion) {
         Category categoryToUpdate = categoryRepository.findByIdAndUserId(categoryId, userId)
             .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+        ETags.check(expectedVersion, categoryToUpdate.getVersion());
         
         categoryToUpdate.setName(request.getName());
         
-        Category updatedCategory = categoryRepository.save(categoryToUpdate);
+        Category updatedCategory = flush(() -> categoryRepository.saveAndFlush(categoryToUpdate));
+        publish(ChangeEvent.Action.UPDATED, categoryId, userId, updatedCategory.getName());
 
         return categoryMapper.toResponse(updatedCategory);
     }
 
-    public void delete(Long userId, Long id) {
+    /**
+     * Re-parents a category together with its subtree: two set-based statements
+     * replace the paths from the old ancestors with paths from the new ones.
+     */
+    public CategoryResponse move(Long userId, Long categoryId, CategoryMoveRequest request, Long expectedVersion) {
+        userRepository.findForUpdate(userId);
+        Category categoryToMove = categoryRepository.findByIdAndUserId(categoryId, userId)
+            .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+        ETags.check(expectedVersion, categoryToMove.getVersion());
+
+        Long parentId = request.getParentId();
+        if (Objects.equals(parentId, categoryToMove.getParentId())) {
+            return categoryMapper.toResponse(categoryToMove);
+        }
+        if (parentId != null) {
+            if (!categoryRepository.existsByIdAndUserId(parentId, userId)) {
+                throw new CategoryNotFoundException("Parent category not exist");
+            }
+            if (parentId.equals(categoryId) || closureRepository.existsByAncestorIdAndDescendantId(categoryId, parentId)) {
+                throw new InvalidFieldsException("Category cannot be moved into its own subtree");
+            }
+        }
+
+        categoryToMove.setParentId(parentId);
+        Category movedCategory = flush(() -> categoryRepository.saveAndFlush(categoryToMove));
+
+        closureRepository.detachSubtree(categoryId);
+        if (parentId != null) {
+            closureRepository.attachSubtree(categoryId, parentId, userId);
+        }
+        publish(ChangeEvent.Action.UPDATED, categoryId, userId, movedCategory.getName());
+
+        return categoryMapper.toResponse(movedCategory);
+    }
+
+    public void delete(Long userId, Long id, Long expectedVersion) {
         // todo: add @RestControllerAdvice
-        boolean isCategoryExist = categoryRepository.existsByIdAndUserId(id, userId);
+        userRepository.findForUpdate(userId);
+        Category categoryToDelete = categoryRepository.findByIdAndUserId(id, userId).orElse(null);
 
-        if (isCategoryExist) {
+        if (categoryToDelete != null) {
+            ETags.check(expectedVersion, categoryToDelete.getVersion());
             boolean isNotesExist = noteRepository.existsByCategoryId(id);
             boolean isTasksExist = taskRepository.existsByCategoryId(id);
 
@@ -111,11 +180,32 @@ public class CategoryService {
                 String message = "Category has linked notes and tasks";
                 throw new CategoryInUseException(message);
             }
+            if (closureRepository.existsByAncestorId(id)) {
+                throw new CategoryInUseException("Category has subcategories");
+            }
 
-            categoryRepository.deleteById(id);
+            closureRepository.deleteByDescendantId(id);
+            flush(() -> {
+                categoryRepository.delete(categoryToDelete);
+                categoryRepository.flush();
+                return null;
+            });
+            publish(ChangeEvent.Action.DELETED, id, userId, categoryToDelete.getName());
         } else {
             String message = "Category not exist";
             throw new CategoryNotFoundException(message);
         }
     }
-}
\ No newline at end of file
+
+    private static <T> T flush(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Category was modified");
+        }
+    }
+
+    private void publish(ChangeEvent.Action action, Long id, Long userId, String title) {
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.EntityType.CATEGORY, action, id, userId, title, false));
+    }
+}
@@ -0,0 +1,199 @@
+package com.tracker.Service;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tracker.DTO.ChangeEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process fan-out of {@link ChangeEvent}s to per-user SSE streams.
+ *
+ * Every subscriber owns a bounded buffer; publishing only enqueues, and a small
+ * sender pool drains the buffers, so a slow socket never blocks the request
+ * thread that committed the change. A subscriber whose buffer overflows is
+ * disconnected — the browser's EventSource reconnects and refetches once.
+ * Heartbeats go through the same buffers, which also flushes out dead connections.
+ */
+@Service
+public class ChangeFeedService {
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<Long, Deque<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders;
+
+    @Value("${events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${events.max-streams-per-user:5}")
+    private int maxStreamsPerUser;
+
+    @Value("${events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public ChangeFeedService(@Value("${events.sender-threads:4}") int senderThreads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMs), bufferSize);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+
+        Deque<Subscriber> streams = subscribers.compute(userId, (key, existing) -> {
+            Deque<Subscriber> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.addLast(subscriber);
+            return deque;
+        });
+        connections.incrementAndGet();
+
+        // Лишние вкладки: закрываем самые старые потоки — очередь хранит порядок подписки
+        Iterator<Subscriber> iterator = streams.iterator();
+        while (streams.size() > maxStreamsPerUser && iterator.hasNext()) {
+            Subscriber oldest = iterator.next();
+            if (oldest != subscriber) {
+                close(oldest);
+            }
+        }
+
+        subscriber.offer(HEARTBEAT);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        Deque<Subscriber> streams = subscribers.get(event.getUserId());
+        if (streams == null) {
+            return;
+        }
+        for (Subscriber subscriber : streams) {
+            if (!subscriber.offer(event)) {
+                close(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Deque<Subscriber> streams : subscribers.values()) {
+            for (Subscriber subscriber : streams) {
+                if (!subscriber.offer(HEARTBEAT)) {
+                    close(subscriber);
+                }
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(streams -> streams.forEach(Subscriber::complete));
+        senders.shutdownNow();
+    }
+
+    private void close(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            subscriber.complete();
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        connections.decrementAndGet();
+        subscribers.computeIfPresent(subscriber.userId, (key, streams) -> {
+            streams.remove(subscriber);
+            return streams.isEmpty() ? null : streams;
+        });
+        return true;
+    }
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Object> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter, int capacity) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /** @return {@code false} when the buffer is full, i.e. the consumer is too slow */
+        boolean offer(Object item) {
+            if (closed.get()) {
+                return true;
+            }
+            if (!buffer.offer(item)) {
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                Object item;
+                while (!closed.get() && (item = buffer.poll()) != null) {
+                    if (item == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        ChangeEvent event = (ChangeEvent) item;
+                        emitter.send(SseEmitter.event().name("change").data(event));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(this);
+            } finally {
+                draining.set(false);
+            }
+            // Событие могло прийти между последним poll() и сбросом флага
+            if (!closed.get() && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void complete() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // уже завершён контейнером
+            }
+        }
+    }
+}
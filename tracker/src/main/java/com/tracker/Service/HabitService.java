@@ -1,16 +1,27 @@
 package com.tracker.Service;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.DTO.HabitCompletion;
+import com.tracker.DTO.HabitPatchRequest;
 import com.tracker.DTO.HabitRequest;
 import com.tracker.DTO.HabitResponse;
 import com.tracker.Entity.Habit;
 import com.tracker.Entity.User;
+import com.tracker.Exceptions.PreconditionFailedException;
 import com.tracker.Mapper.HabitMapper;
 import com.tracker.Repository.HabitRepository;
 import com.tracker.Repository.UserRepository;
+import com.tracker.Utils.ETags;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -21,15 +32,21 @@ public class HabitService {
     private final HabitRepository habitRepository;
     private final UserRepository userRepository;
     private final HabitMapper habitMapper;
+    private final ProductivityService productivityService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public HabitService(
         HabitRepository habitRepository,
         UserRepository userRepository,
-        HabitMapper habitMapper
+        HabitMapper habitMapper,
+        ProductivityService productivityService,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.habitRepository = habitRepository;
         this.userRepository = userRepository;
         this.habitMapper = habitMapper;
+        this.productivityService = productivityService;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<HabitResponse> getAllByUserId(Long userId, Pageable pageable) {
@@ -40,31 +57,100 @@ public class HabitService {
     public HabitResponse save(Long userId, HabitRequest habitRequest) {
         Habit habitToSave = habitMapper.toEntity(habitRequest);
 
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new EntityNotFoundException("User not found."));
+        User user = userRepository.getReferenceById(userId);
 
         habitToSave.setUser(user);
 
         Habit savedHabit = habitRepository.save(habitToSave);
+        productivityService.habitChanged(userId, null, doneDate(savedHabit));
+        publish(ChangeEvent.Action.CREATED, savedHabit.getId(), userId, savedHabit.getName());
         return habitMapper.toResponse(savedHabit);
     }
 
-    public HabitResponse update(Long userId, Long habitId, HabitRequest request) {
+    public HabitResponse update(Long userId, Long habitId, HabitRequest request, Long expectedVersion) {
         Habit habitToUpdate = habitRepository.findByIdAndUserId(habitId, userId)
             .orElseThrow(() -> new EntityNotFoundException("Habit not found"));
+        ETags.check(expectedVersion, habitToUpdate.getVersion());
+        LocalDate oldDoneDate = doneDate(habitToUpdate);
 
         habitToUpdate.setName(request.getName());
         habitToUpdate.setDone(request.isDone());
         habitToUpdate.setDate(request.getDate());
 
-        Habit updatedHabit = habitRepository.save(habitToUpdate);
+        Habit updatedHabit = flush(() -> habitRepository.saveAndFlush(habitToUpdate));
+        productivityService.habitChanged(userId, oldDoneDate, doneDate(updatedHabit));
+        publish(ChangeEvent.Action.UPDATED, habitId, userId, updatedHabit.getName());
 
         return habitMapper.toResponse(updatedHabit);
     }
 
-    public void delete(Long userId, Long habitId) {
+    public void patch(Long userId, Long habitId, HabitPatchRequest request, Long expectedVersion) {
+        if (request.getDone() != null || request.getDate() != null) {
+            moveDone(userId, habitId, request);
+        }
+        int updated = habitRepository.patchByIdAndUserId(
+            habitId,
+            userId,
+            request.getName(),
+            request.getDone(),
+            request.getDate(),
+            Instant.now(),
+            expectedVersion
+        );
+
+        if (updated == 0) {
+            if (expectedVersion != null && habitRepository.existsByIdAndUserId(habitId, userId)) {
+                throw new PreconditionFailedException("Habit was modified");
+            }
+            throw new EntityNotFoundException("Habit not found.");
+        }
+
+        publish(ChangeEvent.Action.UPDATED, habitId, userId, request.getName());
+    }
+
+    // Прежнее состояние читаем без блокировки и меняем, только если его никто не успел поменять
+    private void moveDone(Long userId, Long habitId, HabitPatchRequest request) {
+        while (true) {
+            HabitCompletion before = habitRepository.findCompletionById(habitId, userId).orElse(null);
+            if (before == null) {
+                return;
+            }
+            boolean done = request.getDone() != null ? request.getDone() : before.isDone();
+            LocalDate date = request.getDate() != null ? request.getDate() : before.getDate();
+            if (habitRepository.moveDone(habitId, before.isDone(), before.getDate(), done, date) > 0) {
+                productivityService.habitChanged(userId, before.doneDate(), done ? date : null);
+                return;
+            }
+        }
+    }
+
+    public void delete(Long userId, Long habitId, Long expectedVersion) {
         Habit habitToDelete = habitRepository.findByIdAndUserId(habitId, userId)
             .orElseThrow(() -> new EntityNotFoundException("Habit not found."));
-        habitRepository.delete(habitToDelete);       
+        ETags.check(expectedVersion, habitToDelete.getVersion());
+        flush(() -> {
+            habitRepository.delete(habitToDelete);
+            habitRepository.flush();
+            return null;
+        });
+        productivityService.habitChanged(userId, doneDate(habitToDelete), null);
+        publish(ChangeEvent.Action.DELETED, habitId, userId, habitToDelete.getName());
+    }
+
+    // День, в который привычка засчитана; без даты не учитывается
+    private static LocalDate doneDate(Habit habit) {
+        return habit.isDone() ? habit.getDate() : null;
+    }
+
+    private static <T> T flush(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Habit was modified");
+        }
+    }
+
+    private void publish(ChangeEvent.Action action, Long id, Long userId, String title) {
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.EntityType.HABIT, action, id, userId, title, false));
     }
-}
\ No newline at end of file
+}
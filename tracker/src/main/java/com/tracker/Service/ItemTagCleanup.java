@@ -0,0 +1,34 @@
+package com.tracker.Service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.Entity.TaggedType;
+import com.tracker.Repository.ItemTagRepository;
+
+/**
+ * Removes the tags of a deleted task or note inside the deleting transaction,
+ * whichever path deleted it.
+ */
+@Component
+public class ItemTagCleanup {
+    private final ItemTagRepository itemTagRepository;
+
+    public ItemTagCleanup(ItemTagRepository itemTagRepository) {
+        this.itemTagRepository = itemTagRepository;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onChange(ChangeEvent event) {
+        if (event.getAction() != ChangeEvent.Action.DELETED) {
+            return;
+        }
+        if (event.getEntity() == ChangeEvent.EntityType.TASK) {
+            itemTagRepository.deleteByItem(TaggedType.TASK, event.getId());
+        } else if (event.getEntity() == ChangeEvent.EntityType.NOTE) {
+            itemTagRepository.deleteByItem(TaggedType.NOTE, event.getId());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.tracker.Service;
+
+/**
+ * What a {@link JobHandler} sees of the job it is running.
+ */
+public class JobContext {
+    interface ProgressSink {
+        void report(long progress, long total);
+    }
+
+    private final String jobId;
+    private final String payload;
+    private final int attempt;
+    private final ProgressSink progressSink;
+
+    JobContext(String jobId, String payload, int attempt, ProgressSink progressSink) {
+        this.jobId = jobId;
+        this.payload = payload;
+        this.attempt = attempt;
+        this.progressSink = progressSink;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /**
+     * Stores progress and extends the visibility timeout; long jobs should call it regularly.
+     *
+     * @throws IllegalStateException when the job was meanwhile taken over by another worker
+     */
+    public void progress(long progress, long total) {
+        progressSink.report(progress, total);
+    }
+}
@@ -0,0 +1,33 @@
+package com.tracker.Service;
+
+import java.time.Duration;
+
+/**
+ * Work behind one queue of {@link JobQueueService}. A job may run more than once
+ * (retries, or a worker that died after its visibility timeout), so handlers must be idempotent.
+ */
+public interface JobHandler {
+    String queue();
+
+    void handle(JobContext context) throws Exception;
+
+    /** Jobs of this queue running at once in one instance; {@code jobs.<queue>.concurrency} overrides it. */
+    default int concurrency() {
+        return 1;
+    }
+
+    /** How long a claimed job stays invisible to other workers; {@link JobContext#progress} extends it. */
+    default Duration visibilityTimeout() {
+        return Duration.ofMinutes(5);
+    }
+
+    default int maxAttempts() {
+        return 5;
+    }
+
+    /** Delay before attempt {@code attempt + 1}: exponential, capped at ten minutes. */
+    default Duration backoff(int attempt) {
+        long seconds = Math.min(600, 5L << Math.min(attempt - 1, 10));
+        return Duration.ofSeconds(seconds);
+    }
+}
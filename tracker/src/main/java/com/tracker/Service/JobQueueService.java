@@ -0,0 +1,317 @@
+package com.tracker.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.DTO.JobResponse;
+import com.tracker.Entity.JobStatus;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Durable job queue in the {@code job_queue} table of every shard.
+ *
+ * {@link #enqueue} writes through the request's connection, so a job commits or rolls back
+ * together with the change that asked for it. Workers poll each shard and claim due jobs with
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED}: concurrent pollers, also in other instances, never
+ * get the same row and never wait on each other. A claimed job stays invisible until its
+ * visibility timeout expires, so the jobs of a worker that died are picked up again.
+ * Failures are retried with the handler's backoff until {@code maxAttempts}; a semaphore
+ * per queue caps how many jobs of that queue run at once in this instance.
+ */
+@Service
+public class JobQueueService {
+    private static final String INSERT = "insert into job_queue "
+        + "(queue, payload, status, attempts, max_attempts, run_at, progress, total, created_at) "
+        + "values (?, ?, 'PENDING', 0, ?, ?, 0, 0, ?)";
+    private static final String CLAIM = "select id, payload, attempts, max_attempts from job_queue "
+        + "where queue = ? and ((status = 'PENDING' and run_at <= ?) or (status = 'RUNNING' and locked_until < ?)) "
+        + "order by run_at, id limit ? for update skip locked";
+    private static final String SELECT = "select * from job_queue where id = ?";
+    private static final int ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate current;
+    private final ObjectProvider<JobHandler> handlerProvider;
+    private final Environment environment;
+    private final Map<Integer, JdbcTemplate> shards = new HashMap<>();
+    private final Map<Integer, TransactionTemplate> transactions = new HashMap<>();
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final String workerId = UUID.randomUUID().toString();
+    private final ExecutorService workers;
+    private volatile Map<String, JobHandler> handlers;
+
+    @Value("${jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobs.retention-days:7}")
+    private int retentionDays;
+
+    public JobQueueService(
+        DataSource dataSource,
+        ShardRouter shardRouter,
+        ObjectProvider<JobHandler> handlerProvider,
+        Environment environment
+    ) {
+        this.current = new JdbcTemplate(dataSource);
+        this.handlerProvider = handlerProvider;
+        this.environment = environment;
+        for (int shard : shardRouter.getShardIds()) {
+            DataSource shardDataSource = shardRouter.getDataSource(shard);
+            shards.put(shard, new JdbcTemplate(shardDataSource));
+            transactions.put(shard, new TransactionTemplate(new DataSourceTransactionManager(shardDataSource)));
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public String enqueue(String queue, String payload) {
+        return enqueue(queue, payload, Instant.now());
+    }
+
+    /**
+     * Adds a job on the current shard, inside the caller's transaction if there is one.
+     *
+     * @return job id of the form {@code <shard>-<row id>}
+     */
+    public String enqueue(String queue, String payload, Instant runAt) {
+        JobHandler handler = handler(queue);
+        Instant now = Instant.now();
+        KeyHolder keys = new GeneratedKeyHolder();
+        current.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT, new String[] {"id"});
+            statement.setString(1, queue);
+            statement.setString(2, payload);
+            statement.setInt(3, handler.maxAttempts());
+            statement.setTimestamp(4, Timestamp.from(runAt));
+            statement.setTimestamp(5, Timestamp.from(now));
+            return statement;
+        }, keys);
+        return ShardContext.currentOrDefault() + "-" + keys.getKey().longValue();
+    }
+
+    public Optional<JobResponse> find(String jobId) {
+        JobRef ref = JobRef.parse(jobId);
+        if (ref == null || !shards.containsKey(ref.shard)) {
+            return Optional.empty();
+        }
+        return shards.get(ref.shard).query(SELECT, (rs, rowNum) -> {
+            JobResponse response = new JobResponse();
+
+            response.setJobId(jobId);
+            response.setQueue(rs.getString("queue"));
+            response.setPayload(rs.getString("payload"));
+            response.setStatus(JobStatus.valueOf(rs.getString("status")));
+            response.setAttempts(rs.getInt("attempts"));
+            response.setMaxAttempts(rs.getInt("max_attempts"));
+            response.setProgress(rs.getLong("progress"));
+            response.setTotal(rs.getLong("total"));
+            response.setLastError(rs.getString("last_error"));
+            response.setRunAt(toInstant(rs.getTimestamp("run_at")));
+            response.setCreatedAt(toInstant(rs.getTimestamp("created_at")));
+            response.setFinishedAt(toInstant(rs.getTimestamp("finished_at")));
+
+            return response;
+        }, ref.id).stream().findFirst();
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.poll-ms:1000}")
+    public void poll() {
+        if (enabled) {
+            runDue();
+        }
+    }
+
+    /**
+     * Claims as many due jobs as the queues have free slots and starts them.
+     *
+     * @return number of jobs started
+     */
+    public synchronized int runDue() {
+        int started = 0;
+        for (JobHandler handler : handlers().values()) {
+            Semaphore queuePermits = permits(handler);
+            for (int shard : shards.keySet()) {
+                // Семафор захватывается только здесь (метод synchronized), свободных слотов не станет меньше
+                int free = queuePermits.availablePermits();
+                if (free == 0) {
+                    break;
+                }
+                for (Claimed job : claim(shard, handler, free)) {
+                    queuePermits.acquireUninterruptibly();
+                    workers.execute(() -> {
+                        try {
+                            run(shard, handler, job);
+                        } finally {
+                            queuePermits.release();
+                        }
+                    });
+                    started++;
+                }
+            }
+        }
+        return started;
+    }
+
+    @Scheduled(cron = "${jobs.purge-cron:0 0 4 * * *}")
+    public void purgeFinished() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(Duration.ofDays(retentionDays)));
+        for (JdbcTemplate shard : shards.values()) {
+            shard.update("delete from job_queue where status in ('DONE', 'FAILED') and finished_at < ?", cutoff);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Прерванные задачи вернутся в очередь по истечении таймаута видимости
+        workers.shutdownNow();
+    }
+
+    private List<Claimed> claim(int shard, JobHandler handler, int limit) {
+        JdbcTemplate jdbc = shards.get(shard);
+        return transactions.get(shard).execute(status -> {
+            Timestamp now = Timestamp.from(Instant.now());
+            Timestamp lockedUntil = Timestamp.from(Instant.now().plus(handler.visibilityTimeout()));
+            List<Claimed> due = jdbc.query(CLAIM, (rs, rowNum) -> new Claimed(
+                rs.getLong("id"),
+                rs.getString("payload"),
+                rs.getInt("attempts") + 1,
+                rs.getInt("max_attempts")
+            ), handler.queue(), now, now, limit);
+
+            List<Claimed> claimed = new ArrayList<>(due.size());
+            for (Claimed job : due) {
+                if (job.attempt > job.maxAttempts) {
+                    // Воркер умер на последней попытке
+                    jdbc.update("update job_queue set status = 'FAILED', finished_at = ?, locked_until = null, "
+                        + "last_error = coalesce(last_error, 'Visibility timeout expired') where id = ?", now, job.id);
+                    continue;
+                }
+                jdbc.update("update job_queue set status = 'RUNNING', attempts = ?, locked_until = ?, locked_by = ? "
+                    + "where id = ?", job.attempt, lockedUntil, workerId, job.id);
+                claimed.add(job);
+            }
+            return claimed;
+        });
+    }
+
+    private void run(int shard, JobHandler handler, Claimed job) {
+        JdbcTemplate jdbc = shards.get(shard);
+        String jobId = shard + "-" + job.id;
+        JobContext context = new JobContext(jobId, job.payload, job.attempt, (progress, total) -> {
+            Timestamp lockedUntil = Timestamp.from(Instant.now().plus(handler.visibilityTimeout()));
+            int updated = jdbc.update("update job_queue set progress = ?, total = ?, locked_until = ? "
+                + "where id = ? and attempts = ? and status = 'RUNNING'", progress, total, lockedUntil, job.id, job.attempt);
+            if (updated == 0) {
+                throw new IllegalStateException("Job " + jobId + " was taken over by another worker");
+            }
+        });
+
+        try {
+            handler.handle(context);
+            jdbc.update("update job_queue set status = 'DONE', finished_at = ?, locked_until = null, last_error = null "
+                + "where id = ? and attempts = ? and status = 'RUNNING'", Timestamp.from(Instant.now()), job.id, job.attempt);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            fail(jdbc, handler, job, e);
+        }
+    }
+
+    private void fail(JdbcTemplate jdbc, JobHandler handler, Claimed job, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        if (message.length() > ERROR_LENGTH) {
+            message = message.substring(0, ERROR_LENGTH);
+        }
+        Instant now = Instant.now();
+        if (job.attempt >= job.maxAttempts) {
+            jdbc.update("update job_queue set status = 'FAILED', finished_at = ?, locked_until = null, last_error = ? "
+                + "where id = ? and attempts = ? and status = 'RUNNING'", Timestamp.from(now), message, job.id, job.attempt);
+            return;
+        }
+        // Небольшой разброс, чтобы упавшие вместе задачи не возвращались одной пачкой
+        long delayMs = handler.backoff(job.attempt).toMillis();
+        long jitterMs = delayMs > 0 ? ThreadLocalRandom.current().nextLong(delayMs / 5 + 1) : 0;
+        jdbc.update("update job_queue set status = 'PENDING', run_at = ?, locked_until = null, last_error = ? "
+            + "where id = ? and attempts = ? and status = 'RUNNING'",
+            Timestamp.from(now.plusMillis(delayMs + jitterMs)), message, job.id, job.attempt);
+    }
+
+    private JobHandler handler(String queue) {
+        JobHandler handler = handlers().get(queue);
+        if (handler == null) {
+            throw new IllegalArgumentException("Unknown job queue: " + queue);
+        }
+        return handler;
+    }
+
+    // Обработчики сами зависят от очереди, поэтому собираем их при первом обращении
+    private Map<String, JobHandler> handlers() {
+        Map<String, JobHandler> resolved = handlers;
+        if (resolved == null) {
+            resolved = new HashMap<>();
+            for (JobHandler handler : handlerProvider.orderedStream().toList()) {
+                resolved.put(handler.queue(), handler);
+            }
+            handlers = resolved;
+        }
+        return resolved;
+    }
+
+    private Semaphore permits(JobHandler handler) {
+        return permits.computeIfAbsent(handler.queue(), queue -> new Semaphore(
+            environment.getProperty("jobs." + queue + ".concurrency", Integer.class, handler.concurrency())));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    private record Claimed(long id, String payload, int attempt, int maxAttempts) {}
+
+    private record JobRef(int shard, long id) {
+        static JobRef parse(String jobId) {
+            int dash = jobId != null ? jobId.indexOf('-') : -1;
+            if (dash <= 0) {
+                return null;
+            }
+            try {
+                return new JobRef(Integer.parseInt(jobId.substring(0, dash)), Long.parseLong(jobId.substring(dash + 1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
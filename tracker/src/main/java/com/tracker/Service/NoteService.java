@@ -3,20 +3,32 @@ package com.tracker.Service;
 import com.tracker.Entity.Category;
 import com.tracker.Entity.Note;
 import com.tracker.Entity.User;
+import com.tracker.Exceptions.CategoryNotFoundException;
 import com.tracker.Exceptions.NoteNotFoundException;
+import com.tracker.Exceptions.PreconditionFailedException;
 import com.tracker.Repository.CategoryRepository;
+import com.tracker.Repository.NoteAttachmentRepository;
 import com.tracker.Repository.NoteRepository;
 import com.tracker.Repository.UserRepository;
 import com.tracker.Mapper.NoteMapper;
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.DTO.NotePatchRequest;
 import com.tracker.DTO.NoteRequest;
 import com.tracker.DTO.NoteResponse;
+import com.tracker.DTO.NoteSummaryResponse;
+import com.tracker.Utils.ETags;
+import com.tracker.Utils.NoteContentCodec;
 import com.tracker.Utils.SecurityUtils;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.function.Supplier;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
@@ -27,62 +39,105 @@ public class NoteService {
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final NoteMapper noteMapper;
+    private final NoteContentCodec noteContentCodec;
+    private final NoteAttachmentRepository noteAttachmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public NoteService(
         NoteRepository noteRepository, 
         CategoryRepository categoryRepository, 
         UserRepository userRepository,
-        NoteMapper noteMapper
+        NoteMapper noteMapper,
+        NoteContentCodec noteContentCodec,
+        NoteAttachmentRepository noteAttachmentRepository,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.noteRepository = noteRepository;
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
         this.noteMapper = noteMapper;
+        this.noteContentCodec = noteContentCodec;
+        this.noteAttachmentRepository = noteAttachmentRepository;
+        this.eventPublisher = eventPublisher;
     }
 
-    public Page<NoteResponse> getAllByUserId(Long userId, Long categoryId, Pageable pageable) {
-        Page<Note> notes;
+    public Page<NoteSummaryResponse> getAllByUserId(Long userId, Long categoryId, Pageable pageable) {
         if (categoryId != null) {
-            notes = noteRepository.findAllByUserIdAndCategoryId(userId, categoryId, pageable);
-        } else {
-            notes = noteRepository.findAllByUserId(userId, pageable);
+            return noteRepository.findSummariesByUserIdAndCategoryId(userId, categoryId, pageable);
         }
-        
-        return notes.map(noteMapper::toResponse);
+        return noteRepository.findSummariesByUserId(userId, pageable);
+    }
+
+    public NoteResponse getById(Long userId, Long noteId) {
+        Note note = noteRepository.findByIdAndUserId(noteId, userId)
+            .orElseThrow(() -> new NoteNotFoundException("Note not found"));
+
+        return noteMapper.toResponse(note);
     }
 
     public NoteResponse save(Long userId, NoteRequest request) {
         Note noteToSave = noteMapper.toEntity(request);
         
-        Category category = categoryRepository.findById(request.getCategoryId())
-            .orElseThrow(() -> new EntityNotFoundException("Category not found."));
-        noteToSave.setCategory(category);
+        noteToSave.setCategory(findOwnedCategory(userId, request.getCategoryId()));
 
-        User user = userRepository.findById(userId)
-        .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        User user = userRepository.getReferenceById(userId);
         noteToSave.setUser(user);
 
         Note savedNote = noteRepository.save(noteToSave);
+        publish(ChangeEvent.Action.CREATED, savedNote.getId(), userId, savedNote.getTitle());
         return noteMapper.toResponse(savedNote);
     }
 
-    public NoteResponse update(Long userId, Long noteId, NoteRequest request) {
+    public NoteResponse update(Long userId, Long noteId, NoteRequest request, Long expectedVersion) {
         Note noteToUpdate = noteRepository.findByIdAndUserId(noteId, userId)
             .orElseThrow(() -> new EntityNotFoundException("Note not found"));
+        ETags.check(expectedVersion, noteToUpdate.getVersion());
 
         noteToUpdate.setTitle(request.getTitle());
-        noteToUpdate.setContent(request.getContent());
+        noteContentCodec.write(noteToUpdate, request.getContent());
 
-        Category category = categoryRepository.findById(request.getCategoryId())
-            .orElseThrow(() -> new EntityNotFoundException("Category not found."));
-        noteToUpdate.setCategory(category);
+        noteToUpdate.setCategory(findOwnedCategory(userId, request.getCategoryId()));
 
-        Note updatedNote = noteRepository.save(noteToUpdate);
+        Note updatedNote = flush(() -> noteRepository.saveAndFlush(noteToUpdate));
+        publish(ChangeEvent.Action.UPDATED, noteId, userId, updatedNote.getTitle());
 
         return noteMapper.toResponse(updatedNote);
     }
 
-    public void delete(Long userId, Long noteId) {
+    private Category findOwnedCategory(Long userId, Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return categoryRepository.findByIdAndUserId(categoryId, userId)
+            .orElseThrow(() -> new CategoryNotFoundException("Category not found"));
+    }
+
+    public void patch(Long userId, Long noteId, NotePatchRequest request, Long expectedVersion) {
+        String content = request.getContent();
+        boolean compress = noteContentCodec.shouldCompress(content);
+
+        int updated = noteRepository.patchByIdAndUserId(
+            noteId,
+            userId,
+            request.getTitle(),
+            content != null,
+            compress ? null : content,
+            compress ? noteContentCodec.compress(content) : null,
+            content != null ? noteContentCodec.summarize(content) : null,
+            Instant.now(),
+            expectedVersion
+        );
+
+        if (updated == 0) {
+            if (expectedVersion != null && noteRepository.existsByIdAndUserId(noteId, userId)) {
+                throw new PreconditionFailedException("Note was modified");
+            }
+            throw new NoteNotFoundException("Note not found");
+        }
+        publish(ChangeEvent.Action.UPDATED, noteId, userId, request.getTitle());
+    }
+
+    public void delete(Long userId, Long noteId, Long expectedVersion) {
         // boolean isNoteExist = noteRepository.existsByIdAndUserId(noteId, userId);
 
         // if (isNoteExist) {
@@ -93,6 +148,26 @@ public class NoteService {
         // }
         Note noteToDelete = noteRepository.findByIdAndUserId(noteId, userId)
             .orElseThrow(() -> new EntityNotFoundException("Note not found/"));
-        noteRepository.delete(noteToDelete);
-    }   
+        ETags.check(expectedVersion, noteToDelete.getVersion());
+        // Файлы на диске не трогаем — их убирает сборщик вложений
+        noteAttachmentRepository.deleteByNoteId(noteId);
+        flush(() -> {
+            noteRepository.delete(noteToDelete);
+            noteRepository.flush();
+            return null;
+        });
+        publish(ChangeEvent.Action.DELETED, noteId, userId, noteToDelete.getTitle());
+    }
+
+    private static <T> T flush(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Note was modified");
+        }
+    }
+
+    private void publish(ChangeEvent.Action action, Long id, Long userId, String title) {
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.EntityType.NOTE, action, id, userId, title, false));
+    }
 }
@@ -0,0 +1,64 @@
+package com.tracker.Service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.Entity.Note;
+import com.tracker.Repository.NoteRepository;
+import com.tracker.Utils.NoteContentCodec;
+
+/**
+ * Fills {@code summary} for notes written before the column existed,
+ * in small batches so startup never holds one long transaction.
+ */
+@Component
+public class NoteSummaryBackfill {
+    private final NoteRepository noteRepository;
+    private final NoteContentCodec noteContentCodec;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${notes.backfill-batch-size:500}")
+    private int batchSize;
+
+    public NoteSummaryBackfill(
+        NoteRepository noteRepository,
+        NoteContentCodec noteContentCodec,
+        ShardRouter shardRouter,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.noteRepository = noteRepository;
+        this.noteContentCodec = noteContentCodec;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (int shard : shardRouter.getShardIds()) {
+            ShardContext.runOn(shard, this::backfillShard);
+        }
+    }
+
+    private void backfillShard() {
+        Integer processed;
+        do {
+            processed = transactionTemplate.execute(status -> {
+                List<Note> notes = noteRepository.findWithoutSummary(PageRequest.of(0, batchSize));
+                for (Note note : notes) {
+                    // Заодно сжимаем старые длинные тексты
+                    noteContentCodec.write(note, noteContentCodec.read(note));
+                }
+                return notes.size();
+            });
+        } while (processed != null && processed == batchSize);
+    }
+}
@@ -0,0 +1,47 @@
+package com.tracker.Service;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.tracker.DTO.NotificationResponse;
+import com.tracker.Exceptions.NotificationNotFoundException;
+import com.tracker.Mapper.NotificationMapper;
+import com.tracker.Repository.NotificationRepository;
+
+import jakarta.transaction.Transactional;
+
+@Service
+@Transactional
+public class NotificationService {
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+
+    public NotificationService(
+        NotificationRepository notificationRepository,
+        NotificationMapper notificationMapper
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+    }
+
+    public Page<NotificationResponse> getAllByUserId(Long userId, boolean unreadOnly, Pageable pageable) {
+        if (unreadOnly) {
+            return notificationRepository.findAllByUserIdAndReadAtIsNullOrderByIdDesc(userId, pageable)
+                .map(notificationMapper::toResponse);
+        }
+        return notificationRepository.findAllByUserIdOrderByIdDesc(userId, pageable)
+            .map(notificationMapper::toResponse);
+    }
+
+    public void markRead(Long userId, Long notificationId) {
+        int updated = notificationRepository.markRead(notificationId, userId, Instant.now());
+
+        // 0 строк — либо чужое/несуществующее, либо уже прочитано
+        if (updated == 0 && !notificationRepository.existsByIdAndUserId(notificationId, userId)) {
+            throw new NotificationNotFoundException("Notification not found");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.tracker.Service;
+
+import java.time.Instant;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.Entity.MaintenanceMarker;
+import com.tracker.Repository.HabitRepository;
+import com.tracker.Repository.MaintenanceMarkerRepository;
+import com.tracker.Repository.TaskRepository;
+
+/**
+ * Builds the productivity rollups for data written before they existed: stamps
+ * {@code completedAt} on old completed tasks and rebuilds the rollups user by user,
+ * one short transaction per user. The last rebuilt user id is kept in a
+ * {@link MaintenanceMarker} on each shard, so a restart continues where it stopped
+ * and a finished shard is not scanned again.
+ */
+@Component
+public class ProductivityRollupBackfill {
+    private static final String MARKER = "productivity-rollup-backfill";
+    private static final String DONE = "done";
+
+    private final TaskRepository taskRepository;
+    private final HabitRepository habitRepository;
+    private final MaintenanceMarkerRepository markerRepository;
+    private final ProductivityService productivityService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    public ProductivityRollupBackfill(
+        TaskRepository taskRepository,
+        HabitRepository habitRepository,
+        MaintenanceMarkerRepository markerRepository,
+        ProductivityService productivityService,
+        ShardRouter shardRouter,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.taskRepository = taskRepository;
+        this.habitRepository = habitRepository;
+        this.markerRepository = markerRepository;
+        this.productivityService = productivityService;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        for (int shard : shardRouter.getShardIds()) {
+            ShardContext.runOn(shard, this::backfillShard);
+        }
+    }
+
+    private void backfillShard() {
+        String progress = transactionTemplate.execute(status -> markerRepository.findById(MARKER)
+            .map(MaintenanceMarker::getValue)
+            .orElse("0"));
+        if (DONE.equals(progress)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> taskRepository.backfillCompletedAt(Instant.now()));
+
+        long after = Long.parseLong(progress);
+        SortedSet<Long> userIds = transactionTemplate.execute(status -> {
+            SortedSet<Long> ids = new TreeSet<>(taskRepository.findUserIdsWithCompletions());
+            ids.addAll(habitRepository.findUserIdsWithDoneHabits());
+            return ids.tailSet(after + 1);
+        });
+        for (Long userId : userIds) {
+            if (shardRouter.placementOf(userId).readOnly()) {
+                // Пользователь переезжает — продолжим с него при следующем запуске
+                return;
+            }
+            // Пересчёт и отметка о нём — в одной транзакции
+            transactionTemplate.executeWithoutResult(status -> {
+                productivityService.rebuild(userId);
+                markerRepository.save(new MaintenanceMarker(MARKER, userId.toString()));
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> markerRepository.save(new MaintenanceMarker(MARKER, DONE)));
+    }
+}
@@ -0,0 +1,190 @@
+package com.tracker.Service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.tracker.DTO.CompletionPoint;
+import com.tracker.DTO.TaskCompletion;
+import com.tracker.Entity.ProductivityRollup;
+import com.tracker.Exceptions.InvalidFieldsException;
+import com.tracker.Repository.HabitRepository;
+import com.tracker.Repository.ProductivityRollupRepository;
+import com.tracker.Repository.TaskRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Daily per-user, per-category counters of completed tasks and habits.
+ *
+ * {@code TaskService} and {@code HabitService} report every transition into or out of
+ * the completed state, so a rollup row always equals the aggregate over the current
+ * rows: a task counts on the day of {@code completedAt}, a habit on its {@code date}.
+ * Counters are changed with conditional statements only, never after a locking read.
+ * Series are read from the rollups only, so the cost depends on the requested range
+ * and not on how many tasks the user has.
+ */
+@Service
+@Transactional
+public class ProductivityService {
+    public enum Granularity { DAY, WEEK, MONTH }
+
+    private final ProductivityRollupRepository rollupRepository;
+    private final TaskRepository taskRepository;
+    private final HabitRepository habitRepository;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    @Value("${stats.max-days:3660}")
+    private long maxDays;
+
+    public ProductivityService(
+        ProductivityRollupRepository rollupRepository,
+        TaskRepository taskRepository,
+        HabitRepository habitRepository
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.taskRepository = taskRepository;
+        this.habitRepository = habitRepository;
+    }
+
+    /**
+     * Moves one task between (day, category) buckets; a {@code null} completion time means "not completed".
+     */
+    public void taskChanged(Long userId, Long oldCategoryId, Instant oldCompletedAt, Long newCategoryId, Instant newCompletedAt) {
+        LocalDate oldDate = toDate(oldCompletedAt);
+        LocalDate newDate = toDate(newCompletedAt);
+        long oldKey = categoryKey(oldCategoryId);
+        long newKey = categoryKey(newCategoryId);
+        if (Objects.equals(oldDate, newDate) && oldKey == newKey) {
+            return;
+        }
+        if (oldDate != null) {
+            add(userId, oldDate, oldKey, -1, 0);
+        }
+        if (newDate != null) {
+            add(userId, newDate, newKey, 1, 0);
+        }
+    }
+
+    /**
+     * Counts a task that the caller's UPDATE has just stamped with {@code completedAt}. That
+     * UPDATE keeps the time of a task completed earlier, so such a task matches nothing here.
+     *
+     * @return whether the task was counted, i.e. this UPDATE completed it
+     */
+    public boolean taskCompleted(Long taskId, Instant completedAt) {
+        LocalDate date = toDate(completedAt);
+        if (rollupRepository.incrementForCompletedTask(taskId, completedAt, date) > 0
+            || rollupRepository.insertForCompletedTask(taskId, completedAt, date) > 0) {
+            return true;
+        }
+        // Строку дня только что вставила параллельная транзакция
+        return rollupRepository.incrementForCompletedTask(taskId, completedAt, date) > 0;
+    }
+
+    /**
+     * Same for a habit; {@code null} means the habit is not done or has no date.
+     */
+    public void habitChanged(Long userId, LocalDate oldDate, LocalDate newDate) {
+        if (Objects.equals(oldDate, newDate)) {
+            return;
+        }
+        if (oldDate != null) {
+            add(userId, oldDate, ProductivityRollup.NO_CATEGORY, 0, -1);
+        }
+        if (newDate != null) {
+            add(userId, newDate, ProductivityRollup.NO_CATEGORY, 0, 1);
+        }
+    }
+
+    /**
+     * Recomputes all rollup rows of one user from the tasks and habits themselves.
+     */
+    public void rebuild(Long userId) {
+        Map<LocalDate, Map<Long, long[]>> counts = new HashMap<>();
+        for (TaskCompletion completion : taskRepository.findCompletionsByUserId(userId)) {
+            counts.computeIfAbsent(toDate(completion.getCompletedAt()), key -> new HashMap<>())
+                .computeIfAbsent(categoryKey(completion.getCategoryId()), key -> new long[2])[0]++;
+        }
+        for (LocalDate date : habitRepository.findDoneDatesByUserId(userId)) {
+            counts.computeIfAbsent(date, key -> new HashMap<>())
+                .computeIfAbsent(ProductivityRollup.NO_CATEGORY, key -> new long[2])[1]++;
+        }
+
+        rollupRepository.bulkDeleteByUserId(userId);
+        counts.forEach((date, byCategory) -> byCategory.forEach((categoryId, values) ->
+            rollupRepository.insert(userId, date, categoryId, values[0], values[1])));
+    }
+
+    /**
+     * Completions per period in {@code [from, to]}, one point per period including empty ones.
+     * Weeks start on Monday; the first point starts on the period containing {@code from}.
+     */
+    public List<CompletionPoint> getCompletions(Long userId, Granularity granularity, LocalDate from, LocalDate to, Long categoryId) {
+        if (from.isAfter(to)) {
+            throw new InvalidFieldsException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new InvalidFieldsException("Range is limited to " + maxDays + " days");
+        }
+
+        Map<LocalDate, long[]> periods = new LinkedHashMap<>();
+        for (LocalDate start = periodStart(from, granularity); !start.isAfter(to); start = next(start, granularity)) {
+            periods.put(start, new long[2]);
+        }
+        for (CompletionPoint day : rollupRepository.sumByDate(userId, from, to, categoryId)) {
+            long[] values = periods.get(periodStart(day.getPeriodStart(), granularity));
+            values[0] += day.getTasksCompleted();
+            values[1] += day.getHabitsCompleted();
+        }
+
+        List<CompletionPoint> result = new ArrayList<>(periods.size());
+        periods.forEach((start, values) -> result.add(new CompletionPoint(start, values[0], values[1])));
+        return result;
+    }
+
+    // Сначала UPDATE, при отсутствии строки — INSERT; если строку успела вставить параллельная
+    // транзакция, INSERT ничего не делает и повторный UPDATE её находит
+    private void add(Long userId, LocalDate date, long categoryId, long tasks, long habits) {
+        if (rollupRepository.increment(userId, date, categoryId, tasks, habits) == 0
+            && rollupRepository.insertIfAbsent(userId, date, categoryId, tasks, habits) == 0) {
+            rollupRepository.increment(userId, date, categoryId, tasks, habits);
+        }
+    }
+
+    private LocalDate toDate(Instant instant) {
+        return instant != null ? LocalDate.ofInstant(instant, zone) : null;
+    }
+
+    private static long categoryKey(Long categoryId) {
+        return categoryId != null ? categoryId : ProductivityRollup.NO_CATEGORY;
+    }
+
+    private static LocalDate periodStart(LocalDate date, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate next(LocalDate start, Granularity granularity) {
+        return switch (granularity) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,94 @@
+package com.tracker.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.tracker.DTO.RateLimitStats;
+import com.tracker.Utils.TokenBucketLimiter;
+
+/**
+ * Per-user request budget shared by all {@code /api/**} routes.
+ * Reads cost one token, writes cost {@code rate-limit.write-cost}; a batch pays
+ * for each of its operations (see {@link #acquireExtraWrites}).
+ */
+@Service
+public class RateLimitService {
+    private final TokenBucketLimiter limiter;
+    private final boolean enabled;
+    private final int writeCost;
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public RateLimitService(
+        @Value("${rate-limit.enabled:true}") boolean enabled,
+        @Value("${rate-limit.stripes:65536}") int stripes,
+        @Value("${rate-limit.burst:60}") int burst,
+        @Value("${rate-limit.requests-per-second:20}") int requestsPerSecond,
+        @Value("${rate-limit.write-cost:2}") int writeCost
+    ) {
+        this.limiter = new TokenBucketLimiter(stripes, burst, requestsPerSecond);
+        this.enabled = enabled;
+        this.writeCost = writeCost;
+    }
+
+    /**
+     * @return {@code 0} if the request may proceed, otherwise the suggested wait in milliseconds
+     */
+    public long acquire(Long userId, String group, boolean write) {
+        long waitMs = limiter.tryAcquire(userId, write ? writeCost : 1);
+
+        Counters groupCounters = counters.computeIfAbsent(group, key -> new Counters());
+        if (waitMs == 0) {
+            groupCounters.allowed.increment();
+        } else {
+            groupCounters.limited.increment();
+        }
+        return waitMs;
+    }
+
+    /**
+     * Charges writes on top of the one {@code RateLimitFilter} already took for this request.
+     * Like any single charge it is capped at the bucket size, so the largest batch still
+     * fits into a full bucket but empties it. A rejected request moves from allowed to limited.
+     *
+     * @return {@code 0} if the request may proceed, otherwise the suggested wait in milliseconds
+     */
+    public long acquireExtraWrites(Long userId, String group, int writes) {
+        if (!enabled || writes <= 0) {
+            return 0;
+        }
+        long waitMs = limiter.tryAcquire(userId, writes * writeCost);
+        if (waitMs > 0) {
+            Counters groupCounters = counters.computeIfAbsent(group, key -> new Counters());
+            groupCounters.allowed.decrement();
+            groupCounters.limited.increment();
+        }
+        return waitMs;
+    }
+
+    /** Value of the {@code Retry-After} header for a wait, in whole seconds. */
+    public static long retryAfterSeconds(long waitMs) {
+        return Math.max(1, (waitMs + 999) / 1000);
+    }
+
+    public List<RateLimitStats> getStats() {
+        return counters.entrySet().stream()
+            .map(entry -> new RateLimitStats(
+                entry.getKey(),
+                entry.getValue().allowed.sum(),
+                entry.getValue().limited.sum()
+            ))
+            .sorted((a, b) -> a.getGroup().compareTo(b.getGroup()))
+            .collect(Collectors.toList());
+    }
+
+    private static final class Counters {
+        final LongAdder allowed = new LongAdder();
+        final LongAdder limited = new LongAdder();
+    }
+}
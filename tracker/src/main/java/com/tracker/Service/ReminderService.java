@@ -0,0 +1,342 @@
+package com.tracker.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.DTO.DueTask;
+import com.tracker.Entity.Notification;
+import com.tracker.Entity.NotificationType;
+import com.tracker.Entity.Task;
+import com.tracker.Repository.NotificationRepository;
+import com.tracker.Repository.TaskRepository;
+import com.tracker.Utils.HashedTimingWheel;
+import com.tracker.Utils.RecurrenceExpander;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Turns task due dates into in-app notifications.
+ *
+ * Only the next {@code reminders.horizon-minutes} are kept in memory: a loader walks
+ * that window of the due-date index in keyset batches and hands reminders to a
+ * {@link HashedTimingWheel}, and the wheel is advanced once per tick. Task changes are
+ * applied incrementally from {@link ChangeEvent}s, so the table is never rescanned.
+ * Each task gets an UPCOMING reminder {@code reminders.lead-minutes} before it is due
+ * and an OVERDUE one when the due date passes. A recurring task keeps one occurrence
+ * in the wheel at a time: the next one is scheduled when the current one becomes overdue,
+ * and the loader picks up series that started before its window; occurrences stored as
+ * their own rows are reminded through those rows. With sharding on, the loader walks
+ * every shard, and a due reminder fires on the shard its owner lives on at that moment;
+ * while the owner is fenced for a move it is put back for a few seconds.
+ */
+@Service
+public class ReminderService {
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final long FENCED_RETRY_MS = 5000;
+
+    private final TaskRepository taskRepository;
+    private final NotificationRepository notificationRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimingWheel<Reminder> wheel;
+    private final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reminders.lead-minutes:15}")
+    private long leadMinutes;
+
+    @Value("${reminders.horizon-minutes:60}")
+    private long horizonMinutes;
+
+    @Value("${reminders.batch-size:1000}")
+    private int batchSize;
+
+    // Задачи со сроком до этого момента уже загружены в колесо
+    private volatile LocalDateTime loadedUntil;
+
+    public ReminderService(
+        TaskRepository taskRepository,
+        NotificationRepository notificationRepository,
+        ShardRouter shardRouter,
+        PlatformTransactionManager transactionManager,
+        @Value("${reminders.tick-ms:1000}") long tickMs,
+        @Value("${reminders.wheel-size:4096}") int wheelSize
+    ) {
+        this.taskRepository = taskRepository;
+        this.notificationRepository = notificationRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new HashedTimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.load-interval-ms:300000}")
+    public void loadUpcoming() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime from = loadedUntil != null ? loadedUntil : LocalDateTime.now();
+        LocalDateTime to = LocalDateTime.now().plusMinutes(horizonMinutes);
+        if (!to.isAfter(from)) {
+            return;
+        }
+
+        for (int shard : shardRouter.getShardIds()) {
+            ShardContext.runOn(shard, () -> loadWindow(from, to));
+        }
+        loadedUntil = to;
+    }
+
+    @Scheduled(fixedDelayString = "${reminders.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        List<Reminder> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<Long, ShardRouter.Placement> placements = shardRouter.placementsOf(
+            due.stream().map(reminder -> reminder.userId).collect(Collectors.toSet()));
+        Map<Integer, List<Reminder>> byShard = new HashMap<>();
+        long retryAt = System.currentTimeMillis() + FENCED_RETRY_MS;
+        for (Reminder reminder : due) {
+            ShardRouter.Placement placement = placements.get(reminder.userId);
+            if (placement.readOnly()) {
+                // Задачи пользователя переезжают — напомним чуть позже, уже с нового шарда
+                wheel.schedule(key(reminder.taskId, reminder.type), retryAt, reminder);
+            } else {
+                byShard.computeIfAbsent(placement.shard(), shard -> new ArrayList<>()).add(reminder);
+            }
+        }
+        byShard.forEach((shard, reminders) -> ShardContext.runOn(shard, () -> fire(reminders)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        if (!enabled || event.getEntity() != ChangeEvent.EntityType.TASK) {
+            return;
+        }
+        Long taskId = event.getId();
+        if (event.getAction() == ChangeEvent.Action.DELETED) {
+            cancel(taskId);
+            return;
+        }
+        // Перечитываем задачу вне потока запроса; один поток сохраняет порядок изменений
+        int shard = ShardContext.currentOrDefault();
+        syncExecutor.execute(() -> ShardContext.runOn(shard, () -> refresh(taskId)));
+    }
+
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        syncExecutor.shutdownNow();
+    }
+
+    private void loadWindow(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime afterDue = from;
+        Long afterId = Long.MAX_VALUE;
+        List<DueTask> batch;
+        do {
+            batch = taskRepository.findDueBatch(afterDue, afterId, to, PageRequest.of(0, batchSize));
+            for (DueTask task : batch) {
+                schedule(task, task.getDueDate());
+            }
+            if (!batch.isEmpty()) {
+                DueTask last = batch.get(batch.size() - 1);
+                afterDue = last.getDueDate();
+                afterId = last.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        Long afterSeriesId = Long.MIN_VALUE;
+        do {
+            batch = taskRepository.findSeriesBatch(from, afterSeriesId, PageRequest.of(0, batchSize));
+            for (DueTask series : batch) {
+                scheduleNext(series, from, to);
+            }
+            if (!batch.isEmpty()) {
+                afterSeriesId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void fire(List<Reminder> due) {
+        // Колесо могло отстать от базы — перепроверяем задачи одним запросом
+        Map<Long, DueTask> current = taskRepository.findDueTasksByIds(
+                due.stream().map(reminder -> reminder.taskId).distinct().collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.toMap(DueTask::getId, Function.identity()));
+        Map<Long, Set<LocalDateTime>> stored = storedOccurrences(due, current);
+
+        List<Notification> notifications = new ArrayList<>();
+        for (Reminder reminder : due) {
+            DueTask task = current.get(reminder.taskId);
+            if (task == null) {
+                continue;
+            }
+            if (task.isRecurring() && reminder.type == NotificationType.OVERDUE && loadedUntil != null) {
+                scheduleNext(task, reminder.dueDate.plusNanos(1), loadedUntil);
+            }
+            if (!isDue(task, reminder, stored.getOrDefault(task.getId(), Set.of()))) {
+                continue;
+            }
+            notifications.add(new Notification(task.getUserId(), task.getId(), reminder.type,
+                message(reminder.type, task.getTask(), reminder.dueDate)));
+        }
+        if (!notifications.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> notificationRepository.saveAll(notifications));
+        }
+    }
+
+    private void refresh(Long taskId) {
+        cancel(taskId);
+        List<DueTask> found = taskRepository.findDueTasksByIds(List.of(taskId));
+        if (found.isEmpty()) {
+            return;
+        }
+        DueTask task = found.get(0);
+        LocalDateTime horizon = loadedUntil;
+        if (task.getDueDate() == null || horizon == null) {
+            return;
+        }
+        if (task.isRecurring()) {
+            scheduleNext(task, LocalDateTime.now(), horizon);
+            return;
+        }
+        if (task.isCompleted() || task.getDueDate().isAfter(horizon)) {
+            // Дальние сроки подхватит очередной проход загрузчика
+            return;
+        }
+        schedule(task, task.getDueDate());
+    }
+
+    /** Schedules the first occurrence of the series in {@code [from, to)}, if any. */
+    private void scheduleNext(DueTask series, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> next = RecurrenceExpander.expand(series.getDueDate(), series.getRecurrenceFrequency(),
+            interval(series), series.getRecurrenceUntil(), from, to, 1);
+        if (!next.isEmpty()) {
+            schedule(series, next.get(0));
+        }
+    }
+
+    private void schedule(DueTask task, LocalDateTime dueDate) {
+        long now = System.currentTimeMillis();
+        long dueMs = toEpochMilli(dueDate);
+        long upcomingMs = dueMs - leadMinutes * 60_000;
+
+        // Прошедшие напоминания не досылаем — иначе каждая правка просроченной задачи дала бы новое
+        if (upcomingMs > now) {
+            wheel.schedule(key(task.getId(), NotificationType.UPCOMING), upcomingMs,
+                new Reminder(task.getUserId(), task.getId(), dueDate, NotificationType.UPCOMING));
+        }
+        if (dueMs > now) {
+            wheel.schedule(key(task.getId(), NotificationType.OVERDUE), dueMs,
+                new Reminder(task.getUserId(), task.getId(), dueDate, NotificationType.OVERDUE));
+        }
+    }
+
+    // Первое вхождение серии — сама её строка; остальные не должны быть вынесены в свои строки
+    private static boolean isDue(DueTask task, Reminder reminder, Set<LocalDateTime> stored) {
+        if (Objects.equals(task.getDueDate(), reminder.dueDate)) {
+            return !task.isCompleted() && !stored.contains(reminder.dueDate);
+        }
+        return task.isRecurring()
+            && !stored.contains(reminder.dueDate)
+            && RecurrenceExpander.isOccurrence(task.getDueDate(), task.getRecurrenceFrequency(), interval(task),
+                task.getRecurrenceUntil(), reminder.dueDate);
+    }
+
+    /** Occurrence dates of the due series that have their own rows, one query for the whole tick. */
+    private Map<Long, Set<LocalDateTime>> storedOccurrences(List<Reminder> due, Map<Long, DueTask> current) {
+        List<Long> seriesIds = current.values().stream()
+            .filter(DueTask::isRecurring)
+            .map(DueTask::getId)
+            .collect(Collectors.toList());
+        if (seriesIds.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime from = due.stream().map(reminder -> reminder.dueDate).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = due.stream().map(reminder -> reminder.dueDate).max(LocalDateTime::compareTo).orElseThrow();
+        Map<Long, Set<LocalDateTime>> stored = new HashMap<>();
+        for (Task override : taskRepository.findOverridesInWindow(seriesIds, from, to.plusNanos(1))) {
+            stored.computeIfAbsent(override.getRecurrenceParentId(), key -> new HashSet<>())
+                .add(override.getOccurrenceDate());
+        }
+        return stored;
+    }
+
+    private static int interval(DueTask series) {
+        return series.getRecurrenceInterval() != null ? series.getRecurrenceInterval() : 1;
+    }
+
+    private void cancel(Long taskId) {
+        wheel.cancel(key(taskId, NotificationType.UPCOMING));
+        wheel.cancel(key(taskId, NotificationType.OVERDUE));
+    }
+
+    private static long key(Long taskId, NotificationType type) {
+        return taskId << 1 | type.ordinal();
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Длинное название укорачиваем: одно переполнение колонки откатило бы все уведомления тика
+    private static String message(NotificationType type, String task, LocalDateTime dueDate) {
+        String suffix = type == NotificationType.UPCOMING
+            ? "\" is due at " + dueDate.format(TIME)
+            : "\" is overdue";
+        String title = task != null ? task : "";
+        int room = Notification.MESSAGE_LENGTH - "Task \"".length() - suffix.length();
+        if (title.length() > room) {
+            title = title.substring(0, room - 1) + "…";
+        }
+        return "Task \"" + title + suffix;
+    }
+
+    private static final class Reminder {
+        final Long userId;
+        final Long taskId;
+        final LocalDateTime dueDate;
+        final NotificationType type;
+
+        Reminder(Long userId, Long taskId, LocalDateTime dueDate, NotificationType type) {
+            this.userId = userId;
+            this.taskId = taskId;
+            this.dueDate = dueDate;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.tracker.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.tracker.Config.ShardingProperties;
+import com.tracker.DTO.ShardMigrationResponse;
+import com.tracker.DTO.UserCreatedEvent;
+
+/**
+ * Moves a user's rows from one shard to another.
+ *
+ * The user is first fenced in {@code shard_assignment}: request writes get 503 (see
+ * {@code ShardRoutingFilter}) and background writers hold off, on every instance. After
+ * {@code sharding.fence-grace-ms} for writes already in flight, rows are copied with their
+ * ids in foreign-key order inside one transaction on the target. The source rows are then
+ * locked, checked against what was copied and deleted in one transaction, and the new
+ * home is recorded before that transaction commits. If anything changed on the source
+ * after the copy, the move is abandoned: the copy is removed and the user stays put.
+ */
+@Service
+public class ShardMigrationService {
+    private static final int BATCH_SIZE = 1000;
+
+    /** Tables holding per-user rows, parents before children; {@code users} rows are keyed by id. */
+    public static final List<ShardTable> TABLES = List.of(
+        new ShardTable("users", "id"),
+        new ShardTable("category", "user_id"),
+        new ShardTable("category_closure", "user_id"),
+        new ShardTable("task", "user_id"),
+        new ShardTable("note", "user_id"),
+        new ShardTable("note_attachment", "user_id"),
+        new ShardTable("habit", "user_id"),
+        new ShardTable("tombstone", "user_id"),
+        new ShardTable("notification", "user_id"),
+        new ShardTable("activity_log", "user_id"),
+        new ShardTable("productivity_rollup", "user_id"),
+        new ShardTable("tag", "user_id"),
+        new ShardTable("item_tag", "user_id")
+    );
+
+    public record ShardTable(String name, String ownerColumn) {}
+
+    /** Row count and a digest of every value, in id order. */
+    private record TableSnapshot(long rows, String digest) {}
+
+    private final ShardRouter shardRouter;
+    private final ShardingProperties properties;
+    private final Set<Long> moving = ConcurrentHashMap.newKeySet();
+
+    public ShardMigrationService(ShardRouter shardRouter, ShardingProperties properties) {
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+    }
+
+    public ShardMigrationResponse migrate(Long userId, int targetShard) {
+        if (!shardRouter.isEnabled()) {
+            throw new IllegalStateException("Sharding is disabled");
+        }
+        int sourceShard = shardRouter.placementOf(userId).shard();
+        DataSource target = shardRouter.getDataSource(targetShard);
+        DataSource source = shardRouter.getDataSource(sourceShard);
+        long started = System.currentTimeMillis();
+
+        if (sourceShard == targetShard) {
+            return new ShardMigrationResponse(userId, sourceShard, targetShard, 0, 0);
+        }
+        if (!moving.add(userId)) {
+            throw new IllegalStateException("User " + userId + " is already being moved");
+        }
+
+        boolean switched = false;
+        try {
+            shardRouter.fence(userId, sourceShard);
+            Thread.sleep(properties.getFenceGraceMs());
+
+            Map<String, TableSnapshot> copied;
+            try (Connection from = source.getConnection(); Connection to = target.getConnection()) {
+                from.setAutoCommit(false);
+                to.setAutoCommit(false);
+                try {
+                    copied = copyAll(from, to, userId);
+                    to.commit();
+                } catch (SQLException | RuntimeException e) {
+                    to.rollback();
+                    throw e;
+                } finally {
+                    from.rollback();
+                }
+            }
+
+            try (Connection connection = source.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    verifyAndDelete(connection, userId, sourceShard == 0, copied);
+                    shardRouter.assign(userId, targetShard);
+                    switched = true;
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                // Пользователь уже живёт на новом шарде: сбой коммита оставит лишь лишние копии
+                connection.commit();
+            }
+
+            long rows = copied.values().stream().mapToLong(TableSnapshot::rows).sum();
+            return new ShardMigrationResponse(userId, sourceShard, targetShard, rows,
+                System.currentTimeMillis() - started);
+        } catch (SQLException | RuntimeException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (!switched) {
+                abandon(target, userId, targetShard == 0, sourceShard);
+            }
+            throw new IllegalStateException("Moving user " + userId + " failed", e);
+        } finally {
+            moving.remove(userId);
+        }
+    }
+
+    /**
+     * Copies a freshly registered user's directory row to their home shard,
+     * so rows there can reference it.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        int home = shardRouter.shardFor(event.getUserId());
+        if (home == 0) {
+            return;
+        }
+        try (Connection from = shardRouter.getDataSource(0).getConnection();
+             Connection to = shardRouter.getDataSource(home).getConnection()) {
+            copyTable(from, to, TABLES.get(0), event.getUserId());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Provisioning user " + event.getUserId() + " failed", e);
+        }
+    }
+
+    private Map<String, TableSnapshot> copyAll(Connection from, Connection to, Long userId) throws SQLException {
+        Map<String, TableSnapshot> copied = new HashMap<>();
+        for (ShardTable table : TABLES) {
+            copied.put(table.name(), copyTable(from, to, table, userId));
+        }
+        return copied;
+    }
+
+    private TableSnapshot copyTable(Connection from, Connection to, ShardTable table, Long userId) throws SQLException {
+        if (table.name().equals("users") && exists(to, userId)) {
+            // строка-якорь для внешних ключей уже есть
+            return new TableSnapshot(0, "");
+        }
+
+        long copied = 0;
+        MessageDigest digest = newDigest();
+        try (PreparedStatement select = from.prepareStatement(
+                "select * from " + table.name() + " where " + table.ownerColumn() + " = ? order by id")) {
+            select.setFetchSize(BATCH_SIZE);
+            select.setLong(1, userId);
+            try (ResultSet rows = select.executeQuery()) {
+                ResultSetMetaData meta = rows.getMetaData();
+                int columns = meta.getColumnCount();
+
+                StringBuilder names = new StringBuilder();
+                StringBuilder params = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    names.append(i > 1 ? ", " : "").append(meta.getColumnName(i));
+                    params.append(i > 1 ? ", ?" : "?");
+                }
+
+                try (PreparedStatement insert = to.prepareStatement(
+                        "insert into " + table.name() + " (" + names + ") values (" + params + ")")) {
+                    int batched = 0;
+                    while (rows.next()) {
+                        for (int i = 1; i <= columns; i++) {
+                            insert.setObject(i, rows.getObject(i));
+                        }
+                        update(digest, rows, columns);
+                        insert.addBatch();
+                        copied++;
+                        if (++batched == BATCH_SIZE) {
+                            insert.executeBatch();
+                            batched = 0;
+                        }
+                    }
+                    if (batched > 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+        }
+        return new TableSnapshot(copied, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * Locks the user's source rows, checks them against the copy and deletes them.
+     * Runs in the caller's transaction; throws when a write slipped past the fence.
+     */
+    private void verifyAndDelete(Connection connection, Long userId, boolean keepDirectoryRow,
+                                 Map<String, TableSnapshot> copied) throws SQLException {
+        for (int i = TABLES.size() - 1; i >= 0; i--) {
+            ShardTable table = TABLES.get(i);
+            if (table.name().equals("users")) {
+                if (!keepDirectoryRow) {
+                    delete(connection, table, userId);
+                }
+                continue;
+            }
+            TableSnapshot current = snapshot(connection, table, userId);
+            if (!current.equals(copied.get(table.name())) || delete(connection, table, userId) != current.rows()) {
+                throw new IllegalStateException("Rows of user " + userId + " in " + table.name() + " changed during the move");
+            }
+        }
+    }
+
+    private TableSnapshot snapshot(Connection connection, ShardTable table, Long userId) throws SQLException {
+        long count = 0;
+        MessageDigest digest = newDigest();
+        try (PreparedStatement select = connection.prepareStatement(
+                "select * from " + table.name() + " where " + table.ownerColumn() + " = ? order by id for update")) {
+            select.setFetchSize(BATCH_SIZE);
+            select.setLong(1, userId);
+            try (ResultSet rows = select.executeQuery()) {
+                int columns = rows.getMetaData().getColumnCount();
+                while (rows.next()) {
+                    update(digest, rows, columns);
+                    count++;
+                }
+            }
+        }
+        return new TableSnapshot(count, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    // Переезд не удался: убираем копию и снимаем забор
+    private void abandon(DataSource target, Long userId, boolean keepDirectoryRow, int sourceShard) {
+        try {
+            deleteAll(target, userId, keepDirectoryRow);
+        } catch (SQLException | RuntimeException e) {
+            // Копия без записи в каталоге не видна пользователю; её уберёт повторный переезд
+        }
+        shardRouter.assign(userId, sourceShard);
+    }
+
+    private void deleteAll(DataSource dataSource, Long userId, boolean keepDirectoryRow) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                for (int i = TABLES.size() - 1; i >= 0; i--) {
+                    ShardTable table = TABLES.get(i);
+                    if (keepDirectoryRow && table.name().equals("users")) {
+                        continue;
+                    }
+                    delete(connection, table, userId);
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static int delete(Connection connection, ShardTable table, Long userId) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(
+                "delete from " + table.name() + " where " + table.ownerColumn() + " = ?")) {
+            delete.setLong(1, userId);
+            return delete.executeUpdate();
+        }
+    }
+
+    private static void update(MessageDigest digest, ResultSet row, int columns) throws SQLException {
+        for (int i = 1; i <= columns; i++) {
+            digest.update(String.valueOf(row.getObject(i)).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean exists(Connection connection, Long userId) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement("select 1 from users where id = ?")) {
+            select.setLong(1, userId);
+            try (ResultSet rows = select.executeQuery()) {
+                return rows.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.tracker.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardRoutingDataSource;
+import com.tracker.Config.ShardingProperties;
+
+/**
+ * Maps a user id to its home shard.
+ *
+ * The default mapping is a consistent-hash ring with {@code sharding.virtual-nodes} points
+ * per shard, so adding a shard only remaps about 1/N of the users. Users moved by
+ * {@link ShardMigrationService} are pinned in {@code shard_assignment} on shard 0; the
+ * table is cached here and re-read periodically so other instances see moves too.
+ *
+ * The ring only places users who registered under the current shard layout. When the
+ * layout changes (including the first start with sharding on), every existing user whose
+ * ring shard moved is pinned to where their rows are before any request is served.
+ *
+ * Writes and background writers read the user's {@link Placement} straight from the
+ * directory, so a move or a fence is seen at once on every instance. Reads take it from
+ * a cache kept for {@code sharding.placement-cache-ms}; a move made by another instance
+ * reaches them at most that much later.
+ *
+ * Without sharding there is a single shard 0 and every call is trivial.
+ */
+@Component
+public class ShardRouter {
+    // Диапазон id на шард: строки переносятся между шардами с теми же id
+    public static final long ID_RANGE_PER_SHARD = 1_000_000_000_000L;
+
+    private static final String LAYOUT_MARKER = "shard-layout";
+
+    /** Where the user's rows are, and whether they are fenced for a move. */
+    public record Placement(int shard, boolean readOnly) {}
+
+    private record CachedPlacement(Placement placement, long loadedAt) {}
+
+    private final boolean enabled;
+    private final int virtualNodes;
+    private final Map<Integer, DataSource> shards;
+    private final NavigableMap<Long, Integer> ring;
+    private final Map<Long, Integer> assignments = new ConcurrentHashMap<>();
+    private final Map<Long, CachedPlacement> placements = new ConcurrentHashMap<>();
+    private final long placementCacheMs;
+    private final JdbcTemplate directory;
+    private final NamedParameterJdbcTemplate namedDirectory;
+
+    public ShardRouter(DataSource dataSource, ShardingProperties properties) {
+        if (dataSource instanceof ShardRoutingDataSource routing) {
+            this.enabled = true;
+            this.shards = routing.getShards();
+        } else {
+            this.enabled = false;
+            this.shards = Map.of(0, dataSource);
+        }
+        this.virtualNodes = properties.getVirtualNodes();
+        this.placementCacheMs = properties.getPlacementCacheMs();
+        this.ring = buildRing(shards.keySet(), virtualNodes);
+        this.directory = new JdbcTemplate(shards.get(0));
+        this.namedDirectory = new NamedParameterJdbcTemplate(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<Integer> getShardIds() {
+        return new ArrayList<>(shards.keySet());
+    }
+
+    /** Pool of one shard, bypassing the routing DataSource. */
+    public DataSource getDataSource(int shard) {
+        DataSource dataSource = shards.get(shard);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        return dataSource;
+    }
+
+    public int shardFor(Long userId) {
+        if (!enabled) {
+            return 0;
+        }
+        Integer assigned = assignments.get(userId);
+        return assigned != null ? assigned : ringShardFor(userId);
+    }
+
+    public int ringShardFor(Long userId) {
+        return lookup(ring, userId);
+    }
+
+    /** Reads the user's placement from the directory, bypassing the cache. */
+    public Placement placementOf(Long userId) {
+        if (!enabled) {
+            return new Placement(0, false);
+        }
+        List<Placement> found = directory.query(
+            "select shard, read_only from shard_assignment where user_id = ?",
+            (row, index) -> new Placement(row.getInt(1), row.getBoolean(2)), userId);
+        Placement placement = found.isEmpty() ? new Placement(ringShardFor(userId), false) : found.get(0);
+        cache(userId, found.isEmpty() ? null : placement.shard());
+        placements.put(userId, new CachedPlacement(placement, System.currentTimeMillis()));
+        return placement;
+    }
+
+    /** {@link #placementOf} for reads: answered from the cache while the entry is fresh. */
+    public Placement cachedPlacementOf(Long userId) {
+        if (!enabled) {
+            return new Placement(0, false);
+        }
+        CachedPlacement cached = placements.get(userId);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt() < placementCacheMs) {
+            return cached.placement();
+        }
+        return placementOf(userId);
+    }
+
+    /** {@link #placementOf} for a batch of users, one directory query. */
+    public Map<Long, Placement> placementsOf(Collection<Long> userIds) {
+        Map<Long, Placement> placements = new HashMap<>();
+        if (!enabled) {
+            userIds.forEach(userId -> placements.put(userId, new Placement(0, false)));
+            return placements;
+        }
+        if (!userIds.isEmpty()) {
+            namedDirectory.query("select user_id, shard, read_only from shard_assignment where user_id in (:ids)",
+                new MapSqlParameterSource("ids", userIds),
+                row -> {
+                    placements.put(row.getLong(1), new Placement(row.getInt(2), row.getBoolean(3)));
+                });
+        }
+        for (Long userId : userIds) {
+            Placement assigned = placements.get(userId);
+            cache(userId, assigned != null ? assigned.shard() : null);
+            if (assigned == null) {
+                placements.put(userId, new Placement(ringShardFor(userId), false));
+            }
+        }
+        return placements;
+    }
+
+    public boolean hasAssignment(Long userId) {
+        return assignments.containsKey(userId);
+    }
+
+    /** Pins the user to a shard, or drops the pin when the ring already points there. Lifts any fence. */
+    public synchronized void assign(Long userId, int shard) {
+        if (shard == ringShardFor(userId)) {
+            unassign(userId);
+            return;
+        }
+        upsert(userId, shard, false);
+        assignments.put(userId, shard);
+        placements.put(userId, new CachedPlacement(new Placement(shard, false), System.currentTimeMillis()));
+    }
+
+    /** Keeps the user on {@code shard} but makes their rows read-only for every writer. */
+    public synchronized void fence(Long userId, int shard) {
+        upsert(userId, shard, true);
+        if (shard != ringShardFor(userId)) {
+            assignments.put(userId, shard);
+        }
+        placements.put(userId, new CachedPlacement(new Placement(shard, true), System.currentTimeMillis()));
+    }
+
+    /**
+     * Pins existing users to the shard their rows are on when the shard layout changed
+     * since the last start. Must run before requests are served.
+     */
+    public void pinUsersToCurrentHomes() {
+        if (!enabled) {
+            return;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(shards.get(0)));
+        try {
+            transactionTemplate.executeWithoutResult(status -> pinForLayout(layout(shards.keySet())));
+        } catch (DuplicateKeyException e) {
+            // Параллельно стартовавший экземпляр уже сделал это
+        }
+        refreshAssignments();
+    }
+
+    public synchronized void unassign(Long userId) {
+        directory.update("delete from shard_assignment where user_id = ?", userId);
+        assignments.remove(userId);
+        placements.remove(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${sharding.assignment-refresh-ms:60000}", initialDelayString = "${sharding.assignment-refresh-ms:60000}")
+    public synchronized void refreshAssignments() {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, Integer> loaded = new ConcurrentHashMap<>();
+        directory.query("select user_id, shard from shard_assignment",
+            row -> {
+                loaded.put(row.getLong(1), row.getInt(2));
+            });
+        assignments.keySet().retainAll(loaded.keySet());
+        assignments.putAll(loaded);
+        // Устаревшие записи всё равно перечитаются — не держим их в памяти
+        long now = System.currentTimeMillis();
+        placements.values().removeIf(cached -> now - cached.loadedAt() >= placementCacheMs);
+    }
+
+    private void pinForLayout(String current) {
+        List<String> stored = directory.queryForList(
+            "select value from maintenance_marker where name = ? for update", String.class, LAYOUT_MARKER);
+        if (stored.isEmpty()) {
+            // До включения шардирования все строки лежали в единственной базе — шарде 0
+            directory.update("insert into maintenance_marker (name, value, updated_at) values (?, ?, ?)",
+                LAYOUT_MARKER, "0", Timestamp.from(Instant.now()));
+        }
+        String previous = stored.isEmpty() ? "0" : stored.get(0);
+        if (previous.equals(current)) {
+            return;
+        }
+
+        NavigableMap<Long, Integer> previousRing = buildRing(
+            Arrays.stream(previous.split(",")).map(Integer::valueOf).toList(), virtualNodes);
+        Map<Long, Integer> pinned = new HashMap<>();
+        directory.query("select user_id, shard from shard_assignment", row -> {
+            pinned.put(row.getLong(1), row.getInt(2));
+        });
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> pins = new ArrayList<>();
+        directory.query("select id from users", row -> {
+            long userId = row.getLong(1);
+            int home = lookup(previousRing, userId);
+            if (!pinned.containsKey(userId) && home != ringShardFor(userId)) {
+                pins.add(new Object[] {userId, home, now});
+            }
+        });
+        directory.batchUpdate(
+            "insert into shard_assignment (user_id, shard, read_only, assigned_at) values (?, ?, false, ?)", pins);
+        directory.update("update maintenance_marker set value = ?, updated_at = ? where name = ?",
+            current, now, LAYOUT_MARKER);
+    }
+
+    private void upsert(Long userId, int shard, boolean readOnly) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int updated = directory.update(
+            "update shard_assignment set shard = ?, read_only = ?, assigned_at = ? where user_id = ?",
+            shard, readOnly, now, userId);
+        if (updated == 0) {
+            directory.update(
+                "insert into shard_assignment (user_id, shard, read_only, assigned_at) values (?, ?, ?, ?)",
+                userId, shard, readOnly, now);
+        }
+    }
+
+    private void cache(Long userId, Integer assigned) {
+        if (assigned != null) {
+            assignments.put(userId, assigned);
+        } else {
+            assignments.remove(userId);
+        }
+    }
+
+    private static String layout(Collection<Integer> shardIds) {
+        return shardIds.stream().sorted().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static NavigableMap<Long, Integer> buildRing(Collection<Integer> shardIds, int virtualNodes) {
+        NavigableMap<Long, Integer> ring = new TreeMap<>();
+        for (Integer shard : shardIds) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+        return ring;
+    }
+
+    private static int lookup(NavigableMap<Long, Integer> ring, long userId) {
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(hash(userId));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    private static long hash(long key) {
+        // fmix64 из MurmurHash3
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static long hash(String node) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(node.getBytes(StandardCharsets.UTF_8));
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (digest[i] & 0xff);
+            }
+            return value;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tracker.Service;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.tracker.Config.ShardContext;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate's {@code ddl-auto} only sees shard 0. Any other shard that is still empty
+ * gets the mapped schema exported here at startup, and its identity columns are moved
+ * to the shard's own id range so rows keep their ids when users are moved.
+ *
+ * Schema changes to shards that already have tables are not applied automatically.
+ * Once every shard has a schema, existing users are pinned to where their rows are
+ * if the shard layout changed (see {@link ShardRouter#pinUsersToCurrentHomes}).
+ */
+@Component
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+    private final ShardRouter shardRouter;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ShardSchemaInitializer(ShardRouter shardRouter, EntityManagerFactory entityManagerFactory) {
+        this.shardRouter = shardRouter;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!shardRouter.isEnabled()) {
+            return;
+        }
+        createMissingSchemas();
+        shardRouter.pinUsersToCurrentHomes();
+    }
+
+    private void createMissingSchemas() {
+        for (int shard : shardRouter.getShardIds()) {
+            if (shard == 0) {
+                continue;
+            }
+            DataSource dataSource = shardRouter.getDataSource(shard);
+            if (hasSchema(dataSource)) {
+                continue;
+            }
+            ShardContext.runOn(shard, () -> entityManagerFactory.getSchemaManager().create(true));
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            long firstId = shard * ShardRouter.ID_RANGE_PER_SHARD;
+            for (ShardMigrationService.ShardTable table : ShardMigrationService.TABLES) {
+                jdbcTemplate.execute("alter table " + table.name() + " alter column id restart with " + firstId);
+            }
+        }
+    }
+
+    private static boolean hasSchema(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[] {"users", "USERS"}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[] {"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect shard schema", e);
+        }
+    }
+}
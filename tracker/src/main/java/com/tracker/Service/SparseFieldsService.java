@@ -0,0 +1,219 @@
+package com.tracker.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.tracker.Exceptions.InvalidFieldsException;
+import com.tracker.Utils.NoteContentCodec;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Transactional;
+
+/**
+ * {@code ?fields=id,task,dueDate} on the list endpoints: only the requested columns are
+ * selected and only they end up in the JSON. Field names match the regular responses;
+ * {@code id} is always included. Joins are added only when a joined field is asked for.
+ */
+@Service
+@Transactional
+public class SparseFieldsService {
+    private final EntityManager entityManager;
+    private final Projection tasks;
+    private final Projection notes;
+    private final Projection habits;
+    private final Projection categories;
+
+    public SparseFieldsService(EntityManager entityManager, NoteContentCodec noteContentCodec) {
+        this.entityManager = entityManager;
+
+        this.tasks = new Projection("Task", "t", "left join t.category c")
+            .field("id", "t.id")
+            .field("task", "t.task")
+            .field("description", "t.description")
+            .field("status", "t.status")
+            .field("priority", "t.priority")
+            .field("completed", "t.isCompleted")
+            .field("completedAt", "t.completedAt")
+            .field("dueDate", "t.dueDate")
+            .joined("categoryId", "c.id")
+            .joined("categoryName", "c.name")
+            .field("createdAt", "t.createdAt")
+            .field("updatedAt", "t.updatedAt")
+            .field("recurrenceFrequency", "t.recurrenceFrequency")
+            .field("recurrenceInterval", "t.recurrenceInterval")
+            .field("recurrenceUntil", "t.recurrenceUntil")
+            .field("recurrenceParentId", "t.recurrenceParentId")
+            .field("occurrenceDate", "t.occurrenceDate")
+            .field("sortRank", "t.sortRank");
+
+        this.notes = new Projection("Note", "n", "left join n.category c")
+            .field("id", "n.id")
+            .field("title", "n.title")
+            .field("summary", "n.summary")
+            // Длинные тексты лежат сжатыми — читаем обе колонки и отдаём одну строку
+            .field("content", List.of("n.content", "n.contentGz"),
+                values -> values[0] != null ? values[0]
+                    : values[1] != null ? noteContentCodec.decompress((byte[]) values[1]) : null)
+            .joined("categoryId", "c.id")
+            .joined("categoryName", "c.name")
+            .field("createdAt", "n.createdAt")
+            .field("updatedAt", "n.updatedAt");
+
+        this.habits = new Projection("Habit", "h", null)
+            .field("id", "h.id")
+            .field("name", "h.name")
+            .field("done", "h.isDone")
+            .field("date", "h.date")
+            .field("updatedAt", "h.updatedAt");
+
+        this.categories = new Projection("Category", "c", null)
+            .field("id", "c.id")
+            .field("name", "c.name")
+            .field("parentId", "c.parentId")
+            .field("updatedAt", "c.updatedAt");
+    }
+
+    public Page<Map<String, Object>> getTasks(Long userId, String fields, Pageable pageable) {
+        return find(tasks, userId, fields, null, pageable);
+    }
+
+    public Page<Map<String, Object>> getNotes(Long userId, Long categoryId, String fields, Pageable pageable) {
+        return find(notes, userId, fields, categoryId, pageable);
+    }
+
+    public Page<Map<String, Object>> getHabits(Long userId, String fields, Pageable pageable) {
+        return find(habits, userId, fields, null, pageable);
+    }
+
+    public Page<Map<String, Object>> getCategories(Long userId, String fields, Pageable pageable) {
+        return find(categories, userId, fields, null, pageable);
+    }
+
+    private Page<Map<String, Object>> find(
+        Projection projection,
+        Long userId,
+        String fields,
+        Long categoryId,
+        Pageable pageable
+    ) {
+        List<Field> selected = projection.select(fields);
+        String alias = projection.alias;
+
+        List<String> expressions = new ArrayList<>();
+        boolean join = categoryId != null;
+        for (Field field : selected) {
+            expressions.addAll(field.expressions);
+            join |= field.joined;
+        }
+
+        StringBuilder where = new StringBuilder(" where ").append(alias).append(".user.id = :userId");
+        if (categoryId != null) {
+            where.append(" and c.id = :categoryId");
+        }
+        String from = " from " + projection.entity + " " + alias + (join ? " " + projection.join : "");
+
+        StringBuilder jpql = new StringBuilder("select ").append(String.join(", ", expressions)).append(from).append(where);
+        if (pageable.getSort().isSorted()) {
+            List<String> orders = new ArrayList<>();
+            for (Sort.Order order : pageable.getSort()) {
+                Field field = projection.fields.get(order.getProperty());
+                if (field == null || field.expressions.size() != 1 || field.joined && !join) {
+                    throw new InvalidFieldsException("Cannot sort by " + order.getProperty());
+                }
+                orders.add(field.expressions.get(0) + (order.isAscending() ? " asc" : " desc"));
+            }
+            jpql.append(" order by ").append(String.join(", ", orders));
+        }
+
+        TypedQuery<Object> query = entityManager.createQuery(jpql.toString(), Object.class)
+            .setParameter("userId", userId);
+        if (categoryId != null) {
+            query.setParameter("categoryId", categoryId);
+        }
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object result : query.getResultList()) {
+            Object[] columns = result instanceof Object[] array ? array : new Object[] {result};
+            Map<String, Object> row = new LinkedHashMap<>();
+            int position = 0;
+            for (Field field : selected) {
+                Object[] values = new Object[field.expressions.size()];
+                System.arraycopy(columns, position, values, 0, values.length);
+                position += values.length;
+                row.put(field.name, field.value.apply(values));
+            }
+            rows.add(row);
+        }
+
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(rows);
+        }
+        TypedQuery<Long> count = entityManager.createQuery("select count(" + alias + ")" + from + where, Long.class)
+            .setParameter("userId", userId);
+        if (categoryId != null) {
+            count.setParameter("categoryId", categoryId);
+        }
+        return new PageImpl<>(rows, pageable, count.getSingleResult());
+    }
+
+    private record Field(String name, List<String> expressions, Function<Object[], Object> value, boolean joined) {}
+
+    private static final class Projection {
+        final String entity;
+        final String alias;
+        final String join;
+        final Map<String, Field> fields = new LinkedHashMap<>();
+
+        Projection(String entity, String alias, String join) {
+            this.entity = entity;
+            this.alias = alias;
+            this.join = join;
+        }
+
+        Projection field(String name, String expression) {
+            fields.put(name, new Field(name, List.of(expression), values -> values[0], false));
+            return this;
+        }
+
+        Projection field(String name, List<String> expressions, Function<Object[], Object> value) {
+            fields.put(name, new Field(name, expressions, value, false));
+            return this;
+        }
+
+        Projection joined(String name, String expression) {
+            fields.put(name, new Field(name, List.of(expression), values -> values[0], true));
+            return this;
+        }
+
+        List<Field> select(String requested) {
+            Set<String> names = new LinkedHashSet<>();
+            names.add("id");
+            for (String name : requested.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (!fields.containsKey(trimmed)) {
+                    throw new InvalidFieldsException("Unknown field: " + trimmed + ", allowed: " + fields.keySet());
+                }
+                names.add(trimmed);
+            }
+            return names.stream().map(fields::get).toList();
+        }
+    }
+}
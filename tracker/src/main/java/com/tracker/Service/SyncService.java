@@ -0,0 +1,153 @@
+package com.tracker.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.tracker.DTO.DeletedRecord;
+import com.tracker.DTO.SyncResponse;
+import com.tracker.Mapper.CategoryMapper;
+import com.tracker.Mapper.HabitMapper;
+import com.tracker.Mapper.NoteMapper;
+import com.tracker.Mapper.TaskMapper;
+import com.tracker.Repository.CategoryRepository;
+import com.tracker.Repository.HabitRepository;
+import com.tracker.Repository.NoteRepository;
+import com.tracker.Repository.TaskRepository;
+import com.tracker.Repository.TombstoneRepository;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Delta sync over {@code updatedAt} and tombstones.
+ *
+ * {@code updatedAt} is set by the application inside the writing transaction, which may
+ * commit long after that. The returned cursor is therefore the start of the oldest
+ * transaction of the application still open when the changes are read (on PostgreSQL,
+ * from {@code pg_stat_activity}): whatever commits later was written after it. Clients
+ * get some rows twice, never miss one. Other databases fall back to a fixed overlap.
+ *
+ * Only client sessions of the application's own role count — autovacuum, pg_dump or other
+ * roles never write these tables (and their start times are hidden from non-superusers).
+ * The cursor lags {@code now} by at most {@code sync.cursor-max-lag-ms}, so one stuck
+ * transaction cannot turn every sync into a full dump; application transactions, the
+ * chunked background jobs included, are far shorter than that.
+ */
+@Service
+@Transactional
+public class SyncService {
+    private static final String OLDEST_OPEN_TRANSACTION = "select min(xact_start) from pg_stat_activity "
+        + "where datname = current_database() and usename = current_user "
+        + "and backend_type = 'client backend' and xact_start is not null";
+    // Запас на расхождение часов приложения и базы
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(1);
+    // Без pg_stat_activity: транзакции, начатые до запроса, могут закоммититься чуть позже
+    private static final Duration CURSOR_OVERLAP = Duration.ofSeconds(5);
+
+    private final TaskRepository taskRepository;
+    private final NoteRepository noteRepository;
+    private final HabitRepository habitRepository;
+    private final CategoryRepository categoryRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final TaskMapper taskMapper;
+    private final NoteMapper noteMapper;
+    private final HabitMapper habitMapper;
+    private final CategoryMapper categoryMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    @Value("${sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @Value("${sync.cursor-max-lag-ms:60000}")
+    private long cursorMaxLagMs;
+
+    public SyncService(
+        TaskRepository taskRepository,
+        NoteRepository noteRepository,
+        HabitRepository habitRepository,
+        CategoryRepository categoryRepository,
+        TombstoneRepository tombstoneRepository,
+        TaskMapper taskMapper,
+        NoteMapper noteMapper,
+        HabitMapper habitMapper,
+        CategoryMapper categoryMapper,
+        DataSource dataSource
+    ) {
+        this.taskRepository = taskRepository;
+        this.noteRepository = noteRepository;
+        this.habitRepository = habitRepository;
+        this.categoryRepository = categoryRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.taskMapper = taskMapper;
+        this.noteMapper = noteMapper;
+        this.habitMapper = habitMapper;
+        this.categoryMapper = categoryMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public SyncResponse getChanges(Long userId, Long since) {
+        Instant now = Instant.now();
+        // До чтения изменений: всё, что они не увидят, закоммитится из транзакций не старше этой отметки
+        Instant cursor = cursor(now);
+        Instant retentionHorizon = now.minus(Duration.ofDays(tombstoneRetentionDays));
+        SyncResponse response = new SyncResponse();
+
+        if (since == null || Instant.ofEpochMilli(since).isBefore(retentionHorizon)) {
+            // Курсора нет или надгробия за этот период уже вычищены — отдаём всё
+            response.setReset(true);
+            response.setTasks(taskRepository.findAllByUserId(userId).stream()
+                .map(taskMapper::toResponse).collect(Collectors.toList()));
+            response.setNotes(noteRepository.findAllByUserId(userId).stream()
+                .map(noteMapper::toResponse).collect(Collectors.toList()));
+            response.setHabits(habitRepository.findAllByUserId(userId).stream()
+                .map(habitMapper::toResponse).collect(Collectors.toList()));
+            response.setCategories(categoryRepository.findAllByUserId(userId).stream()
+                .map(categoryMapper::toResponse).collect(Collectors.toList()));
+            response.setDeleted(List.of());
+        } else {
+            Instant from = Instant.ofEpochMilli(since);
+            response.setTasks(taskRepository.findAllByUserIdAndUpdatedAtAfter(userId, from).stream()
+                .map(taskMapper::toResponse).collect(Collectors.toList()));
+            response.setNotes(noteRepository.findAllByUserIdAndUpdatedAtAfter(userId, from).stream()
+                .map(noteMapper::toResponse).collect(Collectors.toList()));
+            response.setHabits(habitRepository.findAllByUserIdAndUpdatedAtAfter(userId, from).stream()
+                .map(habitMapper::toResponse).collect(Collectors.toList()));
+            response.setCategories(categoryRepository.findAllByUserIdAndUpdatedAtAfter(userId, from).stream()
+                .map(categoryMapper::toResponse).collect(Collectors.toList()));
+            response.setDeleted(tombstoneRepository.findAllByUserIdAndDeletedAtAfter(userId, from).stream()
+                .map(tombstone -> new DeletedRecord(tombstone.getEntityType(), tombstone.getEntityId()))
+                .collect(Collectors.toList()));
+        }
+
+        response.setCursor(cursor.toEpochMilli());
+        return response;
+    }
+
+    private Instant cursor(Instant now) {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        if (!postgres) {
+            return now.minus(CURSOR_OVERLAP);
+        }
+        // Своя транзакция тоже открыта, так что строка есть всегда
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_OPEN_TRANSACTION, Timestamp.class);
+        Instant cursor = oldest.toInstant().minus(CLOCK_SKEW);
+        Instant floor = now.minusMillis(cursorMaxLagMs);
+        if (cursor.isBefore(floor)) {
+            return floor;
+        }
+        return cursor.isBefore(now) ? cursor : now;
+    }
+}
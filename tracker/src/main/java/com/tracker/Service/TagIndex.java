@@ -0,0 +1,286 @@
+package com.tracker.Service;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.DTO.TagsChangedEvent;
+import com.tracker.Entity.ItemTag;
+import com.tracker.Entity.TaggedType;
+import com.tracker.Repository.ItemTagRepository;
+import com.tracker.Repository.NoteRepository;
+import com.tracker.Repository.TaskRepository;
+
+/**
+ * In-memory tag → item bitmaps per user, so AND/OR/NOT tag filters are plain
+ * set operations and only the matching rows are read from the database.
+ *
+ * Item ids are renumbered into dense per-user slots, so a bitmap costs one bit
+ * per item of that user however sparse the global ids are; slots of deleted items
+ * are reused. A user is loaded on first use (and at startup when they have tags),
+ * outside the map's locks; committed writes are applied through events. A load
+ * that raced with a write to the same user still answers its own query but is
+ * not kept, so the next query loads again.
+ *
+ * The index lives in the memory of each application instance and only follows
+ * writes committed through that instance.
+ */
+@Component
+public class TagIndex {
+    private final TaskRepository taskRepository;
+    private final NoteRepository noteRepository;
+    private final ItemTagRepository itemTagRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, UserTags> users = new ConcurrentHashMap<>();
+    // Счётчики изменений по полосам id пользователя: загрузка видит, что во время неё были записи
+    private final AtomicLongArray changes = new AtomicLongArray(1024);
+
+    public TagIndex(
+        TaskRepository taskRepository,
+        NoteRepository noteRepository,
+        ItemTagRepository itemTagRepository,
+        ShardRouter shardRouter,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.taskRepository = taskRepository;
+        this.noteRepository = noteRepository;
+        this.itemTagRepository = itemTagRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        users.clear();
+        for (int shard : shardRouter.getShardIds()) {
+            ShardContext.runOn(shard, () -> {
+                List<Long> userIds = transactionTemplate.execute(status -> itemTagRepository.findTaggingUserIds());
+                for (Long userId : userIds) {
+                    transactionTemplate.execute(status -> loadAndCache(userId));
+                }
+            });
+        }
+    }
+
+    /**
+     * Ids of the user's items that carry every tag of {@code all}, at least one of
+     * {@code any} (when given) and none of {@code none}, in ascending order.
+     * Must run on the user's shard, like any other read of their data.
+     */
+    public long[] match(Long userId, TaggedType type, Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+        UserTags tags = users.get(userId);
+        if (tags == null) {
+            tags = loadAndCache(userId);
+        }
+        return tags.match(type, all, any, none);
+    }
+
+    public void evict(Long userId) {
+        changed(userId);
+        users.remove(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagsChanged(TagsChangedEvent event) {
+        changed(event.getUserId());
+        if (event.getItemType() == null) {
+            users.remove(event.getUserId());
+            return;
+        }
+        users.computeIfPresent(event.getUserId(), (id, tags) -> {
+            tags.setTags(event.getItemType(), event.getItemId(), event.getTagIds());
+            return tags;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        TaggedType type = switch (event.getEntity()) {
+            case TASK -> TaggedType.TASK;
+            case NOTE -> TaggedType.NOTE;
+            default -> null;
+        };
+        if (type == null || event.getAction() == ChangeEvent.Action.UPDATED) {
+            return;
+        }
+        changed(event.getUserId());
+        users.computeIfPresent(event.getUserId(), (id, tags) -> {
+            if (event.getAction() == ChangeEvent.Action.CREATED) {
+                tags.add(type, event.getId());
+            } else {
+                tags.remove(type, event.getId());
+            }
+            return tags;
+        });
+    }
+
+    private UserTags loadAndCache(Long userId) {
+        long before = changes.get(stripe(userId));
+        UserTags loaded = load(userId);
+        UserTags cached = users.putIfAbsent(userId, loaded);
+        if (cached != null) {
+            return cached;
+        }
+        // Запись, закоммиченная во время загрузки, могла в неё не попасть, а её событие — не найти пользователя
+        if (changes.get(stripe(userId)) != before) {
+            users.remove(userId, loaded);
+        }
+        return loaded;
+    }
+
+    /** Called before an update is applied, so a load running meanwhile is not cached. */
+    private void changed(Long userId) {
+        changes.incrementAndGet(stripe(userId));
+    }
+
+    private int stripe(Long userId) {
+        return Long.hashCode(userId) & (changes.length() - 1);
+    }
+
+    private UserTags load(Long userId) {
+        UserTags tags = new UserTags();
+        taskRepository.findIdsByUserId(userId).forEach(id -> tags.add(TaggedType.TASK, id));
+        noteRepository.findIdsByUserId(userId).forEach(id -> tags.add(TaggedType.NOTE, id));
+
+        Map<TaggedType, Map<Long, Set<Long>>> tagIds = new EnumMap<>(TaggedType.class);
+        for (ItemTag itemTag : itemTagRepository.findAllByUserId(userId)) {
+            tagIds.computeIfAbsent(itemTag.getItemType(), type -> new HashMap<>())
+                .computeIfAbsent(itemTag.getItemId(), id -> new HashSet<>())
+                .add(itemTag.getTagId());
+        }
+        tagIds.forEach((type, items) -> items.forEach((itemId, ids) -> tags.setTags(type, itemId, ids)));
+        return tags;
+    }
+
+    private static final class UserTags {
+        private final Map<TaggedType, Items> items = new EnumMap<>(TaggedType.class);
+
+        UserTags() {
+            for (TaggedType type : TaggedType.values()) {
+                items.put(type, new Items());
+            }
+        }
+
+        synchronized void add(TaggedType type, long id) {
+            items.get(type).add(id);
+        }
+
+        synchronized void remove(TaggedType type, long id) {
+            items.get(type).remove(id);
+        }
+
+        synchronized void setTags(TaggedType type, long id, Set<Long> tagIds) {
+            items.get(type).setTags(id, tagIds);
+        }
+
+        synchronized long[] match(TaggedType type, Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+            return items.get(type).match(all, any, none);
+        }
+    }
+
+    private static final class Items {
+        private static final BitSet EMPTY = new BitSet();
+
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private long[] ids = new long[16];
+        private int used;
+        // Слоты удалённых записей, занимаются новыми в первую очередь
+        private final BitSet free = new BitSet();
+        private final BitSet live = new BitSet();
+        private final Map<Long, BitSet> byTag = new HashMap<>();
+
+        void add(long id) {
+            live.set(slot(id));
+        }
+
+        void remove(long id) {
+            Integer slot = slots.remove(id);
+            if (slot != null) {
+                live.clear(slot);
+                untag(slot);
+                free.set(slot);
+            }
+        }
+
+        void setTags(long id, Set<Long> tagIds) {
+            int slot = slot(id);
+            live.set(slot);
+            untag(slot);
+            for (Long tagId : tagIds) {
+                byTag.computeIfAbsent(tagId, key -> new BitSet()).set(slot);
+            }
+        }
+
+        long[] match(Collection<Long> all, Collection<Long> any, Collection<Long> none) {
+            BitSet result = (BitSet) live.clone();
+            for (Long tagId : all) {
+                result.and(bits(tagId));
+            }
+            if (!any.isEmpty()) {
+                BitSet union = new BitSet();
+                for (Long tagId : any) {
+                    union.or(bits(tagId));
+                }
+                result.and(union);
+            }
+            for (Long tagId : none) {
+                result.andNot(bits(tagId));
+            }
+
+            long[] matched = new long[result.cardinality()];
+            int i = 0;
+            for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+                matched[i++] = ids[slot];
+            }
+            Arrays.sort(matched);
+            return matched;
+        }
+
+        private BitSet bits(Long tagId) {
+            return byTag.getOrDefault(tagId, EMPTY);
+        }
+
+        private void untag(int slot) {
+            byTag.values().removeIf(bits -> {
+                bits.clear(slot);
+                return bits.isEmpty();
+            });
+        }
+
+        private int slot(long id) {
+            Integer slot = slots.get(id);
+            if (slot == null) {
+                slot = free.nextSetBit(0);
+                if (slot >= 0) {
+                    free.clear(slot);
+                } else {
+                    slot = used++;
+                    if (slot == ids.length) {
+                        ids = Arrays.copyOf(ids, slot * 2);
+                    }
+                }
+                ids[slot] = id;
+                slots.put(id, slot);
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.tracker.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.tracker.DTO.NoteSummaryResponse;
+import com.tracker.DTO.TagRequest;
+import com.tracker.DTO.TagResponse;
+import com.tracker.DTO.TagsChangedEvent;
+import com.tracker.DTO.TaskResponse;
+import com.tracker.Entity.ItemTag;
+import com.tracker.Entity.Tag;
+import com.tracker.Entity.TaggedType;
+import com.tracker.Entity.Task;
+import com.tracker.Exceptions.InvalidFieldsException;
+import com.tracker.Exceptions.NoteNotFoundException;
+import com.tracker.Exceptions.TaskNotFoundException;
+import com.tracker.Mapper.TaskMapper;
+import com.tracker.Repository.ItemTagRepository;
+import com.tracker.Repository.NoteRepository;
+import com.tracker.Repository.TagRepository;
+import com.tracker.Repository.TaskRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+
+/**
+ * Tags of tasks and notes. Filters by tags go through {@link TagIndex}; only the
+ * requested page of matching ids is then read from the database.
+ */
+@Service
+@Transactional
+public class TagService {
+    private final TagRepository tagRepository;
+    private final ItemTagRepository itemTagRepository;
+    private final TaskRepository taskRepository;
+    private final NoteRepository noteRepository;
+    private final TaskMapper taskMapper;
+    private final TagIndex tagIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TagService(
+        TagRepository tagRepository,
+        ItemTagRepository itemTagRepository,
+        TaskRepository taskRepository,
+        NoteRepository noteRepository,
+        TaskMapper taskMapper,
+        TagIndex tagIndex,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.tagRepository = tagRepository;
+        this.itemTagRepository = itemTagRepository;
+        this.taskRepository = taskRepository;
+        this.noteRepository = noteRepository;
+        this.taskMapper = taskMapper;
+        this.tagIndex = tagIndex;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public List<TagResponse> getAllByUserId(Long userId) {
+        return toResponses(tagRepository.findAllByUserIdOrderByName(userId));
+    }
+
+    public TagResponse save(Long userId, TagRequest request) {
+        String name = request.getName().trim();
+        if (tagRepository.existsByUserIdAndName(userId, name)) {
+            throw new InvalidFieldsException("Tag already exists: " + name);
+        }
+
+        Tag savedTag = tagRepository.save(new Tag(userId, name));
+        return new TagResponse(savedTag.getId(), savedTag.getName());
+    }
+
+    public void delete(Long userId, Long tagId) {
+        Tag tagToDelete = tagRepository.findByIdAndUserId(tagId, userId)
+            .orElseThrow(() -> new EntityNotFoundException("Tag not found"));
+
+        itemTagRepository.deleteByTagId(tagId);
+        tagRepository.delete(tagToDelete);
+        eventPublisher.publishEvent(TagsChangedEvent.ofUser(userId));
+    }
+
+    public List<TagResponse> getTags(Long userId, TaggedType type, Long itemId) {
+        checkOwned(userId, type, itemId);
+        return toResponses(tagRepository.findAllByIdInAndUserIdOrderByName(itemTagRepository.findTagIds(type, itemId), userId));
+    }
+
+    public List<TagResponse> setTags(Long userId, TaggedType type, Long itemId, Set<Long> tagIds) {
+        checkOwned(userId, type, itemId);
+        List<Tag> tags = tagRepository.findAllByIdInAndUserIdOrderByName(tagIds, userId);
+        if (tags.size() != tagIds.size()) {
+            throw new InvalidFieldsException("Unknown tag ids");
+        }
+
+        itemTagRepository.deleteByItem(type, itemId);
+        itemTagRepository.saveAll(tags.stream()
+            .map(tag -> new ItemTag(userId, type, itemId, tag.getId()))
+            .toList());
+        eventPublisher.publishEvent(new TagsChangedEvent(userId, type, itemId, Set.copyOf(tagIds)));
+
+        return toResponses(tags);
+    }
+
+    // Новые сверху: в порядке убывания id
+    public Page<TaskResponse> findTasks(Long userId, Set<Long> all, Set<Long> any, Set<Long> none, Pageable pageable) {
+        long[] matched = tagIndex.match(userId, TaggedType.TASK, orEmpty(all), orEmpty(any), orEmpty(none));
+        List<Long> pageIds = page(matched, pageable);
+
+        Map<Long, Task> tasks = taskRepository.findAllByIdInAndUserId(pageIds, userId).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<TaskResponse> content = pageIds.stream()
+            .map(tasks::get)
+            .filter(Objects::nonNull)
+            .map(taskMapper::toResponse)
+            .toList();
+
+        return new PageImpl<>(content, pageable, matched.length);
+    }
+
+    public Page<NoteSummaryResponse> findNotes(Long userId, Set<Long> all, Set<Long> any, Set<Long> none, Pageable pageable) {
+        long[] matched = tagIndex.match(userId, TaggedType.NOTE, orEmpty(all), orEmpty(any), orEmpty(none));
+        List<Long> pageIds = page(matched, pageable);
+
+        Map<Long, NoteSummaryResponse> notes = noteRepository.findSummariesByIdInAndUserId(pageIds, userId).stream()
+            .collect(Collectors.toMap(NoteSummaryResponse::getId, Function.identity()));
+        List<NoteSummaryResponse> content = pageIds.stream()
+            .map(notes::get)
+            .filter(Objects::nonNull)
+            .toList();
+
+        return new PageImpl<>(content, pageable, matched.length);
+    }
+
+    private void checkOwned(Long userId, TaggedType type, Long itemId) {
+        if (type == TaggedType.TASK && !taskRepository.existsByIdAndUserId(itemId, userId)) {
+            throw new TaskNotFoundException("Task not found");
+        }
+        if (type == TaggedType.NOTE && !noteRepository.existsByIdAndUserId(itemId, userId)) {
+            throw new NoteNotFoundException("Note not found");
+        }
+    }
+
+    private static List<Long> page(long[] matched, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), matched.length);
+        int to = Math.min(from + pageable.getPageSize(), matched.length);
+        return Arrays.stream(matched, matched.length - to, matched.length - from)
+            .boxed()
+            .sorted((a, b) -> Long.compare(b, a))
+            .toList();
+    }
+
+    private static Collection<Long> orEmpty(Set<Long> tagIds) {
+        return tagIds == null ? Set.of() : tagIds;
+    }
+
+    private static List<TagResponse> toResponses(List<Tag> tags) {
+        return tags.stream()
+            .map(tag -> new TagResponse(tag.getId(), tag.getName()))
+            .toList();
+    }
+}
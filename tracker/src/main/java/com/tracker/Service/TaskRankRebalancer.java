@@ -0,0 +1,63 @@
+package com.tracker.Service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.Repository.TaskRepository;
+
+/**
+ * Rebalances users whose rank keys grew past {@code tasks.rank-max-length} or who still
+ * have tasks without a key, one short transaction per user. Runs once at startup for
+ * rows written before manual ordering, then nightly.
+ */
+@Component
+public class TaskRankRebalancer {
+    private final TaskRepository taskRepository;
+    private final TaskRankService taskRankService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${tasks.rank-max-length:24}")
+    private int maxLength;
+
+    public TaskRankRebalancer(
+        TaskRepository taskRepository,
+        TaskRankService taskRankService,
+        ShardRouter shardRouter,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.taskRepository = taskRepository;
+        this.taskRankService = taskRankService;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        rebalance();
+    }
+
+    @Scheduled(cron = "${tasks.rank-rebalance-cron:0 45 3 * * *}")
+    public void rebalance() {
+        for (int shard : shardRouter.getShardIds()) {
+            ShardContext.runOn(shard, () -> {
+                List<Long> userIds = transactionTemplate.execute(status -> taskRepository.findUserIdsNeedingRebalance(maxLength));
+                for (Long userId : userIds) {
+                    if (shardRouter.placementOf(userId).readOnly()) {
+                        // Переезжает — займёмся в следующий проход
+                        continue;
+                    }
+                    transactionTemplate.executeWithoutResult(status -> taskRankService.rebalance(userId));
+                }
+            });
+        }
+    }
+}
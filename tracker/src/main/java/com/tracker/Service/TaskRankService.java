@@ -0,0 +1,41 @@
+package com.tracker.Service;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.tracker.Repository.TaskRepository;
+import com.tracker.Repository.UserRepository;
+import com.tracker.Utils.RankKeys;
+
+import jakarta.transaction.Transactional;
+
+/**
+ * Rewrites the rank keys of one user's tasks as short, evenly spaced keys in the
+ * current order. Needed when repeated moves into the same gap made keys long,
+ * when two tasks ended up with the same key, and for tasks created before ranks existed.
+ * Every key changes, so every task gets a new version and {@code updatedAt}; the user
+ * row is locked, like in {@code TaskService.move}, so no move lands between the scales.
+ */
+@Service
+@Transactional
+public class TaskRankService {
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+
+    public TaskRankService(TaskRepository taskRepository, UserRepository userRepository) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+    }
+
+    public void rebalance(Long userId) {
+        userRepository.findForUpdate(userId);
+        List<Long> ids = taskRepository.findIdsInRankOrder(userId);
+        List<String> keys = RankKeys.spread(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            taskRepository.updateSortRank(ids.get(i), keys.get(i));
+        }
+        taskRepository.touchAllByUserId(userId, Instant.now());
+    }
+}
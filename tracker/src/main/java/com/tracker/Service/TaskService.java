@@ -3,10 +3,23 @@ package com.tracker.Service;
 import com.tracker.Entity.Category;
 import com.tracker.Entity.Task;
 import com.tracker.Entity.User;
+import com.tracker.Exceptions.CategoryNotFoundException;
+import com.tracker.Exceptions.InvalidFieldsException;
+import com.tracker.Exceptions.PreconditionFailedException;
 import com.tracker.Exceptions.TaskNotFoundException;
+import com.tracker.DTO.BoardCard;
+import com.tracker.DTO.BoardColumn;
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.DTO.TaskCompletion;
+import com.tracker.DTO.TaskMoveRequest;
+import com.tracker.DTO.TaskOccurrenceResponse;
+import com.tracker.DTO.TaskPatchRequest;
 import com.tracker.DTO.TaskResponse;
 import com.tracker.DTO.TaskRequest;
 import com.tracker.Mapper.TaskMapper;
+import com.tracker.Utils.ETags;
+import com.tracker.Utils.RankKeys;
+import com.tracker.Utils.RecurrenceExpander;
 import com.tracker.Repository.CategoryRepository;
 import com.tracker.Repository.TaskRepository;
 import com.tracker.Repository.UserRepository;
@@ -14,6 +27,22 @@ import com.tracker.Repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -21,21 +50,33 @@ import org.springframework.stereotype.Service;
 @Service
 @Transactional
 public class TaskService {
+    // Потолок на число вхождений одной серии в ответе
+    private static final int MAX_OCCURRENCES_PER_SERIES = 1000;
+
     private final TaskRepository taskRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
+    private final ProductivityService productivityService;
+    private final TaskRankService taskRankService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public TaskService(
         TaskRepository taskRepository,
         CategoryRepository categoryRepository,
         UserRepository userRepository,
-        TaskMapper taskMapper
+        TaskMapper taskMapper,
+        ProductivityService productivityService,
+        TaskRankService taskRankService,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.taskRepository = taskRepository;
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
         this.taskMapper = taskMapper;
+        this.productivityService = productivityService;
+        this.taskRankService = taskRankService;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<TaskResponse> getAllByUserId(Long userId, Pageable pageable) {
@@ -44,48 +85,362 @@ public class TaskService {
         return tasks.map(taskMapper::toResponse);
     }
 
+    /**
+     * First {@code limit} cards of every status column in manual order, with column sizes.
+     */
+    public List<BoardColumn> getBoard(Long userId, int limit) {
+        Map<String, BoardColumn> columns = new LinkedHashMap<>();
+        for (Object[] row : taskRepository.findBoard(userId, limit)) {
+            String status = (String) row[1];
+            BoardColumn column = columns.get(status);
+            if (column == null) {
+                column = new BoardColumn();
+                column.setStatus(status);
+                column.setTotal(((Number) row[8]).longValue());
+                columns.put(status, column);
+            }
+            column.getTasks().add(taskMapper.toBoardCard(row));
+        }
+
+        for (BoardColumn column : columns.values()) {
+            List<BoardCard> cards = column.getTasks();
+            if (column.getTotal() > cards.size()) {
+                column.setNextCursor(cards.get(cards.size() - 1).getId());
+            }
+        }
+        return new ArrayList<>(columns.values());
+    }
+
+    /**
+     * Next cards of one column after {@code cursor} (the last id the client has).
+     */
+    public BoardColumn getBoardColumn(Long userId, String status, Long cursor, int limit) {
+        String afterRank = cursor != null
+            ? taskRepository.findSortRank(cursor, userId).orElseThrow(() -> new TaskNotFoundException("Task not found"))
+            : null;
+        List<Task> tasks = taskRepository.findBoardColumn(userId, status, afterRank, cursor, PageRequest.of(0, limit + 1));
+
+        BoardColumn column = new BoardColumn();
+        column.setStatus(status);
+        tasks.stream().limit(limit).map(taskMapper::toBoardCard).forEach(column.getTasks()::add);
+        if (tasks.size() > limit) {
+            column.setNextCursor(tasks.get(limit - 1).getId());
+        }
+        return column;
+    }
+
     public TaskResponse save(Long userId, TaskRequest request) {
         Task taskToSave = taskMapper.toEntity(request);
 
-        Category category = categoryRepository.findById(request.getCategoryId())
-            .orElseThrow(() -> new EntityNotFoundException("Category not found"));
-        taskToSave.setCategory(category);
+        taskToSave.setCategory(findOwnedCategory(userId, request.getCategoryId()));
         
-        User user = userRepository.findById(userId)
-        .orElseThrow(() -> new EntityNotFoundException("User not found"));
+        // Пользователь уже аутентифицирован — достаточно ссылки, без SELECT
+        User user = userRepository.getReferenceById(userId);
         taskToSave.setUser(user);
+        taskToSave.setSortRank(RankKeys.now());
         
         Task savedTask = taskRepository.save(taskToSave);
+        publish(ChangeEvent.Action.CREATED, savedTask.getId(), userId, savedTask.getTask(), savedTask.isCompleted());
         return taskMapper.toResponse(savedTask);
     }
 
-    public TaskResponse update(Long userId, Long taskId, TaskRequest request) {
+    /**
+     * @param expectedVersion version from {@code If-Match}, or {@code null} to overwrite unconditionally
+     */
+    public TaskResponse update(Long userId, Long taskId, TaskRequest request, Long expectedVersion) {
         Task taskToUpdate = taskRepository.findByIdAndUserId(taskId, userId)
                 .orElseThrow(() -> new TaskNotFoundException("Task not found"));
-        Category category = categoryRepository.findById(request.getCategoryId())
-            .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+        ETags.check(expectedVersion, taskToUpdate.getVersion());
+        Category category = findOwnedCategory(userId, request.getCategoryId());
 
+        boolean wasCompleted = taskToUpdate.isCompleted();
+        Long oldCategoryId = categoryId(taskToUpdate);
+        Instant oldCompletedAt = taskToUpdate.getCompletedAt();
         taskToUpdate.setTask(request.getTask());
         taskToUpdate.setDescription(request.getDescription());
         taskToUpdate.setStatus(request.getStatus());
         taskToUpdate.setPriority(request.getPriority());
-        taskToUpdate.setCompleted(request.isCompleted());
+        setCompleted(taskToUpdate, request.isCompleted());
         taskToUpdate.setDueDate(request.getDueDate());
         taskToUpdate.setCategory(category);
+        taskToUpdate.setRecurrenceFrequency(request.getRecurrenceFrequency());
+        taskToUpdate.setRecurrenceInterval(request.getRecurrenceInterval());
+        taskToUpdate.setRecurrenceUntil(request.getRecurrenceUntil());
 
-        Task updatedTask = taskRepository.save(taskToUpdate);
+        Task updatedTask = flush(() -> taskRepository.saveAndFlush(taskToUpdate));
+        productivityService.taskChanged(userId, oldCategoryId, oldCompletedAt, categoryId(updatedTask), updatedTask.getCompletedAt());
+        publish(ChangeEvent.Action.UPDATED, taskId, userId, updatedTask.getTask(), !wasCompleted && updatedTask.isCompleted());
 
         return taskMapper.toResponse(updatedTask);
     }
 
-    public void delete(Long userId, Long taskId) {
-        boolean isTaskExist = taskRepository.existsByIdAndUserId(taskId, userId);
+    /**
+     * Puts the task between two neighbours by giving it a new rank key; only this row is written.
+     */
+    public TaskResponse move(Long userId, Long taskId, TaskMoveRequest request, Long expectedVersion) {
+        if (taskId.equals(request.getAfterId()) || taskId.equals(request.getBeforeId())) {
+            throw new InvalidFieldsException("A task cannot be its own neighbour");
+        }
+        // Ключ считается от соседей — перенумерация или другой перенос не должны вклиниться до коммита
+        userRepository.findForUpdate(userId);
+        Task found = taskRepository.findByIdAndUserId(taskId, userId)
+            .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+        ETags.check(expectedVersion, found.getVersion());
+
+        String rank = rankBetween(userId, request);
+        if (rank == null) {
+            // У соседей ещё нет ключей или они совпали — перенумеровываем задачи пользователя
+            taskRankService.rebalance(userId);
+            rank = rankBetween(userId, request);
+            if (rank == null) {
+                throw new InvalidFieldsException("afterId must come before beforeId");
+            }
+            // Перенумерация подняла версии и очистила контекст — берём свежую строку
+            found = taskRepository.findByIdAndUserId(taskId, userId)
+                .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+        }
+
+        Task taskToMove = found;
+        taskToMove.setSortRank(rank);
+        Task movedTask = flush(() -> taskRepository.saveAndFlush(taskToMove));
+        publish(ChangeEvent.Action.UPDATED, taskId, userId, movedTask.getTask(), false);
+
+        return taskMapper.toResponse(movedTask);
+    }
+
+    // null — ключ между соседями получить нельзя
+    private String rankBetween(Long userId, TaskMoveRequest request) {
+        String lo = request.getAfterId() != null ? neighbourRank(userId, request.getAfterId()) : null;
+        String hi = request.getBeforeId() != null ? neighbourRank(userId, request.getBeforeId()) : null;
+        if ("".equals(lo) || "".equals(hi) || (lo != null && hi != null && lo.compareTo(hi) >= 0)) {
+            return null;
+        }
+        if (hi == null) {
+            // В конец, но ниже ключей задач, которые ещё будут созданы
+            String next = RankKeys.now();
+            hi = lo == null || lo.compareTo(next) < 0 ? next : null;
+        }
+        return RankKeys.between(lo, hi);
+    }
+
+    private String neighbourRank(Long userId, Long taskId) {
+        return taskRepository.findSortRank(taskId, userId)
+            .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+    }
+
+    private Category findOwnedCategory(Long userId, Long categoryId) {
+        if (categoryId == null) {
+            return null;
+        }
+        return categoryRepository.findByIdAndUserId(categoryId, userId)
+            .orElseThrow(() -> new CategoryNotFoundException("Category not found"));
+    }
+
+    public void patch(Long userId, Long taskId, TaskPatchRequest request, Long expectedVersion) {
+        // Точность колонки — микросекунды: по этой метке потом узнаём, что задачу выполнил именно этот UPDATE
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if (Boolean.FALSE.equals(request.getCompleted())) {
+            uncomplete(userId, taskId);
+        }
+        int updated = taskRepository.patchByIdAndUserId(
+            taskId,
+            userId,
+            request.getTask(),
+            request.getDescription(),
+            request.getStatus(),
+            request.getPriority(),
+            request.getCompleted(),
+            request.getDueDate(),
+            now,
+            expectedVersion
+        );
+
+        if (updated == 0) {
+            if (expectedVersion != null && taskRepository.existsByIdAndUserId(taskId, userId)) {
+                throw new PreconditionFailedException("Task was modified");
+            }
+            throw new TaskNotFoundException("Task not found");
+        }
+
+        boolean completion = Boolean.TRUE.equals(request.getCompleted()) && productivityService.taskCompleted(taskId, now);
+        publish(ChangeEvent.Action.UPDATED, taskId, userId, request.getTask(), completion);
+    }
+
+    // Прежнее время читаем без блокировки и сбрасываем, только если его никто не успел поменять
+    private void uncomplete(Long userId, Long taskId) {
+        while (true) {
+            TaskCompletion before = taskRepository.findCompletionById(taskId, userId).orElse(null);
+            if (before == null || before.getCompletedAt() == null) {
+                return;
+            }
+            if (taskRepository.clearCompletedAt(taskId, before.getCompletedAt()) > 0) {
+                productivityService.taskChanged(userId, before.getCategoryId(), before.getCompletedAt(), before.getCategoryId(), null);
+                return;
+            }
+        }
+    }
+
+    public void delete(Long userId, Long taskId, Long expectedVersion) {
+        Task taskToDelete = taskRepository.findByIdAndUserId(taskId, userId)
+            .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+        ETags.check(expectedVersion, taskToDelete.getVersion());
 
-        if (isTaskExist) {
-            taskRepository.deleteById(taskId);
-        } else {
-            String message = "Task not found";
-            throw new TaskNotFoundException(message);
+        // Вместе с серией уходят и сохранённые вхождения
+        List<Long> overrideIds = taskRepository.findIdsByRecurrenceParentId(taskId);
+        if (!overrideIds.isEmpty()) {
+            for (TaskCompletion completion : taskRepository.findCompletionsByRecurrenceParentId(taskId)) {
+                productivityService.taskChanged(userId, completion.getCategoryId(), completion.getCompletedAt(), null, null);
+            }
+            taskRepository.deleteByRecurrenceParentId(taskId);
+            overrideIds.forEach(id -> publish(ChangeEvent.Action.DELETED, id, userId, taskToDelete.getTask(), false));
         }
+        flush(() -> {
+            taskRepository.delete(taskToDelete);
+            taskRepository.flush();
+            return null;
+        });
+        productivityService.taskChanged(userId, categoryId(taskToDelete), taskToDelete.getCompletedAt(), null, null);
+        publish(ChangeEvent.Action.DELETED, taskId, userId, taskToDelete.getTask(), false);
+    }
+
+    /**
+     * Everything due in {@code [from, to)}: plain tasks, stored occurrences and
+     * occurrences of recurring tasks expanded on the fly. A stored occurrence counts
+     * by its own due date, which may have been moved into or out of the window.
+     */
+    public List<TaskOccurrenceResponse> getOccurrences(Long userId, LocalDateTime from, LocalDateTime to) {
+        List<TaskOccurrenceResponse> result = taskRepository.findSingleInWindow(userId, from, to).stream()
+            .map(taskMapper::toOccurrence)
+            .collect(Collectors.toCollection(ArrayList::new));
+        taskRepository.findOverridesDueInWindow(userId, from, to).stream()
+            .map(taskMapper::toOccurrence)
+            .forEach(result::add);
+
+        List<Task> series = taskRepository.findSeriesInWindow(userId, from, to);
+        if (!series.isEmpty()) {
+            // Даты окна, у которых уже есть своя строка: она выведена выше или ушла за окно
+            Map<Long, Set<LocalDateTime>> overridden = new HashMap<>();
+            List<Long> seriesIds = series.stream().map(Task::getId).collect(Collectors.toList());
+            for (Task override : taskRepository.findOverridesInWindow(seriesIds, from, to)) {
+                overridden.computeIfAbsent(override.getRecurrenceParentId(), key -> new HashSet<>())
+                    .add(override.getOccurrenceDate());
+            }
+
+            for (Task seriesTask : series) {
+                Set<LocalDateTime> stored = overridden.getOrDefault(seriesTask.getId(), Set.of());
+                List<LocalDateTime> dates = RecurrenceExpander.expand(
+                    seriesTask.getDueDate(),
+                    seriesTask.getRecurrenceFrequency(),
+                    recurrenceInterval(seriesTask),
+                    seriesTask.getRecurrenceUntil(),
+                    from,
+                    to,
+                    MAX_OCCURRENCES_PER_SERIES
+                );
+                for (LocalDateTime date : dates) {
+                    if (!stored.contains(date)) {
+                        result.add(taskMapper.toOccurrence(seriesTask, date));
+                    }
+                }
+            }
+        }
+
+        result.sort(Comparator.comparing(TaskOccurrenceResponse::getDueDate,
+            Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * Edits or completes one occurrence of a recurring task. The first change
+     * materializes the occurrence as its own row; later ones update that row.
+     */
+    public TaskResponse patchOccurrence(Long userId, Long seriesId, LocalDateTime occurrenceDate, TaskPatchRequest request) {
+        Task series = taskRepository.findByIdAndUserId(seriesId, userId)
+            .orElseThrow(() -> new TaskNotFoundException("Task not found"));
+
+        if (series.getRecurrenceFrequency() == null || !RecurrenceExpander.isOccurrence(
+                series.getDueDate(),
+                series.getRecurrenceFrequency(),
+                recurrenceInterval(series),
+                series.getRecurrenceUntil(),
+                occurrenceDate)) {
+            throw new TaskNotFoundException("Occurrence not found");
+        }
+
+        Task occurrence = taskRepository.findByRecurrenceParentIdAndOccurrenceDate(seriesId, occurrenceDate)
+            .orElseGet(() -> materialize(series, occurrenceDate));
+        boolean created = occurrence.getId() == null;
+        boolean wasCompleted = occurrence.isCompleted();
+        Instant oldCompletedAt = occurrence.getCompletedAt();
+
+        if (request.getTask() != null) {
+            occurrence.setTask(request.getTask());
+        }
+        if (request.getDescription() != null) {
+            occurrence.setDescription(request.getDescription());
+        }
+        if (request.getStatus() != null) {
+            occurrence.setStatus(request.getStatus());
+        }
+        if (request.getPriority() != null) {
+            occurrence.setPriority(request.getPriority());
+        }
+        if (request.getCompleted() != null) {
+            setCompleted(occurrence, request.getCompleted());
+        }
+        if (request.getDueDate() != null) {
+            occurrence.setDueDate(request.getDueDate());
+        }
+
+        Task saved = taskRepository.save(occurrence);
+        productivityService.taskChanged(userId, categoryId(saved), oldCompletedAt, categoryId(saved), saved.getCompletedAt());
+        publish(created ? ChangeEvent.Action.CREATED : ChangeEvent.Action.UPDATED, saved.getId(), userId,
+            saved.getTask(), !wasCompleted && saved.isCompleted());
+
+        return taskMapper.toResponse(saved);
+    }
+
+    private Task materialize(Task series, LocalDateTime occurrenceDate) {
+        Task occurrence = new Task(series.getTask(), series.getDescription(), series.getCategory(), occurrenceDate);
+
+        occurrence.setStatus(series.getStatus());
+        occurrence.setPriority(series.getPriority());
+        occurrence.setUser(series.getUser());
+        occurrence.setRecurrenceParentId(series.getId());
+        occurrence.setOccurrenceDate(occurrenceDate);
+        occurrence.setSortRank(RankKeys.now());
+
+        return occurrence;
+    }
+
+    // Время выполнения ставится при первой отметке и сбрасывается при снятии
+    private static void setCompleted(Task task, boolean completed) {
+        if (completed && task.getCompletedAt() == null) {
+            task.setCompletedAt(Instant.now());
+        } else if (!completed) {
+            task.setCompletedAt(null);
+        }
+        task.setCompleted(completed);
+    }
+
+    private static Long categoryId(Task task) {
+        return task.getCategory() != null ? task.getCategory().getId() : null;
+    }
+
+    // UPDATE/DELETE с условием на версию: параллельная правка даёт 412, а не перезапись
+    private static <T> T flush(Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (OptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Task was modified");
+        }
+    }
+
+    private static int recurrenceInterval(Task series) {
+        return series.getRecurrenceInterval() != null ? series.getRecurrenceInterval() : 1;
+    }
+
+    private void publish(ChangeEvent.Action action, Long id, Long userId, String title, boolean completion) {
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.EntityType.TASK, action, id, userId, title, completion));
     }
 }
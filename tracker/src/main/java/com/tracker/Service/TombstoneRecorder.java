@@ -0,0 +1,62 @@
+package com.tracker.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.DTO.ChangeEvent;
+import com.tracker.Entity.Tombstone;
+import com.tracker.Repository.TombstoneRepository;
+
+/**
+ * Writes a tombstone for every delete, inside the deleting transaction,
+ * so a delete and its tombstone commit or roll back together.
+ */
+@Component
+public class TombstoneRecorder {
+    private final TombstoneRepository tombstoneRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    public TombstoneRecorder(
+        TombstoneRepository tombstoneRepository,
+        ShardRouter shardRouter,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onChange(ChangeEvent event) {
+        if (event.getAction() == ChangeEvent.Action.DELETED) {
+            tombstoneRepository.save(new Tombstone(
+                event.getUserId(),
+                event.getEntity().name(),
+                event.getId(),
+                event.getOccurredAt()
+            ));
+        }
+    }
+
+    @Scheduled(cron = "${sync.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(tombstoneRetentionDays));
+        for (int shard : shardRouter.getShardIds()) {
+            ShardContext.runOn(shard, () ->
+                transactionTemplate.executeWithoutResult(status -> tombstoneRepository.deleteOlderThan(cutoff)));
+        }
+    }
+}
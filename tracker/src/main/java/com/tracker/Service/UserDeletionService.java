@@ -0,0 +1,260 @@
+package com.tracker.Service;
+
+import java.time.Duration;
+import java.util.function.IntUnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.DTO.JobResponse;
+import com.tracker.DTO.UserDeletionResponse;
+import com.tracker.Entity.JobStatus;
+import com.tracker.Repository.ActivityEntryRepository;
+import com.tracker.Repository.CategoryClosureRepository;
+import com.tracker.Repository.CategoryRepository;
+import com.tracker.Repository.HabitRepository;
+import com.tracker.Repository.ItemTagRepository;
+import com.tracker.Repository.NoteAttachmentRepository;
+import com.tracker.Repository.NoteRepository;
+import com.tracker.Repository.NotificationRepository;
+import com.tracker.Repository.ProductivityRollupRepository;
+import com.tracker.Repository.TagRepository;
+import com.tracker.Repository.TaskRepository;
+import com.tracker.Repository.TombstoneRepository;
+import com.tracker.Repository.UserRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Deletes an account with set-based DELETE statements in foreign-key order
+ * (tags, tasks, notes, habits, categories, logs, then the user) instead of letting the
+ * {@code User} cascades load and remove every child one by one.
+ *
+ * Small accounts are removed inside the caller's transaction. Accounts above
+ * {@code user-deletion.sync-threshold} rows become a job on the {@code user-deletion}
+ * queue, committed with the caller's transaction; the worker deletes in chunks, one
+ * short transaction per chunk, and reports progress. A retried job simply continues.
+ */
+@Service
+public class UserDeletionService implements JobHandler {
+    public static final String QUEUE = "user-deletion";
+
+    private final TaskRepository taskRepository;
+    private final NoteRepository noteRepository;
+    private final HabitRepository habitRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final UserRepository userRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final NotificationRepository notificationRepository;
+    private final NoteAttachmentRepository noteAttachmentRepository;
+    private final ActivityEntryRepository activityEntryRepository;
+    private final ProductivityRollupRepository productivityRollupRepository;
+    private final ItemTagRepository itemTagRepository;
+    private final TagRepository tagRepository;
+    private final TagIndex tagIndex;
+    private final ShardRouter shardRouter;
+    private final JobQueueService jobQueueService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${user-deletion.sync-threshold:5000}")
+    private long syncThreshold;
+
+    @Value("${user-deletion.chunk-size:1000}")
+    private int chunkSize;
+
+    public UserDeletionService(
+        TaskRepository taskRepository,
+        NoteRepository noteRepository,
+        HabitRepository habitRepository,
+        CategoryRepository categoryRepository,
+        CategoryClosureRepository categoryClosureRepository,
+        UserRepository userRepository,
+        TombstoneRepository tombstoneRepository,
+        NotificationRepository notificationRepository,
+        NoteAttachmentRepository noteAttachmentRepository,
+        ActivityEntryRepository activityEntryRepository,
+        ProductivityRollupRepository productivityRollupRepository,
+        ItemTagRepository itemTagRepository,
+        TagRepository tagRepository,
+        TagIndex tagIndex,
+        ShardRouter shardRouter,
+        JobQueueService jobQueueService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.taskRepository = taskRepository;
+        this.noteRepository = noteRepository;
+        this.habitRepository = habitRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryClosureRepository = categoryClosureRepository;
+        this.userRepository = userRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.notificationRepository = notificationRepository;
+        this.noteAttachmentRepository = noteAttachmentRepository;
+        this.activityEntryRepository = activityEntryRepository;
+        this.productivityRollupRepository = productivityRollupRepository;
+        this.itemTagRepository = itemTagRepository;
+        this.tagRepository = tagRepository;
+        this.tagIndex = tagIndex;
+        this.shardRouter = shardRouter;
+        this.jobQueueService = jobQueueService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Deletes the account right away when it is small, otherwise schedules a background job.
+     *
+     * @return {@code null} when the account is already gone, or the status of the started job
+     */
+    public UserDeletionResponse delete(Long userId) {
+        ShardRouter.Placement placement = shardRouter.placementOf(userId);
+        if (placement.readOnly() || placement.shard() != ShardContext.currentOrDefault()) {
+            // Данные на другом шарде или переезжают, а транзакция вызывающего открыта на каталоге — только в фоне
+            return startJob(userId, -1);
+        }
+
+        long total = count(userId);
+        if (total <= syncThreshold) {
+            deleteAll(userId);
+            if (shardRouter.hasAssignment(userId)) {
+                shardRouter.unassign(userId);
+            }
+            return null;
+        }
+        return startJob(userId, total);
+    }
+
+    public UserDeletionResponse getStatus(String jobId) {
+        JobResponse job = jobQueueService.find(jobId)
+            .filter(found -> QUEUE.equals(found.getQueue()))
+            .orElseThrow(() -> new EntityNotFoundException("Deletion job not found"));
+
+        UserDeletionResponse response = new UserDeletionResponse();
+
+        response.setJobId(jobId);
+        response.setUserId(Long.valueOf(job.getPayload()));
+        response.setStatus(job.getStatus().name());
+        response.setTotalRows(job.getTotal() > 0 ? job.getTotal() : -1);
+        response.setDeletedRows(job.getProgress());
+        response.setError(job.getLastError());
+
+        return response;
+    }
+
+    @Override
+    public String queue() {
+        return QUEUE;
+    }
+
+    // Прогресс сообщается после каждого чанка, так что таймаут видимости — с запасом на один чанк
+    @Override
+    public Duration visibilityTimeout() {
+        return Duration.ofMinutes(10);
+    }
+
+    @Override
+    public void handle(JobContext context) {
+        Long userId = Long.valueOf(context.getPayload());
+        ShardRouter.Placement placement = shardRouter.placementOf(userId);
+        if (placement.readOnly()) {
+            // Очередь повторит задачу, когда переезд закончится
+            throw new IllegalStateException("User " + userId + " is being moved to another shard");
+        }
+        run(userId, placement.shard(), context);
+    }
+
+    private UserDeletionResponse startJob(Long userId, long total) {
+        UserDeletionResponse response = new UserDeletionResponse();
+
+        response.setJobId(jobQueueService.enqueue(QUEUE, userId.toString()));
+        response.setUserId(userId);
+        response.setStatus(JobStatus.PENDING.name());
+        response.setTotalRows(total);
+
+        return response;
+    }
+
+    private long count(Long userId) {
+        return itemTagRepository.countByUserId(userId)
+            + tagRepository.countByUserId(userId)
+            + taskRepository.countByUserId(userId)
+            + noteRepository.countByUserId(userId)
+            + habitRepository.countByUserId(userId)
+            + categoryClosureRepository.countByUserId(userId)
+            + categoryRepository.countByUserId(userId)
+            + noteAttachmentRepository.countByUserId(userId)
+            + tombstoneRepository.countByUserId(userId)
+            + notificationRepository.countByUserId(userId)
+            + activityEntryRepository.countByUserId(userId)
+            + productivityRollupRepository.countByUserId(userId);
+    }
+
+    private void run(Long userId, int home, JobContext context) {
+        Progress progress = new Progress(context);
+        ShardContext.runOn(home, () -> {
+            progress.total = transactionTemplate.execute(status -> count(userId));
+            deleteInChunks(progress, limit -> itemTagRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> tagRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> taskRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> noteAttachmentRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> noteRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> habitRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> categoryClosureRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> categoryRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> tombstoneRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> notificationRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> activityEntryRepository.deleteChunkByUserId(userId, limit));
+            deleteInChunks(progress, limit -> productivityRollupRepository.deleteChunkByUserId(userId, limit));
+
+            // Строки, созданные во время удаления, добиваем вместе с самим пользователем
+            transactionTemplate.executeWithoutResult(status -> deleteAll(userId));
+        });
+        if (home != 0) {
+            // На домашнем шарде была лишь копия — запись в каталоге удаляем отдельно
+            ShardContext.runOn(0, () ->
+                transactionTemplate.executeWithoutResult(status -> userRepository.bulkDeleteById(userId)));
+        }
+        if (shardRouter.hasAssignment(userId)) {
+            shardRouter.unassign(userId);
+        }
+    }
+
+    private void deleteInChunks(Progress progress, IntUnaryOperator deleteChunk) {
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> deleteChunk.applyAsInt(chunkSize));
+            progress.deleted += deleted;
+            progress.context.progress(Math.min(progress.deleted, progress.total), progress.total);
+        } while (deleted > 0);
+    }
+
+    private void deleteAll(Long userId) {
+        itemTagRepository.bulkDeleteByUserId(userId);
+        tagRepository.bulkDeleteByUserId(userId);
+        taskRepository.bulkDeleteByUserId(userId);
+        noteAttachmentRepository.bulkDeleteByUserId(userId);
+        noteRepository.bulkDeleteByUserId(userId);
+        habitRepository.bulkDeleteByUserId(userId);
+        categoryClosureRepository.bulkDeleteByUserId(userId);
+        categoryRepository.bulkDeleteByUserId(userId);
+        tombstoneRepository.bulkDeleteByUserId(userId);
+        notificationRepository.bulkDeleteByUserId(userId);
+        activityEntryRepository.bulkDeleteByUserId(userId);
+        productivityRollupRepository.bulkDeleteByUserId(userId);
+        userRepository.bulkDeleteById(userId);
+        tagIndex.evict(userId);
+    }
+
+    private static class Progress {
+        final JobContext context;
+        long total;
+        long deleted;
+
+        Progress(JobContext context) {
+            this.context = context;
+        }
+    }
+}
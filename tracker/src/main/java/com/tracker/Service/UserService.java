@@ -1,8 +1,11 @@
 package com.tracker.Service;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
+import com.tracker.DTO.UserCreatedEvent;
+import com.tracker.DTO.UserDeletionResponse;
 import com.tracker.DTO.UserRequest;
 import com.tracker.DTO.UserResponse;
 import com.tracker.Entity.User;
@@ -18,13 +21,19 @@ import jakarta.transaction.Transactional;
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserDeletionService userDeletionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserService(
         UserRepository userRepository, 
-        UserMapper userMapper
+        UserMapper userMapper,
+        UserDeletionService userDeletionService,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.userDeletionService = userDeletionService;
+        this.eventPublisher = eventPublisher;
     }
 
     public Page<UserResponse> getAllUsers(Pageable pageable) {
@@ -36,6 +45,7 @@ public class UserService {
     public UserResponse save(UserRequest request) {
         User userToSave = userMapper.toEntity(request);
         User savedUser = userRepository.save(userToSave);
+        eventPublisher.publishEvent(new UserCreatedEvent(savedUser.getId()));
 
         return userMapper.toResponse(savedUser);
     }
@@ -52,14 +62,18 @@ public class UserService {
         return userMapper.toResponse(upadtedUser);
     }
 
-    public void delete(Long id) {
+    public UserDeletionResponse delete(Long id) {
         boolean isUserExist = userRepository.existsById(id);
 
         if (isUserExist) {
-            userRepository.deleteById(id);
+            return userDeletionService.delete(id);
         } else {
             String message = "User not found";
             throw new UserNotFoundException(message);
         }
     }
+
+    public UserDeletionResponse getDeletionStatus(String jobId) {
+        return userDeletionService.getStatus(jobId);
+    }
 }
\ No newline at end of file
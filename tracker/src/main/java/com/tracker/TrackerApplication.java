@@ -2,12 +2,18 @@ package com.tracker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class TrackerApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(TrackerApplication.class, args);
+		SpringApplication application = new SpringApplication(TrackerApplication.class);
+		if (Boolean.getBoolean("startup.report")) {
+			// Шаги старта для отчёта StartupReport
+			application.setApplicationStartup(new BufferingApplicationStartup(4096));
+		}
+		application.run(args);
 	}
 
-}
\ No newline at end of file
+}
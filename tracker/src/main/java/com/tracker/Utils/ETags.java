@@ -0,0 +1,45 @@
+package com.tracker.Utils;
+
+import java.util.Objects;
+
+import com.tracker.Exceptions.PreconditionFailedException;
+
+/**
+ * Entity versions as strong ETags ({@code "3"}) and the matching {@code If-Match} checks.
+ * A missing header or {@code *} means "any version", so clients that don't send
+ * {@code If-Match} keep last-write-wins behaviour.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    public static String of(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /** @return the expected version, or {@code null} when any version is acceptable */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        // Список тегов не поддерживаем: у сущности ровно одна текущая версия
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Unrecognized If-Match: " + ifMatch);
+        }
+    }
+
+    public static void check(Long expected, Long actual) {
+        if (expected != null && !Objects.equals(expected, actual)) {
+            throw new PreconditionFailedException("Resource was modified (current version " + actual + ")");
+        }
+    }
+}
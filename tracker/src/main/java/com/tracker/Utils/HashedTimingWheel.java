@@ -0,0 +1,103 @@
+package com.tracker.Utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: deadlines are hashed by tick onto a ring of buckets, so scheduling,
+ * rescheduling and cancelling are O(1) and a tick only looks at one bucket.
+ * Deadlines further away than one revolution simply stay in their bucket until
+ * a later pass reaches their tick.
+ *
+ * The wheel owns no thread — whoever drives it calls {@link #advance(long)} periodically.
+ * Every entry has a key; scheduling an existing key replaces the previous entry.
+ */
+public class HashedTimingWheel<T> {
+    private final long tickMs;
+    private final int mask;
+    private final List<Map<Long, Entry<T>>> buckets;
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    private long currentTick;
+
+    public HashedTimingWheel(long tickMs, int wheelSize, long nowMs) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMs = tickMs;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new HashMap<>());
+        }
+        this.currentTick = nowMs / tickMs;
+    }
+
+    public synchronized void schedule(long key, long deadlineMs, T payload) {
+        // Уже прошедший срок срабатывает на ближайшем тике
+        long tick = Math.max(deadlineMs / tickMs, currentTick + 1);
+        Entry<T> entry = new Entry<>(key, tick, payload);
+
+        Entry<T> previous = entries.put(key, entry);
+        if (previous != null) {
+            bucket(previous.tick).remove(key);
+        }
+        bucket(tick).put(key, entry);
+    }
+
+    public synchronized boolean cancel(long key) {
+        Entry<T> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        bucket(entry.tick).remove(key);
+        return true;
+    }
+
+    /**
+     * Moves the wheel up to {@code nowMs} and removes everything that became due.
+     */
+    public synchronized List<T> advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        List<T> expired = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return expired;
+        }
+
+        // После долгой паузы достаточно одного полного оборота
+        long ticks = Math.min(targetTick - currentTick, buckets.size());
+        for (long i = 1; i <= ticks; i++) {
+            Iterator<Entry<T>> iterator = bucket(currentTick + i).values().iterator();
+            while (iterator.hasNext()) {
+                Entry<T> entry = iterator.next();
+                if (entry.tick <= targetTick) {
+                    iterator.remove();
+                    entries.remove(entry.key);
+                    expired.add(entry.payload);
+                }
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private Map<Long, Entry<T>> bucket(long tick) {
+        return buckets.get((int) (tick & mask));
+    }
+
+    private static final class Entry<T> {
+        final long key;
+        final long tick;
+        final T payload;
+
+        Entry(long key, long tick, T payload) {
+            this.key = key;
+            this.tick = tick;
+            this.payload = payload;
+        }
+    }
+}
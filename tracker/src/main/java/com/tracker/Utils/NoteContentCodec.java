@@ -0,0 +1,89 @@
+package com.tracker.Utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.tracker.Entity.Note;
+
+/**
+ * Decides how a note body is stored. Short bodies stay in {@code content} as plain text,
+ * longer ones go gzip-compressed into {@code content_gz}. Either way a short
+ * {@code summary} is stored alongside for list views, so they never read the body.
+ */
+@Component
+public class NoteContentCodec {
+
+    private final int compressThreshold;
+    private final int summaryLength;
+
+    // Настройки ограничены длиной колонок: иначе падало бы каждое сохранение заметки
+    public NoteContentCodec(
+        @Value("${notes.compress-threshold:255}") int compressThreshold,
+        @Value("${notes.summary-length:200}") int summaryLength
+    ) {
+        this.compressThreshold = Math.min(compressThreshold, Note.CONTENT_LENGTH);
+        // Ещё один символ — многоточие
+        this.summaryLength = Math.max(1, Math.min(summaryLength, Note.SUMMARY_LENGTH - 1));
+    }
+
+    public void write(Note note, String content) {
+        note.setSummary(summarize(content));
+        if (content != null && content.length() > compressThreshold) {
+            note.setContent(null);
+            note.setContentGz(compress(content));
+        } else {
+            note.setContent(content);
+            note.setContentGz(null);
+        }
+    }
+
+    public String read(Note note) {
+        return note.getContentGz() != null ? decompress(note.getContentGz()) : note.getContent();
+    }
+
+    public boolean shouldCompress(String content) {
+        return content != null && content.length() > compressThreshold;
+    }
+
+    public String summarize(String content) {
+        if (content == null) {
+            return "";
+        }
+        String collapsed = content.strip().replaceAll("\\s+", " ");
+        if (collapsed.length() <= summaryLength) {
+            return collapsed;
+        }
+        int end = summaryLength;
+        // Не режем суррогатную пару пополам
+        if (Character.isHighSurrogate(collapsed.charAt(end - 1))) {
+            end--;
+        }
+        return collapsed.substring(0, end) + "…";
+    }
+
+    public byte[] compress(String content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length() / 3 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public String decompress(byte[] compressed) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.tracker.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lexicographic keys for manual ordering. A key is a base-36 fraction written with
+ * {@code 0-9a-z}, so plain string comparison (and any database collation) orders it;
+ * a key never ends in {@code 0}, which keeps room for a key in front of it.
+ *
+ * New rows get {@link #now()} — the creation time plus a middle digit — so appends
+ * need no lookup of the current last key, and a task moved "to the end" is placed
+ * just below the key the next created task will receive.
+ */
+public final class RankKeys {
+    private static final String ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = ALPHABET.length();
+    private static final int TIME_WIDTH = 9;
+    private static final char TIME_SUFFIX = 'i';
+
+    private RankKeys() {}
+
+    public static String now() {
+        return forTime(System.currentTimeMillis());
+    }
+
+    public static String forTime(long millis) {
+        StringBuilder digits = new StringBuilder(Long.toString(millis, BASE));
+        while (digits.length() < TIME_WIDTH) {
+            digits.insert(0, '0');
+        }
+        return digits.append(TIME_SUFFIX).toString();
+    }
+
+    /**
+     * A key strictly between {@code lo} and {@code hi}; {@code null} stands for the start or the end.
+     *
+     * @throws IllegalArgumentException when {@code lo} is not below {@code hi}
+     */
+    public static String between(String lo, String hi) {
+        if (lo != null && hi != null && lo.compareTo(hi) >= 0) {
+            throw new IllegalArgumentException("No key between " + lo + " and " + hi);
+        }
+        String low = lo != null ? lo : "";
+        String high = hi;
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; ; i++) {
+            int l = i < low.length() ? digit(low.charAt(i)) : 0;
+            int h = high != null && i < high.length() ? digit(high.charAt(i)) : BASE;
+            if (l == h) {
+                key.append(ALPHABET.charAt(l));
+                continue;
+            }
+            int mid = (l + h) / 2;
+            if (mid > l) {
+                return key.append(ALPHABET.charAt(mid)).toString();
+            }
+            // Соседние цифры: берём нижнюю, дальше верхней границы уже нет
+            key.append(ALPHABET.charAt(l));
+            high = null;
+        }
+    }
+
+    /**
+     * {@code count} short, evenly spaced keys that all sort below keys created from now on.
+     */
+    public static List<String> spread(int count) {
+        long upper = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            keys.add(forTime(upper / (count + 1) * i));
+        }
+        return keys;
+    }
+
+    private static int digit(char c) {
+        int value = ALPHABET.indexOf(c);
+        if (value < 0) {
+            throw new IllegalArgumentException("Not a rank key character: " + c);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,91 @@
+package com.tracker.Utils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tracker.Entity.RecurrenceFrequency;
+
+/**
+ * Computes the occurrences of a recurrence rule inside a window without walking
+ * the series from its start: the first index in the window is found arithmetically,
+ * so the cost depends only on how many occurrences are visible.
+ *
+ * Occurrence {@code k} is always {@code start + k * interval units}, never derived from
+ * the previous one, so month-end dates don't drift (Jan 31 → Feb 28 → Mar 31).
+ */
+public final class RecurrenceExpander {
+
+    private RecurrenceExpander() {}
+
+    /**
+     * @return occurrences in {@code [from, to)}, at most {@code limit} of them
+     */
+    public static List<LocalDateTime> expand(
+        LocalDateTime start,
+        RecurrenceFrequency frequency,
+        int interval,
+        LocalDateTime until,
+        LocalDateTime from,
+        LocalDateTime to,
+        int limit
+    ) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        int step = Math.max(1, interval);
+
+        long index = 0;
+        if (from.isAfter(start)) {
+            index = unitsBetween(start, from, frequency) / step;
+        }
+
+        while (occurrences.size() < limit) {
+            LocalDateTime occurrence = occurrence(start, frequency, index * step);
+            if (!occurrence.isBefore(to) || (until != null && occurrence.isAfter(until))) {
+                break;
+            }
+            if (!occurrence.isBefore(from)) {
+                occurrences.add(occurrence);
+            }
+            index++;
+        }
+        return occurrences;
+    }
+
+    public static boolean isOccurrence(
+        LocalDateTime start,
+        RecurrenceFrequency frequency,
+        int interval,
+        LocalDateTime until,
+        LocalDateTime candidate
+    ) {
+        return expand(start, frequency, interval, until, candidate, candidate.plusNanos(1), 1)
+            .contains(candidate);
+    }
+
+    private static long unitsBetween(LocalDateTime start, LocalDateTime end, RecurrenceFrequency frequency) {
+        switch (frequency) {
+            case DAILY:
+                return ChronoUnit.DAYS.between(start, end);
+            case WEEKLY:
+                return ChronoUnit.WEEKS.between(start, end);
+            case MONTHLY:
+                return ChronoUnit.MONTHS.between(start, end);
+            default:
+                return ChronoUnit.YEARS.between(start, end);
+        }
+    }
+
+    private static LocalDateTime occurrence(LocalDateTime start, RecurrenceFrequency frequency, long units) {
+        switch (frequency) {
+            case DAILY:
+                return start.plusDays(units);
+            case WEEKLY:
+                return start.plusWeeks(units);
+            case MONTHLY:
+                return start.plusMonths(units);
+            default:
+                return start.plusYears(units);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.tracker.Utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size table of token buckets updated with CAS, no locks and no per-key allocation.
+ *
+ * Each slot packs the last refill time (40 bits, millis since the limiter was created)
+ * and the remaining tokens (24 bits, in thousandths of a token) into one long. Keys are
+ * hashed onto slots, so memory stays bounded no matter how many users show up; two keys
+ * that land on the same slot share a bucket, which with a table much larger than the
+ * number of concurrently active users only happens rarely and errs on the strict side.
+ */
+public class TokenBucketLimiter {
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long SCALE = 1000;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long capacity;
+    private final long refillPerMilli;
+    private final long origin = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * @param stripes number of slots, rounded up to a power of two
+     * @param burst bucket capacity in tokens
+     * @param tokensPerSecond refill rate
+     */
+    public TokenBucketLimiter(int stripes, int burst, int tokensPerSecond) {
+        if (burst <= 0 || burst * SCALE > TOKEN_MASK) {
+            throw new IllegalArgumentException("burst must be between 1 and " + TOKEN_MASK / SCALE);
+        }
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("tokensPerSecond must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.capacity = burst * SCALE;
+        // токенов/сек == тысячных долей токена в миллисекунду
+        this.refillPerMilli = tokensPerSecond;
+    }
+
+    /**
+     * Takes {@code permits} tokens from the key's bucket.
+     *
+     * @return {@code 0} when the tokens were taken, otherwise how many milliseconds
+     *         to wait until the bucket holds enough of them
+     */
+    public long tryAcquire(long key, int permits) {
+        int slot = index(key);
+        long cost = Math.min(capacity, permits * SCALE);
+
+        while (true) {
+            long state = slots.get(slot);
+            long now = now();
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+
+            // 0 — слот ещё ни разу не использовался: полный бакет
+            long available = state == 0
+                ? capacity
+                : Math.min(capacity, tokens + Math.max(0, now - last) * refillPerMilli);
+
+            if (available < cost) {
+                long deficit = cost - available;
+                return (deficit + refillPerMilli - 1) / refillPerMilli;
+            }
+            if (slots.compareAndSet(slot, state, (now << TOKEN_BITS) | (available - cost))) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return slots.length();
+    }
+
+    private long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+    }
+
+    private int index(long key) {
+        // fmix64 из MurmurHash3: соседние id не должны попадать в соседние слоты
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
@@ -0,0 +1,110 @@
+package com.tracker.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.tracker.DTO.RateLimitStats;
+import com.tracker.Entity.Role;
+import com.tracker.Entity.Status;
+import com.tracker.Entity.User;
+import com.tracker.Repository.CategoryRepository;
+import com.tracker.Repository.UserRepository;
+import com.tracker.Service.RateLimitService;
+import com.tracker.Utils.JwtUtils;
+
+/**
+ * The limiter sits in the security chain right after {@link JwtFilter}:
+ * a user over their burst gets 429 with Retry-After. Batches pay per operation.
+ */
+@SpringBootTest(properties = {
+    "rate-limit.burst=2",
+    "rate-limit.requests-per-second=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void requestsOverTheBurstAreRejected() throws Exception {
+        String authorization = authorization(newUser());
+
+        mockMvc.perform(get("/api/categories").header("Authorization", authorization))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories").header("Authorization", authorization))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories").header("Authorization", authorization))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void batchIsChargedPerOperation() throws Exception {
+        Long userId = newUser();
+
+        // Одна запись стоит два токена: вторая операция уже не помещается в бакет
+        mockMvc.perform(post("/api/batch")
+                .header("Authorization", authorization(userId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"operations\":["
+                    + "{\"op\":\"CREATE\",\"entity\":\"CATEGORY\",\"category\":{\"name\":\"A\"}},"
+                    + "{\"op\":\"CREATE\",\"entity\":\"CATEGORY\",\"category\":{\"name\":\"B\"}}]}"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists("Retry-After"));
+
+        assertEquals(0, categoryRepository.countByUserId(userId));
+    }
+
+    @Test
+    void unknownRoutesShareOneCounter() throws Exception {
+        String segment = UUID.randomUUID().toString();
+
+        mockMvc.perform(get("/api/" + segment).header("Authorization", authorization(newUser())));
+
+        assertEquals("tasks", RateLimitFilter.routeGroup("/api/tasks/42/occurrences"));
+        assertEquals("other", RateLimitFilter.routeGroup("/api/"));
+        List<String> groups = rateLimitService.getStats().stream().map(RateLimitStats::getGroup).toList();
+        assertTrue(groups.contains("other"), groups.toString());
+        assertFalse(groups.contains(segment), groups.toString());
+    }
+
+    private Long newUser() {
+        String email = UUID.randomUUID() + "@example.com";
+        return userRepository.save(new User("Test", email, Role.USER, Status.ACTIVE, "hash")).getId();
+    }
+
+    private String authorization(Long userId) {
+        String email = userRepository.findById(userId).orElseThrow().getEmail();
+        return "Bearer " + jwtUtils.generateToken(email, userId);
+    }
+}
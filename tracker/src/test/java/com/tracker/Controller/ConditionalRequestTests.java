@@ -0,0 +1,246 @@
+package com.tracker.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.tracker.DTO.CategoryRequest;
+import com.tracker.DTO.CategoryResponse;
+import com.tracker.DTO.HabitRequest;
+import com.tracker.DTO.HabitResponse;
+import com.tracker.DTO.NoteRequest;
+import com.tracker.DTO.NoteResponse;
+import com.tracker.DTO.TaskRequest;
+import com.tracker.DTO.TaskResponse;
+import com.tracker.Entity.Role;
+import com.tracker.Entity.Status;
+import com.tracker.Entity.User;
+import com.tracker.Repository.CategoryRepository;
+import com.tracker.Repository.HabitRepository;
+import com.tracker.Repository.UserRepository;
+import com.tracker.Service.CategoryService;
+import com.tracker.Service.HabitService;
+import com.tracker.Service.NoteService;
+import com.tracker.Service.TaskService;
+import com.tracker.Utils.JwtUtils;
+
+/**
+ * Optimistic locking over HTTP: a stale {@code If-Match} gets 412, {@code *} or no
+ * header overwrites, and PUT/PATCH return the new version as the ETag.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalRequestTests {
+    private static final String TASK = "{\"task\":\"%s\",\"status\":\"TODO\",\"priority\":\"HIGH\",\"dueDate\":\"2030-01-01T10:00:00\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private HabitService habitService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private HabitRepository habitRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private Long userId;
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@example.com";
+        userId = userRepository.save(new User("Test", email, Role.USER, Status.ACTIVE, "hash")).getId();
+        authorization = "Bearer " + jwtUtils.generateToken(email, userId);
+    }
+
+    @Test
+    void tasks() throws Exception {
+        TaskResponse task = taskService.save(userId, taskRequest());
+        long version = task.getVersion();
+        String uri = "/api/tasks/" + task.getId();
+
+        perform(put(uri), version, String.format(TASK, "First"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", etag(version + 1)))
+            .andExpect(jsonPath("$.version").value(version + 1));
+        perform(put(uri), version, String.format(TASK, "Stale")).andExpect(status().isPreconditionFailed());
+        perform(patch(uri), version, "{\"task\":\"Stale\"}").andExpect(status().isPreconditionFailed());
+        perform(delete(uri), version, null).andExpect(status().isPreconditionFailed());
+
+        perform(patch(uri), version + 1, "{\"task\":\"Second\"}")
+            .andExpect(status().isNoContent())
+            .andExpect(header().string("ETag", etag(version + 2)));
+
+        // Без If-Match и со звёздочкой — последняя запись побеждает
+        perform(put(uri), null, String.format(TASK, "Third"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", etag(version + 3)));
+        perform(patch(uri), "*", "{\"task\":\"Fourth\"}").andExpect(status().isNoContent());
+        perform(delete(uri), "*", null).andExpect(status().isOk());
+    }
+
+    @Test
+    void notes() throws Exception {
+        NoteResponse note = noteService.save(userId, noteRequest());
+        long version = note.getVersion();
+        String uri = "/api/notes/" + note.getId();
+
+        perform(put(uri), version, "{\"title\":\"First\",\"content\":\"Text\"}")
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", etag(version + 1)));
+        perform(put(uri), version, "{\"title\":\"Stale\",\"content\":\"Text\"}").andExpect(status().isPreconditionFailed());
+        perform(patch(uri), version, "{\"title\":\"Stale\"}").andExpect(status().isPreconditionFailed());
+        perform(delete(uri), version, null).andExpect(status().isPreconditionFailed());
+
+        perform(patch(uri), version + 1, "{\"title\":\"Second\"}")
+            .andExpect(status().isNoContent())
+            .andExpect(header().string("ETag", etag(version + 2)));
+
+        perform(patch(uri), null, "{\"title\":\"Third\"}").andExpect(status().isNoContent());
+        perform(delete(uri), null, null).andExpect(status().isOk());
+    }
+
+    @Test
+    void habits() throws Exception {
+        HabitResponse habit = habitService.save(userId, habitRequest());
+        long version = habit.getVersion();
+        String uri = "/api/habits/" + habit.getId();
+
+        perform(patch(uri), version, "{\"name\":\"First\"}")
+            .andExpect(status().isNoContent())
+            .andExpect(header().string("ETag", etag(version + 1)));
+        perform(patch(uri), version, "{\"name\":\"Stale\",\"done\":true}").andExpect(status().isPreconditionFailed());
+        perform(patch(uri), "*", "{\"name\":\"Second\"}").andExpect(status().isNoContent());
+
+        // Полная замена и удаление привычек доступны только через пакет
+        perform(post("/api/batch"), null, "{\"operations\":[{\"op\":\"DELETE\",\"entity\":\"HABIT\",\"id\":"
+                + habit.getId() + ",\"version\":" + version + "}]}")
+            .andExpect(status().isPreconditionFailed());
+        assertEquals(1, habitRepository.countByUserId(userId));
+        assertFalse(habitRepository.findById(habit.getId()).orElseThrow().isDone());
+    }
+
+    @Test
+    void categories() throws Exception {
+        CategoryResponse category = categoryService.save(userId, categoryRequest());
+        long version = category.getVersion();
+        String uri = "/api/categories/" + category.getId();
+
+        perform(put(uri), version, "{\"name\":\"First " + UUID.randomUUID() + "\"}")
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", etag(version + 1)));
+        perform(put(uri), version, "{\"name\":\"Stale " + UUID.randomUUID() + "\"}").andExpect(status().isPreconditionFailed());
+        perform(delete(uri), version, null).andExpect(status().isPreconditionFailed());
+
+        perform(put(uri), null, "{\"name\":\"Second " + UUID.randomUUID() + "\"}")
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", etag(version + 2)));
+        perform(delete(uri), "*", null).andExpect(status().isOk());
+        assertEquals(0, categoryRepository.countByUserId(userId));
+    }
+
+    @Test
+    void staleVersionRollsBackTheBatch() throws Exception {
+        TaskResponse task = taskService.save(userId, taskRequest());
+        taskService.update(userId, task.getId(), taskRequest(), task.getVersion());
+
+        perform(post("/api/batch"), null, "{\"operations\":["
+                + "{\"op\":\"CREATE\",\"entity\":\"CATEGORY\",\"category\":{\"name\":\"Batch\"}},"
+                + "{\"op\":\"PATCH\",\"entity\":\"TASK\",\"id\":" + task.getId() + ",\"version\":" + task.getVersion()
+                + ",\"taskPatch\":{\"task\":\"Stale\"}}]}")
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.committed").value(false))
+            .andExpect(jsonPath("$.failedIndex").value(1))
+            .andExpect(jsonPath("$.results[0].status").value(424))
+            .andExpect(jsonPath("$.results[1].status").value(412));
+
+        assertEquals(0, categoryRepository.countByUserId(userId));
+    }
+
+    private ResultActions perform(
+        MockHttpServletRequestBuilder request, Object ifMatch, String body
+    ) throws Exception {
+        request.header("Authorization", authorization);
+        if (ifMatch instanceof Long version) {
+            request.header("If-Match", etag(version));
+        } else if (ifMatch != null) {
+            request.header("If-Match", ifMatch);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(body);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static TaskRequest taskRequest() {
+        TaskRequest request = new TaskRequest();
+        request.setTask("Task " + UUID.randomUUID());
+        request.setStatus("TODO");
+        request.setPriority("HIGH");
+        request.setDueDate(LocalDateTime.of(2030, 1, 1, 10, 0));
+        return request;
+    }
+
+    private static NoteRequest noteRequest() {
+        NoteRequest request = new NoteRequest();
+        request.setTitle("Note");
+        request.setContent("Text");
+        return request;
+    }
+
+    private static HabitRequest habitRequest() {
+        HabitRequest request = new HabitRequest();
+        request.setName("Habit");
+        request.setDate(LocalDate.of(2030, 1, 1));
+        return request;
+    }
+
+    private static CategoryRequest categoryRequest() {
+        CategoryRequest request = new CategoryRequest();
+        request.setName("Category " + UUID.randomUUID());
+        return request;
+    }
+}
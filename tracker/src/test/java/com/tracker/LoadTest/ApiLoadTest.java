@@ -0,0 +1,166 @@
+package com.tracker.LoadTest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.Seed.SyntheticDataGenerator;
+
+/**
+ * Boots the whole application on a random port against an in-memory H2,
+ * seeds it with {@link SyntheticDataGenerator} and then hammers every controller with a
+ * mixed workload from many concurrent clients.
+ *
+ * Run with {@code ./mvnw -Ploadtest test}; knobs live in application-loadtest.properties
+ * and can be overridden with -D, e.g. {@code -Dloadtest.clients=64 -Dloadtest.duration-seconds=120}.
+ */
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Value("${loadtest.users}")
+    private int users;
+
+    @Value("${loadtest.clients}")
+    private int clients;
+
+    @Value("${loadtest.warmup-seconds}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.duration-seconds}")
+    private int durationSeconds;
+
+    @Value("${loadtest.heavy-users}")
+    private int heavyUsers;
+
+    @Value("${loadtest.heavy-factor}")
+    private int heavyFactor;
+
+    @Value("${loadtest.seed-tasks-per-user}")
+    private int seedTasksPerUser;
+
+    @Value("${loadtest.seed-notes-per-user}")
+    private int seedNotesPerUser;
+
+    @Value("${loadtest.report-file}")
+    private String reportFile;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        String baseUrl = "http://localhost:" + port;
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(Math.max(4, clients / 4));
+        HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(httpExecutor)
+            .build();
+
+        List<LatencyStats> results;
+        try {
+            List<LoadClient.Account> accounts = seed(http, baseUrl);
+
+            runPhase(http, baseUrl, accounts, warmupSeconds);
+            results = runPhase(http, baseUrl, accounts, durationSeconds);
+        } finally {
+            // Потоки клиента не демоны — без этого JVM тестов ждала бы их
+            httpExecutor.shutdownNow();
+        }
+
+        LatencyStats merged = new LatencyStats();
+        results.forEach(merged::mergeFrom);
+
+        String report = "Load test: " + clients + " clients, " + users + " users, "
+            + durationSeconds + "s\n" + merged.report(durationSeconds);
+        System.out.println(report);
+
+        Path path = Path.of(reportFile);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.writeString(path, report);
+    }
+
+    private List<LoadClient.Account> seed(HttpClient http, String baseUrl) throws Exception {
+        SyntheticDataGenerator.Spec spec = new SyntheticDataGenerator.Spec();
+        spec.setEmailPrefix("load");
+        spec.setUsers(users);
+        spec.setHeavyUsers(heavyUsers);
+        spec.setHeavyFactor(heavyFactor);
+        spec.setTasksPerUser(seedTasksPerUser);
+        spec.setNotesPerUser(seedNotesPerUser);
+
+        List<SyntheticDataGenerator.GeneratedUser> generated =
+            new SyntheticDataGenerator(jdbcTemplate, passwordEncoder).generate(spec);
+
+        List<LoadClient.Account> accounts = new ArrayList<>();
+        LatencyStats ignored = new LatencyStats();
+        for (SyntheticDataGenerator.GeneratedUser user : generated) {
+            LoadClient.Account account = new LoadClient.Account(user.getEmail(), user.getPassword());
+            account.categoryIds.addAll(user.getCategoryIds());
+            account.taskIds.addAll(jdbcTemplate.queryForList(
+                "select id from task where user_id = ? order by id limit 500", Long.class, user.getId()));
+            account.noteIds.addAll(jdbcTemplate.queryForList(
+                "select id from note where user_id = ? order by id limit 500", Long.class, user.getId()));
+            account.habitIds.addAll(jdbcTemplate.queryForList(
+                "select id from habit where user_id = ? order by id limit 500", Long.class, user.getId()));
+
+            new LoadClient(http, baseUrl, account, ignored, user.getId()).login();
+            accounts.add(account);
+        }
+        return accounts;
+    }
+
+    private List<LatencyStats> runPhase(
+        HttpClient http,
+        String baseUrl,
+        List<LoadClient.Account> accounts,
+        int seconds
+    ) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<LatencyStats>> futures = new ArrayList<>();
+
+        for (int i = 0; i < clients; i++) {
+            LoadClient.Account account = accounts.get(i % accounts.size());
+            long seed = 31L * i + seconds;
+            futures.add(pool.submit(() -> {
+                LatencyStats stats = new LatencyStats();
+                LoadClient client = new LoadClient(http, baseUrl, account, stats, seed);
+                while (System.nanoTime() < deadline) {
+                    client.step();
+                }
+                return stats;
+            }));
+        }
+
+        List<LatencyStats> results = new ArrayList<>();
+        for (Future<LatencyStats> future : futures) {
+            results.add(future.get());
+        }
+        pool.shutdown();
+        return results;
+    }
+}
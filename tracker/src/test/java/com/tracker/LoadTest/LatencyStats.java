@@ -0,0 +1,92 @@
+package com.tracker.LoadTest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency samples of one client, keyed by endpoint label.
+ * Each client thread owns its instance, so recording needs no locking;
+ * the harness merges all instances once the run is over.
+ */
+public class LatencyStats {
+    private final Map<String, Samples> byEndpoint = new TreeMap<>();
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        Samples samples = byEndpoint.computeIfAbsent(endpoint, key -> new Samples());
+        samples.add(nanos);
+        if (!ok) {
+            samples.errors++;
+        }
+    }
+
+    public void mergeFrom(LatencyStats other) {
+        other.byEndpoint.forEach((endpoint, samples) ->
+            byEndpoint.computeIfAbsent(endpoint, key -> new Samples()).addAll(samples));
+    }
+
+    public String report(double seconds) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%-28s %9s %9s %7s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+
+        long total = 0;
+        long totalErrors = 0;
+        for (Map.Entry<String, Samples> entry : byEndpoint.entrySet()) {
+            Samples samples = entry.getValue();
+            long[] sorted = samples.sorted();
+            total += sorted.length;
+            totalErrors += samples.errors;
+            out.append(String.format(Locale.ROOT, "%-28s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f%n",
+                entry.getKey(),
+                sorted.length,
+                sorted.length / seconds,
+                samples.errors,
+                millis(percentile(sorted, 50)),
+                millis(percentile(sorted, 90)),
+                millis(percentile(sorted, 99)),
+                millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+        }
+        out.append(String.format(Locale.ROOT, "%-28s %9d %9.1f %7d%n", "TOTAL", total, total / seconds, totalErrors));
+        return out.toString();
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Samples {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.tracker.LoadTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One simulated frontend session. Talks to the API over plain HTTP the same way
+ * the React client does and records the latency of every call into {@link LatencyStats}.
+ */
+public class LoadClient {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Account account;
+    private final LatencyStats stats;
+    private final Random random;
+
+    public LoadClient(HttpClient http, String baseUrl, Account account, LatencyStats stats, long seed) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.account = account;
+        this.stats = stats;
+        this.random = new Random(seed);
+    }
+
+    public static class Account {
+        final String email;
+        final String password;
+        volatile String token;
+        final List<Long> categoryIds = new ArrayList<>();
+        final List<Long> taskIds = new ArrayList<>();
+        final List<Long> noteIds = new ArrayList<>();
+        final List<Long> habitIds = new ArrayList<>();
+
+        public Account(String email, String password) {
+            this.email = email;
+            this.password = password;
+        }
+
+        synchronized void add(List<Long> ids, Long id) {
+            ids.add(id);
+        }
+
+        synchronized Long pick(List<Long> ids, Random random) {
+            return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+        }
+
+        synchronized Long take(List<Long> ids, Random random) {
+            return ids.isEmpty() ? null : ids.remove(random.nextInt(ids.size()));
+        }
+    }
+
+    // --- session and writes ----------------------------------------------
+
+    public void login() throws IOException, InterruptedException {
+        String body = "{\"email\":\"" + account.email + "\",\"password\":\"" + account.password + "\"}";
+        String response = send("auth.login", post("/auth/login", body, false), 200);
+        Matcher matcher = TOKEN.matcher(response == null ? "" : response);
+        if (matcher.find()) {
+            account.token = matcher.group(1);
+        }
+    }
+
+    public Long createCategory() throws IOException, InterruptedException {
+        String name = "cat-" + account.email + "-" + System.nanoTime();
+        Long id = extractId(send("categories.create", post("/api/categories", "{\"name\":\"" + name + "\"}", true), 200));
+        if (id != null) {
+            account.add(account.categoryIds, id);
+        }
+        return id;
+    }
+
+    public Long createTask() throws IOException, InterruptedException {
+        Long categoryId = account.pick(account.categoryIds, random);
+        if (categoryId == null) {
+            return null;
+        }
+        Long id = extractId(send("tasks.create", post("/api/tasks", taskBody(categoryId), true), 200));
+        if (id != null) {
+            account.add(account.taskIds, id);
+        }
+        return id;
+    }
+
+    public Long createNote() throws IOException, InterruptedException {
+        Long categoryId = account.pick(account.categoryIds, random);
+        if (categoryId == null) {
+            return null;
+        }
+        Long id = extractId(send("notes.create", post("/api/notes", noteBody(categoryId), true), 200));
+        if (id != null) {
+            account.add(account.noteIds, id);
+        }
+        return id;
+    }
+
+    public Long createHabit() throws IOException, InterruptedException {
+        // Привычки создаются, заменяются и удаляются только через пакет — как во фронтенде
+        Long id = extractId(send("habits.create", post("/api/batch", batch("CREATE", null, habitBody()), true), 200));
+        if (id != null) {
+            account.add(account.habitIds, id);
+        }
+        return id;
+    }
+
+    // --- mixed workload --------------------------------------------------
+
+    /**
+     * Runs one randomly chosen operation. Weights roughly follow what the
+     * frontend does: mostly list reads, a steady trickle of writes, rare logins.
+     */
+    public void step() throws IOException, InterruptedException {
+        int roll = random.nextInt(200);
+        if (roll < 6) {
+            login();
+        } else if (roll < 54) {
+            send("tasks.list", get("/api/tasks?page=" + random.nextInt(3) + "&size=20"), 200);
+        } else if (roll < 84) {
+            send("notes.list", get("/api/notes?page=" + random.nextInt(3) + "&size=20"), 200);
+        } else if (roll < 100) {
+            send("categories.list", get("/api/categories?size=50"), 200);
+        } else if (roll < 108) {
+            send("habits.list", get("/api/habits?size=50"), 200);
+        } else if (roll < 118) {
+            Long categoryId = account.pick(account.categoryIds, random);
+            if (categoryId != null) {
+                send("categories.tasks", get("/api/categories/" + categoryId + "/tasks"), 200);
+            }
+        } else if (roll < 136) {
+            createTask();
+        } else if (roll < 146) {
+            Long taskId = account.pick(account.taskIds, random);
+            if (taskId != null) {
+                String body = "{\"completed\":" + random.nextBoolean() + "}";
+                send("tasks.patch", patch("/api/tasks/" + taskId, body), 204);
+            }
+        } else if (roll < 155) {
+            Long taskId = account.pick(account.taskIds, random);
+            Long categoryId = account.pick(account.categoryIds, random);
+            if (taskId != null && categoryId != null) {
+                send("tasks.update", put("/api/tasks/" + taskId, taskBody(categoryId)), 200);
+            }
+        } else if (roll < 162) {
+            Long taskId = account.take(account.taskIds, random);
+            if (taskId != null) {
+                send("tasks.delete", delete("/api/tasks/" + taskId), 200);
+            }
+        } else if (roll < 172) {
+            createNote();
+        } else if (roll < 180) {
+            Long noteId = account.pick(account.noteIds, random);
+            Long categoryId = account.pick(account.categoryIds, random);
+            if (noteId != null && categoryId != null) {
+                send("notes.update", put("/api/notes/" + noteId, noteBody(categoryId)), 200);
+            }
+        } else if (roll < 185) {
+            Long noteId = account.take(account.noteIds, random);
+            if (noteId != null) {
+                send("notes.delete", delete("/api/notes/" + noteId), 200);
+            }
+        } else if (roll < 188) {
+            createCategory();
+        } else if (roll < 191) {
+            Long categoryId = account.pick(account.categoryIds, random);
+            if (categoryId != null) {
+                String body = "{\"name\":\"cat-" + account.email + "-" + System.nanoTime() + "\"}";
+                send("categories.update", put("/api/categories/" + categoryId, body), 200);
+            }
+        } else if (roll < 193) {
+            // Удалить можно только пустую категорию — заводим её здесь же
+            String name = "tmp-" + account.email + "-" + System.nanoTime();
+            Long categoryId = extractId(send("categories.create", post("/api/categories", "{\"name\":\"" + name + "\"}", true), 200));
+            if (categoryId != null) {
+                send("categories.delete", delete("/api/categories/" + categoryId), 200);
+            }
+        } else if (roll < 196) {
+            createHabit();
+        } else if (roll < 198) {
+            Long habitId = account.pick(account.habitIds, random);
+            if (habitId != null) {
+                send("habits.patch", patch("/api/habits/" + habitId, "{\"done\":" + random.nextBoolean() + "}"), 204);
+            }
+        } else if (roll < 199) {
+            Long habitId = account.pick(account.habitIds, random);
+            if (habitId != null) {
+                send("habits.update", post("/api/batch", batch("UPDATE", habitId, habitBody()), true), 200);
+            }
+        } else {
+            Long habitId = account.take(account.habitIds, random);
+            if (habitId != null) {
+                send("habits.delete", post("/api/batch", batch("DELETE", habitId, null), true), 200);
+            }
+        }
+    }
+
+    // --- http plumbing ---------------------------------------------------
+
+    private String taskBody(Long categoryId) {
+        return "{\"task\":\"Task " + random.nextInt(100_000) + "\","
+            + "\"description\":\"generated by load test\","
+            + "\"status\":\"" + (random.nextBoolean() ? "TODO" : "IN_PROGRESS") + "\","
+            + "\"priority\":\"MEDIUM\","
+            + "\"completed\":" + random.nextBoolean() + ","
+            + "\"categoryId\":" + categoryId + ","
+            + "\"dueDate\":\"" + LocalDateTime.now().plusDays(random.nextInt(30)).withNano(0) + "\"}";
+    }
+
+    private String noteBody(Long categoryId) {
+        return "{\"title\":\"Note " + random.nextInt(100_000) + "\","
+            + "\"content\":\"load test note body\","
+            + "\"categoryId\":" + categoryId + "}";
+    }
+
+    private String habitBody() {
+        return "{\"name\":\"Habit " + random.nextInt(100) + "\","
+            + "\"done\":" + random.nextBoolean() + ","
+            + "\"date\":\"" + LocalDate.now().minusDays(random.nextInt(30)) + "\"}";
+    }
+
+    // Пакет из одной операции над привычкой
+    private static String batch(String op, Long id, String habit) {
+        return "{\"operations\":[{\"op\":\"" + op + "\",\"entity\":\"HABIT\""
+            + (id != null ? ",\"id\":" + id : "")
+            + (habit != null ? ",\"habit\":" + habit : "")
+            + "}]}";
+    }
+
+    private HttpRequest.Builder request(String path, boolean authorized) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json");
+        if (authorized && account.token != null) {
+            builder.header("Authorization", "Bearer " + account.token);
+        }
+        return builder;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path, true).GET().build();
+    }
+
+    private HttpRequest post(String path, String body, boolean authorized) {
+        return request(path, authorized).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest put(String path, String body) {
+        return request(path, true).PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest patch(String path, String body) {
+        return request(path, true).method("PATCH", HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest delete(String path) {
+        return request(path, true).DELETE().build();
+    }
+
+    private String send(String endpoint, HttpRequest request, int expectedStatus)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            stats.record(endpoint, System.nanoTime() - start, response.statusCode() == expectedStatus);
+            return response.statusCode() == expectedStatus ? response.body() : null;
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    private static Long extractId(String body) {
+        if (body == null) {
+            return null;
+        }
+        Matcher matcher = ID.matcher(body);
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
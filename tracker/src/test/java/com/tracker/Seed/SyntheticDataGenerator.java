@@ -0,0 +1,203 @@
+package com.tracker.Seed;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Fills the schema with synthetic accounts for performance work.
+ *
+ * Rows go in through JDBC batches, bypassing the persistence context, so seeding
+ * hundreds of thousands of rows takes seconds. On Postgres add
+ * {@code reWriteBatchedInserts=true} to the JDBC url to collapse each batch into
+ * multi-row INSERTs.
+ *
+ * Account sizes are skewed on purpose: the first {@code heavyUsers} accounts are
+ * {@code heavyFactor} times larger than a typical one and the rest follow a
+ * log-normal spread, which is closer to production than uniform data.
+ */
+public class SyntheticDataGenerator {
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final String[] HABITS = {"Reading", "Workout", "Meditation", "Water", "Journal"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    @Getter
+    @Setter
+    public static class Spec {
+        private String emailPrefix = "synthetic";
+        private String password = "password";
+        private int users = 100;
+        private int heavyUsers = 3;
+        private int heavyFactor = 50;
+        private int categoriesPerUser = 8;
+        private int tasksPerUser = 200;
+        private int notesPerUser = 100;
+        private int habitDaysPerUser = 90;
+        private long seed = 42;
+    }
+
+    @Getter
+    public static class GeneratedUser {
+        private final Long id;
+        private final String email;
+        private final String password;
+        private final List<Long> categoryIds = new ArrayList<>();
+        private int tasks;
+        private int notes;
+
+        GeneratedUser(Long id, String email, String password) {
+            this.id = id;
+            this.email = email;
+            this.password = password;
+        }
+    }
+
+    public List<GeneratedUser> generate(Spec spec) {
+        Random random = new Random(spec.getSeed());
+        List<GeneratedUser> users = insertUsers(spec);
+
+        for (int i = 0; i < users.size(); i++) {
+            GeneratedUser user = users.get(i);
+            double scale = i < spec.getHeavyUsers()
+                ? spec.getHeavyFactor()
+                : Math.min(10.0, Math.exp(random.nextGaussian() * 0.75));
+
+            insertCategories(user, Math.max(1, (int) Math.round(spec.getCategoriesPerUser() * Math.sqrt(scale))));
+            user.tasks = insertTasks(user, (int) Math.round(spec.getTasksPerUser() * scale), random);
+            user.notes = insertNotes(user, (int) Math.round(spec.getNotesPerUser() * scale), random);
+            insertHabits(user, spec.getHabitDaysPerUser(), random);
+        }
+        return users;
+    }
+
+    private List<GeneratedUser> insertUsers(Spec spec) {
+        String hash = passwordEncoder.encode(spec.getPassword());
+        Timestamp now = Timestamp.from(Instant.now());
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < spec.getUsers(); i++) {
+            emails.add(spec.getEmailPrefix() + i + "@example.com");
+        }
+
+        batch("insert into users (name, email, role, registration_date, encoded_password) values (?, ?, ?, ?, ?)",
+            emails.size(), (ps, i) -> {
+                ps.setString(1, "Synthetic " + i);
+                ps.setString(2, emails.get(i));
+                ps.setString(3, "USER");
+                ps.setTimestamp(4, now);
+                ps.setString(5, hash);
+            });
+
+        List<GeneratedUser> users = new ArrayList<>();
+        for (String email : emails) {
+            Long id = jdbcTemplate.queryForObject("select id from users where email = ?", Long.class, email);
+            users.add(new GeneratedUser(id, email, spec.getPassword()));
+        }
+        return users;
+    }
+
+    private void insertCategories(GeneratedUser user, int count) {
+        // category.name is globally unique, so the owner id is part of the name
+        batch("insert into category (name, user_id) values (?, ?)", count, (ps, i) -> {
+            ps.setString(1, "Category " + i + " of " + user.getId());
+            ps.setLong(2, user.getId());
+        });
+        user.categoryIds.addAll(jdbcTemplate.queryForList(
+            "select id from category where user_id = ? order by id", Long.class, user.getId()));
+    }
+
+    private int insertTasks(GeneratedUser user, int count, Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        batch("insert into task (task, description, status, priority, is_completed, due_date, category_id, user_id, created_at) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?)", count, (ps, i) -> {
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            ps.setString(1, "Task " + i);
+            ps.setString(2, random.nextInt(4) == 0 ? null : "Description of task " + i);
+            ps.setString(3, status);
+            ps.setString(4, PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            ps.setBoolean(5, "DONE".equals(status));
+            ps.setTimestamp(6, Timestamp.valueOf(now.plusHours(random.nextInt(24 * 120) - 24 * 60)));
+            ps.setLong(7, pickCategory(user, random));
+            ps.setLong(8, user.getId());
+            ps.setTimestamp(9, Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 365))));
+        });
+        return count;
+    }
+
+    private int insertNotes(GeneratedUser user, int count, Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        batch("insert into note (title, content, summary, category_id, user_id, created_at) values (?, ?, ?, ?, ?, ?)",
+            count, (ps, i) -> {
+                String content = "Lorem ipsum ".repeat(1 + random.nextInt(20));
+                ps.setString(1, "Note " + i);
+                ps.setString(2, content);
+                ps.setString(3, content.strip());
+                ps.setLong(4, pickCategory(user, random));
+                ps.setLong(5, user.getId());
+                ps.setTimestamp(6, Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 365))));
+            });
+        return count;
+    }
+
+    private void insertHabits(GeneratedUser user, int days, Random random) {
+        int habits = 1 + random.nextInt(HABITS.length);
+        LocalDate today = LocalDate.now();
+        batch("insert into habit (name, is_done, date, user_id) values (?, ?, ?, ?)", days * habits, (ps, i) -> {
+            ps.setString(1, HABITS[i % habits]);
+            ps.setBoolean(2, random.nextInt(3) != 0);
+            ps.setObject(3, today.minusDays(i / habits));
+            ps.setLong(4, user.getId());
+        });
+    }
+
+    private static long pickCategory(GeneratedUser user, Random random) {
+        // Zipf-like: the first categories of an account hold most of its items
+        int size = user.categoryIds.size();
+        int index = (int) Math.min(size - 1, Math.floor(Math.abs(random.nextGaussian()) * size / 3.0));
+        return user.categoryIds.get(index);
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    private void batch(String sql, int rows, RowSetter setter) {
+        for (int start = 0; start < rows; start += BATCH_SIZE) {
+            int from = start;
+            int size = Math.min(BATCH_SIZE, rows - start);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, from + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tracker.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.DTO.CalendarDay;
+import com.tracker.DTO.TaskOccurrenceResponse;
+import com.tracker.DTO.TaskPatchRequest;
+import com.tracker.DTO.TaskRequest;
+import com.tracker.Entity.RecurrenceFrequency;
+import com.tracker.Entity.Role;
+import com.tracker.Entity.Status;
+import com.tracker.Entity.User;
+import com.tracker.Repository.UserRepository;
+
+/**
+ * Calendar days follow the due date of stored occurrences, including ones moved across the window edges.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CalendarTests {
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void movedOccurrencesLandOnTheirNewDay() {
+        String email = UUID.randomUUID() + "@example.com";
+        Long userId = userRepository.save(new User("Test", email, Role.USER, Status.ACTIVE, "hash")).getId();
+
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        TaskRequest daily = task("Daily", start);
+        daily.setRecurrenceFrequency(RecurrenceFrequency.DAILY);
+        Long seriesId = taskService.save(userId, daily).getId();
+        taskService.save(userId, task("Single", LocalDateTime.of(2030, 1, 12, 9, 0)));
+
+        // Из окна назад, из окна вперёд и снаружи в окно
+        move(userId, seriesId, start.plusDays(9), LocalDateTime.of(2030, 1, 5, 10, 0));
+        move(userId, seriesId, start.plusDays(11), LocalDateTime.of(2030, 1, 20, 10, 0));
+        move(userId, seriesId, start.plusDays(2), LocalDateTime.of(2030, 1, 11, 8, 0));
+
+        List<CalendarDay> days = new ArrayList<>();
+        calendarService.forEachDay(userId, LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), days::add);
+
+        assertEquals(3, days.size());
+        assertEquals(List.of(), titles(days.get(0)));
+        assertEquals(List.of("Daily", "Daily"), titles(days.get(1)));
+        assertEquals(LocalDateTime.of(2030, 1, 3, 10, 0), days.get(1).getTasks().get(0).getOccurrenceDate());
+        assertEquals(List.of("Single"), titles(days.get(2)));
+    }
+
+    private void move(Long userId, Long seriesId, LocalDateTime occurrence, LocalDateTime dueDate) {
+        TaskPatchRequest request = new TaskPatchRequest();
+        request.setDueDate(dueDate);
+        taskService.patchOccurrence(userId, seriesId, occurrence, request);
+    }
+
+    private static List<String> titles(CalendarDay day) {
+        return day.getTasks().stream().map(TaskOccurrenceResponse::getTask).toList();
+    }
+
+    private static TaskRequest task(String title, LocalDateTime dueDate) {
+        TaskRequest request = new TaskRequest();
+        request.setTask(title);
+        request.setStatus("TODO");
+        request.setPriority("HIGH");
+        request.setDueDate(dueDate);
+        return request;
+    }
+}
@@ -0,0 +1,131 @@
+package com.tracker.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.DTO.CategoryMoveRequest;
+import com.tracker.DTO.CategoryRequest;
+import com.tracker.DTO.NoteRequest;
+import com.tracker.DTO.TaskRequest;
+import com.tracker.Entity.Role;
+import com.tracker.Entity.Status;
+import com.tracker.Entity.User;
+import com.tracker.Exceptions.CategoryInUseException;
+import com.tracker.Exceptions.InvalidFieldsException;
+import com.tracker.Repository.UserRepository;
+
+/**
+ * Subtree reads and moves over the category closure table.
+ * Tree: work -> project -> sprint, plus a separate root home.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoryTreeTests {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private Long work;
+    private Long project;
+    private Long sprint;
+    private Long home;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@example.com";
+        userId = userRepository.save(new User("Test", email, Role.USER, Status.ACTIVE, "hash")).getId();
+
+        work = category(null);
+        project = category(work);
+        sprint = category(project);
+        home = category(null);
+
+        for (Long categoryId : List.of(work, project, sprint, home)) {
+            taskService.save(userId, taskRequest(categoryId));
+            noteService.save(userId, noteRequest(categoryId));
+        }
+    }
+
+    @Test
+    void descendantsAreIncludedOnlyWhenAsked() {
+        assertEquals(1, categoryService.getTasksByCategoryAndUserId(userId, work, false).size());
+        assertEquals(3, categoryService.getTasksByCategoryAndUserId(userId, work, true).size());
+        assertEquals(3, categoryService.getNotesByCategoryAndUserId(userId, work, true).size());
+        assertEquals(1, categoryService.getTasksByCategoryAndUserId(userId, sprint, true).size());
+    }
+
+    @Test
+    void subtreeMovesWithItsRoot() {
+        categoryService.move(userId, project, moveTo(home), null);
+
+        assertEquals(1, categoryService.getTasksByCategoryAndUserId(userId, work, true).size());
+        assertEquals(3, categoryService.getNotesByCategoryAndUserId(userId, home, true).size());
+
+        categoryService.move(userId, project, moveTo(null), null);
+
+        assertEquals(1, categoryService.getTasksByCategoryAndUserId(userId, home, true).size());
+        assertEquals(2, categoryService.getTasksByCategoryAndUserId(userId, project, true).size());
+    }
+
+    @Test
+    void categoryCannotMoveIntoItsOwnSubtree() {
+        assertThrows(InvalidFieldsException.class, () -> categoryService.move(userId, work, moveTo(sprint), null));
+        assertThrows(InvalidFieldsException.class, () -> categoryService.move(userId, work, moveTo(work), null));
+    }
+
+    @Test
+    void categoryWithChildrenCannotBeDeleted() {
+        assertThrows(CategoryInUseException.class, () -> categoryService.delete(userId, project, null));
+    }
+
+    private Long category(Long parentId) {
+        CategoryRequest request = new CategoryRequest();
+        request.setName("Category " + UUID.randomUUID());
+        request.setParentId(parentId);
+        return categoryService.save(userId, request).getId();
+    }
+
+    private static CategoryMoveRequest moveTo(Long parentId) {
+        CategoryMoveRequest request = new CategoryMoveRequest();
+        request.setParentId(parentId);
+        return request;
+    }
+
+    private static TaskRequest taskRequest(Long categoryId) {
+        TaskRequest request = new TaskRequest();
+        request.setTask("Write tests");
+        request.setStatus("TODO");
+        request.setPriority("HIGH");
+        request.setCategoryId(categoryId);
+        request.setDueDate(LocalDateTime.now().plusDays(1));
+        return request;
+    }
+
+    private static NoteRequest noteRequest(Long categoryId) {
+        NoteRequest request = new NoteRequest();
+        request.setTitle("Title");
+        request.setContent("Content");
+        request.setCategoryId(categoryId);
+        return request;
+    }
+}
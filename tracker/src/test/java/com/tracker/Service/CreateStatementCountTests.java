@@ -0,0 +1,163 @@
+package com.tracker.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.DTO.CategoryRequest;
+import com.tracker.DTO.HabitRequest;
+import com.tracker.DTO.NoteRequest;
+import com.tracker.DTO.TaskRequest;
+import com.tracker.Entity.Role;
+import com.tracker.Entity.Status;
+import com.tracker.Entity.User;
+import com.tracker.Exceptions.CategoryNotFoundException;
+import com.tracker.Repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Create paths must cost at most one read (the category ownership check) plus the INSERT.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CreateStatementCountTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private HabitService habitService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = createUser();
+        categoryId = categoryService.save(userId, categoryRequest()).getId();
+        statistics.clear();
+    }
+
+    @Test
+    void categoryCreateIsSingleInsert() {
+        categoryService.save(userId, categoryRequest());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void childCategoryCreateIsOwnershipCheckPlusTwoInserts() {
+        CategoryRequest request = categoryRequest();
+        request.setParentId(categoryId);
+
+        categoryService.save(userId, request);
+
+        // INSERT категории и один INSERT ... SELECT путей от всех предков
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void habitCreateIsSingleInsert() {
+        HabitRequest request = new HabitRequest();
+        request.setName("Reading");
+        request.setDone(false);
+        request.setDate(LocalDate.now());
+
+        habitService.save(userId, request);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void doneHabitCreateAlsoTouchesOneRollupRow() {
+        HabitRequest request = new HabitRequest();
+        request.setName("Reading");
+        request.setDone(true);
+        request.setDate(LocalDate.now());
+
+        habitService.save(userId, request);
+
+        // INSERT привычки, затем UPDATE строки сводки и INSERT, так как её ещё нет
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void taskCreateIsOwnershipCheckPlusInsert() {
+        taskService.save(userId, taskRequest(categoryId));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void noteCreateIsOwnershipCheckPlusInsert() {
+        noteService.save(userId, noteRequest(categoryId));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void foreignCategoryIsRejectedWithoutInsert() {
+        Long otherUserId = createUser();
+
+        assertThrows(CategoryNotFoundException.class,
+            () -> taskService.save(otherUserId, taskRequest(categoryId)));
+        assertThrows(CategoryNotFoundException.class,
+            () -> noteService.save(otherUserId, noteRequest(categoryId)));
+        assertEquals(0, statistics.getEntityInsertCount());
+    }
+
+    private Long createUser() {
+        String email = UUID.randomUUID() + "@example.com";
+        return userRepository.save(new User("Test", email, Role.USER, Status.ACTIVE, "hash")).getId();
+    }
+
+    private static CategoryRequest categoryRequest() {
+        CategoryRequest request = new CategoryRequest();
+        request.setName("Category " + UUID.randomUUID());
+        return request;
+    }
+
+    private static TaskRequest taskRequest(Long categoryId) {
+        TaskRequest request = new TaskRequest();
+        request.setTask("Write tests");
+        request.setStatus("TODO");
+        request.setPriority("HIGH");
+        request.setCategoryId(categoryId);
+        request.setDueDate(LocalDateTime.now().plusDays(1));
+        return request;
+    }
+
+    private static NoteRequest noteRequest(Long categoryId) {
+        NoteRequest request = new NoteRequest();
+        request.setTitle("Title");
+        request.setContent("Content");
+        request.setCategoryId(categoryId);
+        return request;
+    }
+}
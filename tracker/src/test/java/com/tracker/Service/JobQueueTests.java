@@ -0,0 +1,194 @@
+package com.tracker.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.DTO.JobResponse;
+import com.tracker.Entity.JobStatus;
+
+/**
+ * Claiming, retries, visibility timeout and per-queue limits against the embedded H2.
+ * The poller is off; every test drives {@link JobQueueService#runDue()} itself.
+ */
+@SpringBootTest(properties = "jobs.enabled=false")
+@ActiveProfiles("test")
+class JobQueueTests {
+
+    @Autowired
+    private JobQueueService jobQueueService;
+
+    @Autowired
+    private FlakyHandler flakyHandler;
+
+    @Autowired
+    private BlockingHandler blockingHandler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void jobRunsOnce() throws InterruptedException {
+        String jobId = jobQueueService.enqueue(FlakyHandler.QUEUE, "ok");
+
+        JobResponse job = runUntilFinished(jobId);
+
+        assertEquals(JobStatus.DONE, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertEquals(1, flakyHandler.runs("ok"));
+    }
+
+    @Test
+    void failedJobIsRetriedUntilItSucceeds() throws InterruptedException {
+        String jobId = jobQueueService.enqueue(FlakyHandler.QUEUE, "fail-2");
+
+        JobResponse job = runUntilFinished(jobId);
+
+        assertEquals(JobStatus.DONE, job.getStatus());
+        assertEquals(3, job.getAttempts());
+    }
+
+    @Test
+    void jobFailsAfterMaxAttempts() throws InterruptedException {
+        String jobId = jobQueueService.enqueue(FlakyHandler.QUEUE, "fail-9");
+
+        JobResponse job = runUntilFinished(jobId);
+
+        assertEquals(JobStatus.FAILED, job.getStatus());
+        assertEquals(FlakyHandler.MAX_ATTEMPTS, job.getAttempts());
+        assertEquals("boom", job.getLastError());
+    }
+
+    @Test
+    void expiredLockIsReclaimed() throws InterruptedException {
+        String jobId = jobQueueService.enqueue(FlakyHandler.QUEUE, "abandoned");
+        // Воркер забрал задачу и умер: RUNNING с истёкшим таймаутом видимости
+        jdbcTemplate.update("update job_queue set status = 'RUNNING', attempts = 1, "
+            + "locked_until = dateadd('SECOND', -1, current_timestamp) where id = ?", rowId(jobId));
+
+        JobResponse job = runUntilFinished(jobId);
+
+        assertEquals(JobStatus.DONE, job.getStatus());
+        assertEquals(2, job.getAttempts());
+    }
+
+    @Test
+    void queueConcurrencyIsLimited() throws InterruptedException {
+        String first = jobQueueService.enqueue(BlockingHandler.QUEUE, "a");
+        String second = jobQueueService.enqueue(BlockingHandler.QUEUE, "b");
+
+        jobQueueService.runDue();
+        assertTrue(blockingHandler.started.await(5, TimeUnit.SECONDS));
+        jobQueueService.runDue();
+
+        assertEquals(1, blockingHandler.running.get());
+        assertEquals(JobStatus.PENDING, jobQueueService.find(second).orElseThrow().getStatus());
+
+        blockingHandler.release.countDown();
+        assertEquals(JobStatus.DONE, runUntilFinished(first).getStatus());
+        assertEquals(JobStatus.DONE, runUntilFinished(second).getStatus());
+    }
+
+    private JobResponse runUntilFinished(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            JobResponse job = jobQueueService.find(jobId).orElseThrow();
+            if (job.getStatus() == JobStatus.DONE || job.getStatus() == JobStatus.FAILED) {
+                return job;
+            }
+            jobQueueService.runDue();
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Job " + jobId + " did not finish");
+    }
+
+    private static long rowId(String jobId) {
+        return Long.parseLong(jobId.substring(jobId.indexOf('-') + 1));
+    }
+
+    @TestConfiguration
+    static class Handlers {
+        @Bean
+        FlakyHandler flakyHandler() {
+            return new FlakyHandler();
+        }
+
+        @Bean
+        BlockingHandler blockingHandler() {
+            return new BlockingHandler();
+        }
+    }
+
+    /** Payload {@code fail-N}: the first N attempts throw. */
+    static class FlakyHandler implements JobHandler {
+        static final String QUEUE = "test-flaky";
+        static final int MAX_ATTEMPTS = 3;
+
+        private final ConcurrentHashMap<String, AtomicInteger> runs = new ConcurrentHashMap<>();
+
+        @Override
+        public String queue() {
+            return QUEUE;
+        }
+
+        @Override
+        public int maxAttempts() {
+            return MAX_ATTEMPTS;
+        }
+
+        @Override
+        public Duration backoff(int attempt) {
+            return Duration.ZERO;
+        }
+
+        @Override
+        public void handle(JobContext context) {
+            int run = runs.computeIfAbsent(context.getPayload(), key -> new AtomicInteger()).incrementAndGet();
+            if (context.getPayload().startsWith("fail-")
+                    && run <= Integer.parseInt(context.getPayload().substring("fail-".length()))) {
+                throw new IllegalStateException("boom");
+            }
+        }
+
+        int runs(String payload) {
+            return runs.getOrDefault(payload, new AtomicInteger()).get();
+        }
+    }
+
+    static class BlockingHandler implements JobHandler {
+        static final String QUEUE = "test-blocking";
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+
+        @Override
+        public String queue() {
+            return QUEUE;
+        }
+
+        @Override
+        public void handle(JobContext context) throws InterruptedException {
+            running.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+}
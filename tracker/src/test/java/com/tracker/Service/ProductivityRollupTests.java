@@ -0,0 +1,110 @@
+package com.tracker.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.DTO.CompletionPoint;
+import com.tracker.DTO.HabitPatchRequest;
+import com.tracker.DTO.HabitRequest;
+import com.tracker.DTO.TaskPatchRequest;
+import com.tracker.DTO.TaskRequest;
+import com.tracker.Entity.Role;
+import com.tracker.Entity.Status;
+import com.tracker.Entity.User;
+import com.tracker.Repository.UserRepository;
+
+/**
+ * Rollup counters follow completion changes made through PATCH.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductivityRollupTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private HabitService habitService;
+
+    @Autowired
+    private ProductivityService productivityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@example.com";
+        userId = userRepository.save(new User("Test", email, Role.USER, Status.ACTIVE, "hash")).getId();
+    }
+
+    @Test
+    void taskIsCountedOnceAndUncounted() {
+        Long taskId = taskService.save(userId, taskRequest()).getId();
+
+        taskService.patch(userId, taskId, completed(true), null);
+        taskService.patch(userId, taskId, completed(true), null);
+        assertEquals(1, today().getTasksCompleted());
+
+        taskService.patch(userId, taskId, completed(false), null);
+        assertEquals(0, today().getTasksCompleted());
+
+        taskService.patch(userId, taskId, completed(true), null);
+        assertEquals(1, today().getTasksCompleted());
+    }
+
+    @Test
+    void habitMovesBetweenDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        HabitRequest request = new HabitRequest();
+        request.setName("Read");
+        request.setDone(false);
+        request.setDate(yesterday);
+        Long habitId = habitService.save(userId, request).getId();
+
+        HabitPatchRequest done = new HabitPatchRequest();
+        done.setDone(true);
+        habitService.patch(userId, habitId, done, null);
+        assertEquals(1, day(yesterday).getHabitsCompleted());
+
+        HabitPatchRequest moved = new HabitPatchRequest();
+        moved.setDate(LocalDate.now());
+        habitService.patch(userId, habitId, moved, null);
+        assertEquals(0, day(yesterday).getHabitsCompleted());
+        assertEquals(1, today().getHabitsCompleted());
+    }
+
+    private CompletionPoint today() {
+        return day(LocalDate.now());
+    }
+
+    private CompletionPoint day(LocalDate date) {
+        return productivityService.getCompletions(userId, ProductivityService.Granularity.DAY, date, date, null).get(0);
+    }
+
+    private static TaskPatchRequest completed(boolean completed) {
+        TaskPatchRequest request = new TaskPatchRequest();
+        request.setCompleted(completed);
+        return request;
+    }
+
+    private static TaskRequest taskRequest() {
+        TaskRequest request = new TaskRequest();
+        request.setTask("Write tests");
+        request.setStatus("TODO");
+        request.setPriority("HIGH");
+        request.setDueDate(LocalDateTime.now().plusDays(1));
+        return request;
+    }
+}
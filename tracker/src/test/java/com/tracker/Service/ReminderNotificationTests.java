@@ -0,0 +1,104 @@
+package com.tracker.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.DTO.TaskRequest;
+import com.tracker.Entity.Notification;
+import com.tracker.Entity.RecurrenceFrequency;
+import com.tracker.Entity.Role;
+import com.tracker.Entity.Status;
+import com.tracker.Entity.User;
+import com.tracker.Repository.NotificationRepository;
+import com.tracker.Repository.UserRepository;
+
+/**
+ * Reminders fire through the timing wheel, follow recurring tasks past their first
+ * occurrence and fit the notification message column.
+ */
+@SpringBootTest(properties = {
+    "reminders.enabled=true",
+    "reminders.tick-ms=50",
+    "reminders.lead-minutes=0"
+})
+@ActiveProfiles("test")
+class ReminderNotificationTests {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void longTitleIsShortenedToFitTheMessage() throws InterruptedException {
+        Long userId = newUser();
+
+        TaskRequest request = task("x".repeat(255), LocalDateTime.now().plusSeconds(1));
+        taskService.save(userId, request);
+        reminderService.loadUpcoming();
+
+        // При нулевом упреждении UPCOMING и OVERDUE срабатывают в один тик
+        List<Notification> notifications = awaitNotifications(userId, 2);
+        assertEquals(2, notifications.size());
+        for (Notification notification : notifications) {
+            assertTrue(notification.getMessage().length() <= Notification.MESSAGE_LENGTH);
+            assertTrue(notification.getMessage().startsWith("Task \"xxx"));
+        }
+    }
+
+    @Test
+    void seriesStartedEarlierIsRemindedOfTodaysOccurrence() throws InterruptedException {
+        Long userId = newUser();
+
+        TaskRequest request = task("Daily", LocalDateTime.now().plusSeconds(1).minusDays(1));
+        request.setRecurrenceFrequency(RecurrenceFrequency.DAILY);
+        taskService.save(userId, request);
+        reminderService.loadUpcoming();
+
+        List<Notification> notifications = awaitNotifications(userId, 2);
+        assertEquals(2, notifications.size());
+        for (Notification notification : notifications) {
+            assertTrue(notification.getMessage().startsWith("Task \"Daily\""));
+        }
+    }
+
+    private List<Notification> awaitNotifications(Long userId, int count) throws InterruptedException {
+        List<Notification> notifications = List.of();
+        for (int attempt = 0; attempt < 100 && notifications.size() < count; attempt++) {
+            Thread.sleep(100);
+            notifications = notificationRepository.findAllByUserIdOrderByIdDesc(userId, Pageable.unpaged()).getContent();
+        }
+        return notifications;
+    }
+
+    private Long newUser() {
+        String email = UUID.randomUUID() + "@example.com";
+        return userRepository.save(new User("Test", email, Role.USER, Status.ACTIVE, "hash")).getId();
+    }
+
+    private static TaskRequest task(String title, LocalDateTime dueDate) {
+        TaskRequest request = new TaskRequest();
+        request.setTask(title);
+        request.setStatus("TODO");
+        request.setPriority("HIGH");
+        request.setDueDate(dueDate);
+        return request;
+    }
+}
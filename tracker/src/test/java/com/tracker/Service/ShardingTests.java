@@ -0,0 +1,195 @@
+package com.tracker.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.Config.ShardContext;
+import com.tracker.DTO.CategoryRequest;
+import com.tracker.DTO.ShardMigrationResponse;
+import com.tracker.DTO.TaskRequest;
+import com.tracker.DTO.UserRequest;
+import com.tracker.Repository.UserRepository;
+
+/**
+ * Routing, provisioning and moving users across three embedded H2 shards.
+ */
+@SpringBootTest
+@ActiveProfiles("sharding")
+class ShardingTests {
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardMigrationService shardMigrationService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void ringIsStableAndUsesEveryShard() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (long userId = 1; userId <= 3000; userId++) {
+            int shard = shardRouter.ringShardFor(userId);
+            assertEquals(shard, shardRouter.ringShardFor(userId));
+            counts.merge(shard, 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 500, "uneven ring: " + counts));
+    }
+
+    @Test
+    void registeredUserIsProvisionedOnHomeShard() {
+        Long userId = register();
+        int home = shardRouter.shardFor(userId);
+
+        assertEquals(1, countRows(0, "users", "id", userId));
+        assertEquals(1, countRows(home, "users", "id", userId));
+    }
+
+    @Test
+    void dataLivesOnlyOnHomeShardAndMovesWithUser() {
+        Long userId = register();
+        int home = shardRouter.shardFor(userId);
+        Long taskId = ShardContext.callOn(home, () -> createTask(userId));
+
+        // id из диапазона шарда — при переезде строки сохраняют id без конфликтов
+        assertTrue(taskId >= home * ShardRouter.ID_RANGE_PER_SHARD);
+        assertTrue(taskId < (home + 1) * ShardRouter.ID_RANGE_PER_SHARD);
+        for (int shard : shardRouter.getShardIds()) {
+            assertEquals(shard == home ? 1 : 0, countRows(shard, "task", "user_id", userId));
+        }
+
+        int target = (home + 1) % shardRouter.getShardIds().size();
+        ShardMigrationResponse response = shardMigrationService.migrate(userId, target);
+
+        assertEquals(home, response.getFromShard());
+        assertEquals(target, response.getToShard());
+        assertEquals(target, shardRouter.shardFor(userId));
+        assertEquals(1, countRows(target, "task", "user_id", userId));
+        assertEquals(0, countRows(home, "task", "user_id", userId));
+        assertEquals(1, countRows(0, "users", "id", userId));
+
+        String title = ShardContext.callOn(target, () ->
+            taskService.getAllByUserId(userId, Pageable.unpaged()).getContent().get(0).getTask());
+        assertEquals("Sharded", title);
+    }
+
+    @Test
+    void fencedUserStaysOnShardReadOnlyUntilAssigned() {
+        Long userId = register();
+        int home = shardRouter.shardFor(userId);
+
+        shardRouter.fence(userId, home);
+        assertEquals(new ShardRouter.Placement(home, true), shardRouter.placementOf(userId));
+
+        shardRouter.assign(userId, home);
+        assertEquals(new ShardRouter.Placement(home, false), shardRouter.placementOf(userId));
+        assertFalse(shardRouter.hasAssignment(userId));
+    }
+
+    @Test
+    void readsUseTheCachedPlacementUntilTheDirectoryIsRead() {
+        Long userId = register();
+        int home = shardRouter.shardFor(userId);
+        assertEquals(new ShardRouter.Placement(home, false), shardRouter.cachedPlacementOf(userId));
+
+        // Забор, поставленный другим экземпляром, виден только через каталог
+        new JdbcTemplate(shardRouter.getDataSource(0)).update(
+            "insert into shard_assignment (user_id, shard, read_only, assigned_at) values (?, ?, true, ?)",
+            userId, home, Timestamp.from(Instant.now()));
+        try {
+            assertEquals(new ShardRouter.Placement(home, false), shardRouter.cachedPlacementOf(userId));
+            assertEquals(new ShardRouter.Placement(home, true), shardRouter.placementOf(userId));
+            assertEquals(new ShardRouter.Placement(home, true), shardRouter.cachedPlacementOf(userId));
+        } finally {
+            shardRouter.unassign(userId);
+        }
+    }
+
+    @Test
+    void existingUsersArePinnedToShardZeroWhenShardingIsTurnedOn() {
+        JdbcTemplate directory = new JdbcTemplate(shardRouter.getDataSource(0));
+        long legacyId = 900_000;
+        while (shardRouter.ringShardFor(legacyId) == 0) {
+            legacyId++;
+        }
+        // Пользователь из времён одной базы: строки только на шарде 0
+        directory.update("insert into users (id, name, email, registration_date) values (?, ?, ?, ?)",
+            legacyId, "Legacy", "legacy-" + legacyId + "@example.com", Timestamp.from(Instant.now()));
+        List<Long> pinnedBefore = directory.queryForList("select user_id from shard_assignment", Long.class);
+        directory.update("update maintenance_marker set value = '0' where name = 'shard-layout'");
+
+        try {
+            shardRouter.pinUsersToCurrentHomes();
+
+            assertEquals(new ShardRouter.Placement(0, false), shardRouter.placementOf(legacyId));
+            assertEquals("0,1,2", directory.queryForObject(
+                "select value from maintenance_marker where name = 'shard-layout'", String.class));
+        } finally {
+            // Остальные пользователи теста зарегистрированы уже по кольцу — снимаем лишние закрепления
+            List<Long> pinned = directory.queryForList("select user_id from shard_assignment", Long.class);
+            pinned.stream()
+                .filter(userId -> !pinnedBefore.contains(userId))
+                .forEach(shardRouter::unassign);
+            directory.update("update maintenance_marker set value = '0,1,2' where name = 'shard-layout'");
+            directory.update("delete from users where id = ?", legacyId);
+        }
+    }
+
+    private Long register() {
+        String email = "shard-" + UUID.randomUUID() + "@example.com";
+        UserRequest request = new UserRequest();
+        request.setName("Shard user");
+        request.setEmail(email);
+        request.setPassword("password");
+        authService.register(request);
+        return userRepository.findByEmail(email).orElseThrow().getId();
+    }
+
+    private Long createTask(Long userId) {
+        CategoryRequest categoryRequest = new CategoryRequest();
+        categoryRequest.setName("Work");
+        Long categoryId = categoryService.save(userId, categoryRequest).getId();
+
+        TaskRequest request = new TaskRequest();
+        request.setTask("Sharded");
+        request.setDescription("Lives on the home shard");
+        request.setStatus("TODO");
+        request.setPriority("HIGH");
+        request.setCategoryId(categoryId);
+        request.setDueDate(LocalDateTime.now().plusDays(1));
+        return taskService.save(userId, request).getId();
+    }
+
+    private long countRows(int shard, String table, String column, Long userId) {
+        return new JdbcTemplate(shardRouter.getDataSource(shard)).queryForObject(
+            "select count(*) from " + table + " where " + column + " = ?", Long.class, userId);
+    }
+}
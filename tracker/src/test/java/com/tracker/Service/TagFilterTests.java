@@ -0,0 +1,146 @@
+package com.tracker.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.tracker.DTO.CategoryRequest;
+import com.tracker.DTO.TagRequest;
+import com.tracker.DTO.TaskRequest;
+import com.tracker.DTO.TaskResponse;
+import com.tracker.Entity.Role;
+import com.tracker.Entity.Status;
+import com.tracker.Entity.TaggedType;
+import com.tracker.Entity.User;
+import com.tracker.Repository.UserRepository;
+
+/**
+ * AND/OR/NOT tag filters answered by {@link TagIndex}, and the index following writes.
+ * Tasks: first {a, b}, second {a}, third {b}, fourth untagged.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TagFilterTests {
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private Long categoryId;
+    private Long a;
+    private Long b;
+    private Long first;
+    private Long second;
+    private Long third;
+    private Long fourth;
+
+    @BeforeEach
+    void setUp() {
+        String email = UUID.randomUUID() + "@example.com";
+        userId = userRepository.save(new User("Test", email, Role.USER, Status.ACTIVE, "hash")).getId();
+
+        CategoryRequest category = new CategoryRequest();
+        category.setName("Category " + UUID.randomUUID());
+        categoryId = categoryService.save(userId, category).getId();
+
+        // Индекс пользователя уже загружен: дальше он живёт только на событиях
+        find(Set.of(), Set.of(), Set.of());
+
+        a = tag("a");
+        b = tag("b");
+        first = task();
+        second = task();
+        third = task();
+        fourth = task();
+
+        tagService.setTags(userId, TaggedType.TASK, first, Set.of(a, b));
+        tagService.setTags(userId, TaggedType.TASK, second, Set.of(a));
+        tagService.setTags(userId, TaggedType.TASK, third, Set.of(b));
+    }
+
+    @Test
+    void setOperations() {
+        assertEquals(List.of(second, first), find(Set.of(a), Set.of(), Set.of()));
+        assertEquals(List.of(first), find(Set.of(a, b), Set.of(), Set.of()));
+        assertEquals(List.of(third, second, first), find(Set.of(), Set.of(a, b), Set.of()));
+        assertEquals(List.of(second), find(Set.of(), Set.of(a, b), Set.of(b)));
+        assertEquals(List.of(fourth, third), find(Set.of(), Set.of(), Set.of(a)));
+    }
+
+    @Test
+    void indexFollowsWrites() {
+        tagService.setTags(userId, TaggedType.TASK, first, Set.of(b));
+        taskService.delete(userId, third, null);
+
+        assertEquals(List.of(second), find(Set.of(a), Set.of(), Set.of()));
+        assertEquals(List.of(first), find(Set.of(b), Set.of(), Set.of()));
+
+        tagService.delete(userId, b);
+
+        assertEquals(List.of(), find(Set.of(b), Set.of(), Set.of()));
+        assertEquals(List.of(fourth, first), find(Set.of(), Set.of(), Set.of(a)));
+    }
+
+    @Test
+    void newItemsTakeOverFreedSlotsWithoutTheirTags() {
+        taskService.delete(userId, third, null);
+        Long fifth = task();
+
+        assertEquals(List.of(first), find(Set.of(b), Set.of(), Set.of()));
+        assertEquals(List.of(fifth, fourth), find(Set.of(), Set.of(), Set.of(a, b)));
+
+        tagService.setTags(userId, TaggedType.TASK, fifth, Set.of(b));
+
+        assertEquals(List.of(fifth, first), find(Set.of(b), Set.of(), Set.of()));
+    }
+
+    @Test
+    void pagesAreSlicedNewestFirst() {
+        Page<TaskResponse> page = tagService.findTasks(userId, Set.of(), Set.of(), Set.of(), PageRequest.of(1, 3));
+
+        assertEquals(4, page.getTotalElements());
+        assertEquals(List.of(first), page.getContent().stream().map(TaskResponse::getId).toList());
+    }
+
+    private List<Long> find(Set<Long> all, Set<Long> any, Set<Long> none) {
+        return tagService.findTasks(userId, all, any, none, PageRequest.of(0, 20)).getContent().stream()
+            .map(TaskResponse::getId)
+            .toList();
+    }
+
+    private Long tag(String name) {
+        TagRequest request = new TagRequest();
+        request.setName(name);
+        return tagService.save(userId, request).getId();
+    }
+
+    private Long task() {
+        TaskRequest request = new TaskRequest();
+        request.setTask("Write tests");
+        request.setStatus("TODO");
+        request.setPriority("HIGH");
+        request.setCategoryId(categoryId);
+        request.setDueDate(LocalDateTime.now().plusDays(1));
+        return taskService.save(userId, request).getId();
+    }
+}
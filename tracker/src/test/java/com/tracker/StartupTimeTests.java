@@ -0,0 +1,90 @@
+package com.tracker;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Time from launching the application with the {@code fast} profile to the first answered
+ * request. Fails when it exceeds {@code startup.max-millis}, so CI catches regressions.
+ *
+ * Run with {@code ./mvnw -Pstartup test}, e.g. {@code -Dstartup.max-millis=8000}. The profile
+ * runs AOT processing first; the application is started in a fresh JVM with
+ * {@code -Dspring.aot.enabled=true}, the way Dockerfile.fast starts it (without the CDS archive).
+ */
+@Tag("startup")
+class StartupTimeTests {
+
+    @Test
+    void firstRequestIsServedInTime() throws Exception {
+        long maxMillis = Long.getLong("startup.max-millis", 15000);
+        int port = freePort();
+        Path log = Path.of("target", "startup.log");
+
+        ProcessBuilder builder = new ProcessBuilder(List.of(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-Dspring.aot.enabled=true",
+            "-cp", System.getProperty("java.class.path"),
+            TrackerApplication.class.getName(),
+            "--spring.profiles.active=fast,startup",
+            "--server.port=" + port))
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile());
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest ping = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/public/ping")).GET().build();
+
+        long started = System.nanoTime();
+        Process process = builder.start();
+        try {
+            // Ждём с запасом сверх лимита, чтобы в отчёте было реальное время, а не таймаут
+            long deadline = started + Duration.ofMillis(maxMillis * 2).toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    fail("Application exited with code " + process.exitValue() + ", see " + log.toAbsolutePath());
+                }
+                if (answers(client, ping)) {
+                    long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+                    System.out.println("Time to first request: " + elapsedMillis + " ms (limit " + maxMillis + " ms)");
+                    assertTrue(elapsedMillis <= maxMillis,
+                        "First request took " + elapsedMillis + " ms, limit is " + maxMillis + " ms");
+                    return;
+                }
+                Thread.sleep(20);
+            }
+            fail("No answer within " + maxMillis * 2 + " ms, see " + log.toAbsolutePath());
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static boolean answers(HttpClient client, HttpRequest ping) throws InterruptedException {
+        try {
+            return client.send(ping, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tracker.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.tracker.Entity.Note;
+
+/**
+ * Whatever the settings, what the codec writes fits the note columns.
+ */
+class NoteContentCodecTests {
+
+    @Test
+    void settingsAboveTheColumnLengthAreClamped() {
+        NoteContentCodec codec = new NoteContentCodec(1000, 1000);
+        String content = "x".repeat(600);
+
+        Note note = new Note();
+        codec.write(note, content);
+
+        assertEquals(Note.SUMMARY_LENGTH, note.getSummary().length());
+        assertNull(note.getContent());
+        assertEquals(content, codec.read(note));
+    }
+
+    @Test
+    void shortContentIsKeptAsIs() {
+        NoteContentCodec codec = new NoteContentCodec(255, 200);
+
+        Note note = new Note();
+        codec.write(note, "  short\n\ttext ");
+
+        assertEquals("short text", note.getSummary());
+        assertEquals("  short\n\ttext ", note.getContent());
+        assertNull(note.getContentGz());
+    }
+}
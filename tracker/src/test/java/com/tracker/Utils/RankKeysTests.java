@@ -0,0 +1,77 @@
+package com.tracker.Utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Keys sort as plain strings: strictly between their neighbours, never ending in 0.
+ */
+class RankKeysTests {
+
+    @Test
+    void betweenFallsStrictlyInsideTheGap() {
+        assertBetween(null, null);
+        assertBetween("a", "b");
+        assertBetween("a", "a1");
+        assertBetween("az", "b");
+        assertBetween(null, "1");
+        assertBetween(null, "01");
+        assertBetween("zz", null);
+        assertBetween(RankKeys.forTime(1000), RankKeys.forTime(1001));
+        assertEquals("ai", RankKeys.between("a", "b"));
+    }
+
+    @Test
+    void repeatedMovesIntoTheSameGapKeepTheOrder() {
+        String lo = "a";
+        String hi = "b";
+        for (int i = 0; i < 200; i++) {
+            // попеременно к нижнему и к верхнему соседу
+            String key = assertBetween(lo, hi);
+            if (i % 2 == 0) {
+                hi = key;
+            } else {
+                lo = key;
+            }
+        }
+    }
+
+    @Test
+    void betweenRejectsReversedOrEqualNeighbours() {
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("a", "a"));
+        assertThrows(IllegalArgumentException.class, () -> RankKeys.between("A", null));
+    }
+
+    @Test
+    void spreadIsAscendingAndBelowNewKeys() {
+        List<String> keys = RankKeys.spread(1000);
+        String next = RankKeys.now();
+
+        assertEquals(1000, keys.size());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0, keys.get(i - 1) + " !< " + keys.get(i));
+        }
+        assertTrue(keys.get(keys.size() - 1).compareTo(next) < 0);
+        assertTrue(keys.stream().allMatch(key -> key.length() == next.length()));
+    }
+
+    @Test
+    void timeKeysFollowTime() {
+        assertTrue(RankKeys.forTime(999).compareTo(RankKeys.forTime(1000)) < 0);
+        assertTrue(RankKeys.forTime(35).compareTo(RankKeys.forTime(36)) < 0);
+    }
+
+    private static String assertBetween(String lo, String hi) {
+        String key = RankKeys.between(lo, hi);
+        assertTrue(lo == null || lo.compareTo(key) < 0, lo + " !< " + key);
+        assertTrue(hi == null || key.compareTo(hi) < 0, key + " !< " + hi);
+        assertTrue(!key.endsWith("0"), key);
+        return key;
+    }
+}